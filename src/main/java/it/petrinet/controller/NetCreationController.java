@@ -3,6 +3,7 @@ package it.petrinet.controller;
 import it.petrinet.model.PetriNet;
 import it.petrinet.model.database.PetriNetsDAO;
 import it.petrinet.petrinet.view.PetriNetEditorPane;
+import it.petrinet.service.NetVerificationService;
 import it.petrinet.service.SessionContext;
 import it.petrinet.view.ViewNavigator;
 import it.petrinet.view.components.toolbar.EditorToolBar;
@@ -31,7 +32,6 @@ public class NetCreationController {
 
     private static final Logger LOGGER = Logger.getLogger(NetCreationController.class.getName());
     private static final String TIMEZONE_ID = "Europe/Rome";
-    private static final String FILE_EXTENSION = ".pnml";
     private static final String FILE_TYPE = "image";
 
     // FXML Components
@@ -197,10 +197,13 @@ public class NetCreationController {
 
     /**
      * Handles the event when the Petri net is successfully saved.
+     * The net is stored as not ready and verified in the background: users can
+     * subscribe to it only once {@link NetVerificationService#publish} accepts it.
      */
     private void handlePetriNetSaved() {
         try {
-            savePetriNetToDatabase();
+            PetriNet petriNet = savePetriNetToDatabase();
+            publishInBackground(petriNet);
             cleanupResources();
             navigateToHome();
         } catch (Exception e) {
@@ -212,10 +215,29 @@ public class NetCreationController {
     /**
      * Saves the Petri net information to the database.
      */
-    private void savePetriNetToDatabase() {
+    private PetriNet savePetriNetToDatabase() {
         PetriNet petriNet = createPetriNetRecord();
         PetriNetsDAO.insertNet(petriNet);
         LOGGER.info("Petri net saved to database: " + netName);
+        return petriNet;
+    }
+
+    /**
+     * Verifies the net off the FX thread, since exploring its state space can
+     * take a while, and tells the admin if it is refused.
+     */
+    private void publishInBackground(PetriNet petriNet) {
+        Thread verifier = new Thread(() -> {
+            if (NetVerificationService.publish(petriNet)) {
+                LOGGER.info("Petri net published: " + petriNet.getNetName());
+            } else {
+                showErrorDialog("Net Not Published", "The net " + petriNet.getNetName()
+                        + " was saved but failed verification: some computations cannot reach the end place,"
+                        + " or a place can hold an unbounded number of tokens. Users cannot subscribe to it.");
+            }
+        }, "net-verification-" + petriNet.getNetName());
+        verifier.setDaemon(true);
+        verifier.start();
     }
 
     /**
@@ -224,15 +246,14 @@ public class NetCreationController {
     private PetriNet createPetriNetRecord() {
         String username = SessionContext.getInstance().getUser().getUsername();
         long timestamp = ZonedDateTime.now(ZoneId.of(TIMEZONE_ID)).toEpochSecond();
-        String filename = netName + FILE_EXTENSION;
 
         return new PetriNet(
                 netName,
                 username,
                 timestamp,
-                filename,
+                canvas.getStoredPath(),
                 FILE_TYPE,
-                true
+                false
         );
     }
 
@@ -7,6 +7,7 @@ import it.petrinet.model.PetriNet;
 import it.petrinet.model.database.ComputationStepDAO;
 import it.petrinet.model.database.ComputationsDAO;
 import it.petrinet.model.database.NotificationsDAO;
+import it.petrinet.petrinet.model.Marking;
 import it.petrinet.petrinet.model.TRANSITION_TYPE;
 import it.petrinet.petrinet.model.Transition;
 import it.petrinet.petrinet.view.PetriNetViewerPane;
@@ -88,7 +89,7 @@ public class NetVisualController {
 
   public void startAction() {
     long timestamp = System.currentTimeMillis() / 1000;
-    Map<String, Integer> startMarking = Map.of(board.getStartPlaceName(), 1);
+    Marking startMarking = Marking.of(Map.of(board.getStartPlaceName(), 1));
 
     ComputationStep step = new ComputationStep(
         ComputationsDAO.getIdByComputation(computation),
@@ -434,10 +435,10 @@ public class NetVisualController {
    * @param newTransition   new firable transition
    */
 
-  void onTransitionFiredHandler(String transitionName, Map<String, Integer> newMarkingState,
+  void onTransitionFiredHandler(String transitionName, Marking newMarkingState,
                                 List<Transition> newTransition) {
     // check if, by firing transitionName, some token reached finish place
-    boolean isFinished = newMarkingState.keySet().stream().anyMatch(p -> p.equals(board.getFinishPlaceName()));
+    boolean isFinished = newMarkingState.tokens(board.getFinishPlaceName()) > 0;
     // - Create a new ComputationStep with: clicked transition, new marking state.
 
     // - Add this step to the DB
@@ -489,9 +490,20 @@ public class NetVisualController {
 
   }
 
+  /**
+   * Encodes who can act next. The list is the enabled set maintained by the
+   * board (see {@link PetriNetViewerPane#getEnabledSet()}), so it only holds
+   * enabled transitions and is scanned once.
+   */
   private int computeNextStepType(List<Transition> transitions) {
-    boolean isNextUser = transitions.stream().anyMatch(t -> t.getType().equals(TRANSITION_TYPE.USER));
-    boolean isNextAdmin = transitions.stream().anyMatch(t -> t.getType().equals(TRANSITION_TYPE.ADMIN));
+    boolean isNextUser = false;
+    boolean isNextAdmin = false;
+    for (Transition t : transitions) {
+      isNextUser |= t.getType() == TRANSITION_TYPE.USER;
+      isNextAdmin |= t.getType() == TRANSITION_TYPE.ADMIN;
+      if (isNextUser && isNextAdmin)
+        break;
+    }
 
     if (isNextUser && isNextAdmin)
       return 3;
@@ -1,5 +1,7 @@
 package it.petrinet.model;
 
+import it.petrinet.petrinet.model.Marking;
+
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
@@ -313,6 +315,17 @@ public class Computation implements Comparable<Computation> {
     return Collections.unmodifiableSortedSet(steps);
   }
 
+  /**
+   * Returns the marking reached by the last step.
+   *
+   * @return the marking of the last step, or the empty marking if there are no
+   *         steps
+   * @see ComputationStep#getMarking()
+   */
+  public Marking getLastMarking() {
+    return steps.isEmpty() ? Marking.empty() : steps.last().getMarking();
+  }
+
   /**
    * Returns the number of computation steps in this computation.
    *
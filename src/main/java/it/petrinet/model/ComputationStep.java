@@ -1,8 +1,9 @@
 package it.petrinet.model;
 
+import it.petrinet.petrinet.model.Marking;
+
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
@@ -13,14 +14,12 @@ import java.util.Objects;
  * Steps are naturally ordered by their timestamp.
  */
 public class ComputationStep implements Comparable<ComputationStep> {
-  // TODO: remove this field, it is not used
-  private String TEMP_MARKING_STATE;
 
   private final long id;
   private final int computationId;
   private final String netId;
   private final String transitionName;
-  private Map<String, Integer> markingState = new HashMap<>();
+  private final Marking marking;
   private final long timestamp;
 
   /**
@@ -30,28 +29,36 @@ public class ComputationStep implements Comparable<ComputationStep> {
    * @param computationId  identifier of the parent computation
    * @param netId          identifier of the associated Petri net
    * @param transitionName name of the transition that was executed
-   * @param markingState   serialized representation of the marking after
-   *                       transition execution
+   * @param marking        marking after transition execution
    * @param timestamp      when this step occurred (Unix timestamp in seconds)
-   * @throws IllegalArgumentException if any required parameter is null or empty
    */
-  public ComputationStep(long id, int computationId, String netId, String transitionName, String markingState,
+  public ComputationStep(long id, int computationId, String netId, String transitionName, Marking marking,
       long timestamp) {
-//    validatePositiveId(id, "id");
-//    validatePositiveId(computationId, "computationId");
-    // validateRequiredString(netId, "netId");
-    // validateRequiredString(transitionName, "transitionName");
-    //validateRequiredString(markingState, "markingState");
-
     this.id = id;
     this.computationId = computationId;
     this.netId = netId;
     this.transitionName = transitionName;
-    this.TEMP_MARKING_STATE = markingState;
-    parseMarkingState(markingState);
+    this.marking = marking != null ? marking : Marking.empty();
     this.timestamp = timestamp;
   }
 
+  /**
+   * Creates a new computation step.
+   *
+   * @param id             unique identifier for this step
+   * @param computationId  identifier of the parent computation
+   * @param netId          identifier of the associated Petri net
+   * @param transitionName name of the transition that was executed
+   * @param markingState   serialized representation of the marking after
+   *                       transition execution, see {@link Marking#parse}
+   * @param timestamp      when this step occurred (Unix timestamp in seconds)
+   * @throws IllegalArgumentException if the marking state is malformed
+   */
+  public ComputationStep(long id, int computationId, String netId, String transitionName, String markingState,
+      long timestamp) {
+    this(id, computationId, netId, transitionName, Marking.parse(markingState), timestamp);
+  }
+
   /**
    * Creates a new computation step.
    *
@@ -61,58 +68,22 @@ public class ComputationStep implements Comparable<ComputationStep> {
    * @param markingState   serialized representation of the marking after
    *                       transition execution
    * @param timestamp      when this step occurred (Unix timestamp in seconds)
-   * @throws IllegalArgumentException if any required parameter is null or empty
+   * @throws IllegalArgumentException if the marking state is malformed
    */
   public ComputationStep(int computationId, String netId, String transitionName, String markingState,
       long timestamp) {
     this(-1, computationId, netId, transitionName, markingState, timestamp);
   }
 
-  public ComputationStep(int computationId, String netId, String transitionName, Map<String, Integer> markingState,
+  public ComputationStep(int computationId, String netId, String transitionName, Marking marking,
       long timestamp) {
-    this(-1, computationId, netId, transitionName, "", timestamp);
-
-    this.markingState = markingState != null ? new HashMap<>(markingState) : new HashMap<>();
-    serializeMarkingState(markingState);
+    this(-1, computationId, netId, transitionName, marking, timestamp);
   }
 
-  private void serializeMarkingState(Map<String, Integer> markingState) {
-    if (markingState == null || markingState.isEmpty()) {
-      return;
-    }
-
-    StringBuilder sb = new StringBuilder();
-    for (Map.Entry<String, Integer> entry : markingState.entrySet()) {
-      if (!sb.isEmpty()) {
-        sb.append(",");
-      }
-      sb.append(entry.getKey()).append(":").append(entry.getValue());
-    }
-    this.TEMP_MARKING_STATE = sb.toString();
-  }
-
-  private void parseMarkingState(String markingState) {
-    // marking state are formatted as "place1:count1,place2:count2,..."
-    if (markingState == null || markingState.trim().isEmpty()) {
-      return;
-    }
-
-    String[] pairs = markingState.split(",");
-    for (String pair : pairs) {
-      String[] parts = pair.split(":");
-      if (parts.length != 2) {
-        throw new IllegalArgumentException("Invalid marking state format: " + markingState);
-      }
-      String place = parts[0].trim();
-      int count;
-      try {
-        count = Integer.parseInt(parts[1].trim());
-      } catch (NumberFormatException e) {
-        throw new IllegalArgumentException("Invalid count in marking state: " + parts[1]);
-      }
-      this.markingState.put(place, count);
-    }
-
+  public ComputationStep(int computationId, String netId, String transitionName, Map<String, Integer> markingState,
+      long timestamp) {
+    this(-1, computationId, netId, transitionName,
+        markingState != null ? Marking.of(markingState) : Marking.empty(), timestamp);
   }
 
   public static ComputationStep createEmptyStep(int computationId, String netId) {
@@ -141,17 +112,21 @@ public class ComputationStep implements Comparable<ComputationStep> {
   }
 
   /**
-   * Returns the serialized marking state after this step's transition execution.
+   * Returns the marking after this step's transition execution.
    *
-   * @return marking state
+   * @return marking
    */
-  public Map<String, Integer> getMarkingState() {
-    return markingState;
+  public Marking getMarking() {
+    return marking;
   }
 
-  // TODO: remove this method, it is not used
-  public String getTempMarkingState() {
-    return TEMP_MARKING_STATE;
+  /**
+   * Returns the marking after this step's transition execution by place name.
+   *
+   * @return place name to token count, empty places omitted
+   */
+  public Map<String, Integer> getMarkingState() {
+    return marking.toMap();
   }
 
   /**
@@ -227,12 +202,12 @@ public class ComputationStep implements Comparable<ComputationStep> {
         Objects.equals(computationId, that.computationId) &&
         Objects.equals(netId, that.netId) &&
         Objects.equals(transitionName, that.transitionName) &&
-        Objects.equals(markingState, that.markingState);
+        Objects.equals(marking, that.marking);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(id, computationId, netId, transitionName, markingState, timestamp);
+    return Objects.hash(id, computationId, netId, transitionName, marking, timestamp);
   }
 
   // for debugging and logging purposes
@@ -252,7 +227,7 @@ public class ComputationStep implements Comparable<ComputationStep> {
     return String.format("Step[%d]: Transition '%s' executed at %s\n" +
         "  Computation: %s, Net: %s\n" +
         "  Resulting marking: %s",
-        id, transitionName, getDateTime(), computationId, netId, markingState);
+        id, transitionName, getDateTime(), computationId, netId, marking);
   }
 
   private void validateRequiredString(String value, String fieldName) {
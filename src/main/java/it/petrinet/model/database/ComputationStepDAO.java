@@ -7,9 +7,29 @@ import javax.swing.plaf.nimbus.State;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class ComputationStepDAO implements DataAccessObject{
 
+    /** Rows fetched from the driver at a time when streaming steps. */
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    /**
+     * Raw content of a computationSteps row. The marking is kept as stored, so
+     * that rows with a malformed marking can still be reported.
+     */
+    public record StepRow(long id, int computationId, String netId, String transitionName, String markingState,
+                          long timestamp) {
+
+        /**
+         * @return the row as a ComputationStep
+         * @throws IllegalArgumentException if the stored marking is malformed
+         */
+        public ComputationStep toStep() {
+            return new ComputationStep(id, computationId, netId, transitionName, markingState, timestamp);
+        }
+    }
+
     public void createTable() {                          //metodo per creazione tabelle
         String table = "CREATE TABLE IF NOT EXISTS computationSteps (" +
                 "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
@@ -53,7 +73,7 @@ public class ComputationStepDAO implements DataAccessObject{
             p_statement.setInt(1, step.getComputationId());
             p_statement.setString(2, step.getNetId());
             p_statement.setString(3, step.getTransitionName());
-            p_statement.setString(4, step.getTempMarkingState());
+            p_statement.setString(4, step.getMarking().toString());
             p_statement.setLong(5, step.getTimestamp());
             p_statement.executeUpdate();
         } catch (SQLException e) {
@@ -279,4 +299,39 @@ public class ComputationStepDAO implements DataAccessObject{
         }
         return lastStep;
     }
-}
\ No newline at end of file
+
+    /**
+     * Streams every step of every computation to the consumer, grouped by
+     * computation and in insertion order (the autoincrement id, which unlike
+     * the timestamp is not affected by the time zone offset added to fired
+     * steps). Rows are read from a single cursor, so memory use does not depend
+     * on the number of steps.
+     *
+     * @param consumer receives the rows one at a time
+     */
+    public static void forEachStep(Consumer<StepRow> consumer) {
+        String query = "SELECT id, computationId, netId, transitionName, markingState, timestamp " +
+                "FROM computationSteps " +
+                "ORDER BY computationId ASC, id ASC;";
+
+        try (Connection connection = DatabaseManager.getDBConnection();
+             PreparedStatement p_statement = connection.prepareStatement(query)) {
+
+            p_statement.setFetchSize(STREAM_FETCH_SIZE);
+            try (ResultSet result = p_statement.executeQuery()) {
+                while (result.next()) {
+                    consumer.accept(new StepRow(
+                            result.getLong("id"),
+                            result.getInt("computationId"),
+                            result.getString("netId"),
+                            result.getString("transitionName"),
+                            result.getString("markingState"),
+                            result.getLong("timestamp")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            DatabaseManager.handleSQLException("forEachStep", e);
+        }
+    }
+}
@@ -3,16 +3,22 @@ package it.petrinet.model.database;
 import java.sql.*;
 
 public class DatabaseManager {
+    /** System property overriding the JDBC url of the database, e.g. for tests. */
+    public static final String DATABASE_URL_PROPERTY = "petrinet.database.url";
+
     private static final String globalDatabaseDir = "jdbc:sqlite:src/main/resources/database/database.db";
     private static final String globalDir = "jdbc:sqlite:src/main/resources/database/";
 
 
     public static Connection getDBConnection() throws SQLException {
-        return DriverManager.getConnection(globalDatabaseDir);
+        return DriverManager.getConnection(getGlobalDBDir());
     }
 
+    /**
+     * @return the JDBC url of the database, {@link #DATABASE_URL_PROPERTY} if set
+     */
     public static String getGlobalDBDir(){
-        return globalDatabaseDir;
+        return System.getProperty(DATABASE_URL_PROPERTY, globalDatabaseDir);
     }
 
     public static boolean tableExists(String tableName) throws SQLException {
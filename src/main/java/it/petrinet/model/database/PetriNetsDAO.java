@@ -87,6 +87,60 @@ public class PetriNetsDAO implements DataAccessObject {
         }
     }
 
+    /**
+     * Inserts many PetriNets in a single transaction. Nets whose name is
+     * already taken are skipped instead of failing the whole batch.
+     *
+     * @param nets the PetriNets to insert
+     * @return for each net, whether it was inserted; all false if the
+     *         transaction was rolled back
+     */
+    public static boolean[] insertNets(List<PetriNet> nets) {
+        String command = """
+            INSERT OR IGNORE INTO petri_nets(netName, creatorId, creationDate, XML_PATH, image_PATH, isReady)
+            VALUES (?, ?, ?, ?, ?, ?)""";
+        boolean[] inserted = new boolean[nets.size()];
+        if (nets.isEmpty()) {
+            return inserted;
+        }
+
+        try (Connection connection = DatabaseManager.getDBConnection();
+             PreparedStatement ps = connection.prepareStatement(command);
+             Statement statement = connection.createStatement()) {
+
+            if (!DatabaseManager.tableExists("petri_nets")) {
+                new PetriNetsDAO().createTable();
+            }
+
+            DatabaseManager.enableForeignKeys(statement);
+            connection.setAutoCommit(false);
+            try {
+                for (PetriNet net : nets) {
+                    ps.setString(1, net.getNetName());
+                    ps.setString(2, net.getCreatorId());
+                    ps.setLong(3, net.getCreationDate());
+                    ps.setString(4, net.getXML_PATH());
+                    ps.setString(5, net.getImage_PATH());
+                    ps.setBoolean(6, net.isReady());
+                    ps.addBatch();
+                }
+                int[] counts = ps.executeBatch();
+                connection.commit();
+                for (int i = 0; i < counts.length; i++) {
+                    inserted[i] = counts[i] > 0;
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            DatabaseManager.handleSQLException("insertNets", e);
+            return new boolean[nets.size()];
+        }
+        return inserted;
+    }
+
     /**
      * Deletes the given PetriNet from the database.
      *
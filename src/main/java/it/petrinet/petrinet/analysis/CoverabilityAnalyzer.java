@@ -0,0 +1,181 @@
+package it.petrinet.petrinet.analysis;
+
+import it.petrinet.petrinet.engine.CompiledNet;
+import it.petrinet.petrinet.model.PetriNetModel;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Karp–Miller coverability analysis, used to find places whose tokens can grow
+ * forever before attempting a full state-space exploration.
+ * <p>
+ * Markings may contain {@link #OMEGA}, standing for "arbitrarily many tokens".
+ * Every new marking is compared with the markings on its discovery path: if it
+ * strictly covers one of them, the firing sequence in between can be repeated
+ * indefinitely and the places that grew are <i>accelerated</i> to ω. Markings
+ * are deduplicated globally in a {@link MarkingSet}, so each one is expanded at
+ * most once and the analysis builds a coverability graph rather than the
+ * (exponentially larger) tree.
+ * </p>
+ * Usage:
+ *
+ * <pre>
+ * CoverabilityResult result = new CoverabilityAnalyzer(model).analyze();
+ * if (!result.isBounded()) {
+ *   // result.getUnboundedPlaces() ...
+ * }
+ * </pre>
+ */
+public class CoverabilityAnalyzer {
+
+  /** Token count standing for ω; absorbs every addition and subtraction. */
+  public static final int OMEGA = Integer.MAX_VALUE;
+
+  private final CompiledNet net;
+  private int maxNodes = 1_000_000;
+
+  /**
+   * @param net the compiled net
+   * @throws IllegalArgumentException if the net has inhibitor or reset arcs,
+   *                                  on which the acceleration is not sound
+   */
+  public CoverabilityAnalyzer(CompiledNet net) {
+    if (net.hasInhibitorOrResetArcs()) {
+      throw new IllegalArgumentException("Coverability analysis does not support inhibitor or reset arcs: "
+          + net.getName());
+    }
+    this.net = net;
+  }
+
+  public CoverabilityAnalyzer(PetriNetModel model) {
+    this(CompiledNet.compile(model));
+  }
+
+  /**
+   * Limits the number of nodes of the coverability graph; when a node beyond
+   * the limit is found the result is marked as incomplete. A graph of exactly
+   * {@code maxNodes} nodes is still built completely.
+   */
+  public CoverabilityAnalyzer withMaxNodes(int maxNodes) {
+    if (maxNodes <= 0) {
+      throw new IllegalArgumentException("maxNodes must be positive");
+    }
+    this.maxNodes = maxNodes;
+    return this;
+  }
+
+  /**
+   * Analyzes the net from the start marking.
+   *
+   * @return the analysis result
+   */
+  public CoverabilityResult analyze() {
+    return analyze(net.startMarking());
+  }
+
+  /**
+   * Analyzes the net from the given marking.
+   *
+   * @param initialMarking marking indexed by place
+   * @return the analysis result
+   */
+  public CoverabilityResult analyze(int[] initialMarking) {
+    int places = net.placeCount();
+    int transitions = net.transitionCount();
+
+    MarkingSet nodes = new MarkingSet(places);
+    IntList parent = new IntList();
+    int[] bounds = initialMarking.clone();
+
+    nodes.add(initialMarking);
+    parent.add(-1);
+
+    int[] current = new int[places];
+    int[] next = new int[places];
+    int[] ancestor = new int[places];
+    boolean complete = true;
+
+    // ids are assigned in discovery order, so the BFS queue is the id range
+    for (int node = 0; node < nodes.size() && complete; node++) {
+      nodes.get(node, current);
+      for (int t = 0; t < transitions; t++) {
+        if (!net.isEnabled(t, current)) {
+          continue;
+        }
+        System.arraycopy(current, 0, next, 0, places);
+        fire(t, next);
+        accelerate(nodes, parent, node, next, ancestor);
+
+        if (nodes.add(next) >= 0) {
+          parent.add(node);
+          for (int p = 0; p < places; p++) {
+            bounds[p] = Math.max(bounds[p], next[p]);
+          }
+          if (nodes.size() > maxNodes) {
+            complete = false;
+            break;
+          }
+        }
+      }
+    }
+
+    Map<String, Integer> placeBounds = new LinkedHashMap<>();
+    List<String> unbounded = new ArrayList<>();
+    for (int p = 0; p < places; p++) {
+      placeBounds.put(net.placeName(p), bounds[p]);
+      if (bounds[p] == OMEGA) {
+        // places are indexed in name order, so the list is already sorted
+        unbounded.add(net.placeName(p));
+      }
+    }
+    return new CoverabilityResult(nodes.size(), placeBounds, unbounded, complete);
+  }
+
+  /**
+   * Like {@link CompiledNet#fire(int, int[])}, but leaves ω places unchanged.
+   */
+  private void fire(int t, int[] marking) {
+    for (int k = 0; k < net.inputCount(t); k++) {
+      int p = net.inputPlace(t, k);
+      if (marking[p] != OMEGA) {
+        marking[p] -= net.inputWeight(t, k);
+      }
+    }
+    for (int k = 0; k < net.outputCount(t); k++) {
+      int p = net.outputPlace(t, k);
+      if (marking[p] != OMEGA) {
+        // saturate instead of overflowing into negative counts
+        marking[p] = (int) Math.min(OMEGA, (long) marking[p] + net.outputWeight(t, k));
+      }
+    }
+  }
+
+  /**
+   * Walks the discovery path of {@code from} and sets to ω every place in which
+   * {@code marking} strictly exceeds an ancestor it covers.
+   */
+  private static void accelerate(MarkingSet nodes, IntList parent, int from, int[] marking, int[] ancestor) {
+    for (int node = from; node >= 0; node = parent.get(node)) {
+      nodes.get(node, ancestor);
+      boolean covers = true;
+      boolean strictly = false;
+      for (int p = 0; p < marking.length; p++) {
+        if (marking[p] < ancestor[p]) {
+          covers = false;
+          break;
+        }
+        strictly |= marking[p] > ancestor[p];
+      }
+      if (covers && strictly) {
+        for (int p = 0; p < marking.length; p++) {
+          if (marking[p] > ancestor[p]) {
+            marking[p] = OMEGA;
+          }
+        }
+      }
+    }
+  }
+}
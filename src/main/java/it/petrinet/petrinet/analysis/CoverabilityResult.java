@@ -0,0 +1,72 @@
+package it.petrinet.petrinet.analysis;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a coverability analysis of a net.
+ * <p>
+ * Place bounds are the largest token count seen in any node of the
+ * coverability graph; {@link CoverabilityAnalyzer#OMEGA} marks a place whose
+ * tokens can grow without limit. Bounds are exact only if the analysis is
+ * complete.
+ * </p>
+ */
+public class CoverabilityResult {
+
+  private final int nodeCount;
+  private final Map<String, Integer> placeBounds;
+  private final List<String> unboundedPlaces;
+  private final boolean complete;
+
+  CoverabilityResult(int nodeCount, Map<String, Integer> placeBounds, List<String> unboundedPlaces,
+      boolean complete) {
+    this.nodeCount = nodeCount;
+    this.placeBounds = Map.copyOf(placeBounds);
+    this.unboundedPlaces = List.copyOf(unboundedPlaces);
+    this.complete = complete;
+  }
+
+  /**
+   * @return number of distinct (possibly ω) markings in the coverability graph
+   */
+  public int getNodeCount() {
+    return nodeCount;
+  }
+
+  /**
+   * @return the bound of every place, keyed by place name
+   */
+  public Map<String, Integer> getPlaceBounds() {
+    return placeBounds;
+  }
+
+  /**
+   * @return names of the places that can hold an unbounded number of tokens,
+   *         sorted
+   */
+  public List<String> getUnboundedPlaces() {
+    return unboundedPlaces;
+  }
+
+  /**
+   * @return false if the analysis stopped at the node limit
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  /**
+   * @return true if the analysis completed and no place is unbounded, so the
+   *         state space (and the steps of any computation) is finite
+   */
+  public boolean isBounded() {
+    return complete && unboundedPlaces.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return "CoverabilityResult{nodes=%d, unbounded=%s, complete=%s}"
+        .formatted(nodeCount, unboundedPlaces, complete);
+  }
+}
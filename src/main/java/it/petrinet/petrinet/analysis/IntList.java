@@ -0,0 +1,52 @@
+package it.petrinet.petrinet.analysis;
+
+import java.util.Arrays;
+
+/**
+ * Minimal growable list of primitive ints, used for frontiers and edge lists
+ * where boxing would dominate the cost of the search.
+ */
+final class IntList {
+
+  private int[] data;
+  private int size;
+
+  IntList() {
+    this(16);
+  }
+
+  IntList(int capacity) {
+    this.data = new int[Math.max(4, capacity)];
+  }
+
+  void add(int value) {
+    if (size == data.length) {
+      data = Arrays.copyOf(data, data.length * 2);
+    }
+    data[size++] = value;
+  }
+
+  int get(int index) {
+    return data[index];
+  }
+
+  int removeLast() {
+    return data[--size];
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  void clear() {
+    size = 0;
+  }
+
+  int[] toArray() {
+    return Arrays.copyOf(data, size);
+  }
+}
@@ -0,0 +1,68 @@
+package it.petrinet.petrinet.analysis;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A non-negative integer vector over the places (P-invariant) or the
+ * transitions (T-invariant) of a net, with minimal support.
+ * <p>
+ * For a P-invariant {@code y}, the weighted token sum {@code y · M} is the same
+ * in every reachable marking {@code M}. A T-invariant {@code x} counts how many
+ * times each transition has to fire to reproduce a marking.
+ * </p>
+ */
+public class Invariant {
+
+  private final Map<String, Integer> weights;
+
+  Invariant(Map<String, Integer> weights) {
+    this.weights = Collections.unmodifiableMap(new LinkedHashMap<>(weights));
+  }
+
+  /**
+   * @return the non-zero coefficients, keyed by place or transition name in
+   *         index order
+   */
+  public Map<String, Integer> getWeights() {
+    return weights;
+  }
+
+  /**
+   * @return the names of the places or transitions with a non-zero coefficient
+   */
+  public List<String> getSupport() {
+    return List.copyOf(weights.keySet());
+  }
+
+  /**
+   * Computes {@code y · M} for a P-invariant.
+   *
+   * @param marking place name to token count; missing places have no tokens
+   * @return the weighted token sum
+   */
+  public long weightedSum(Map<String, Integer> marking) {
+    long sum = 0;
+    for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+      sum += (long) entry.getValue() * marking.getOrDefault(entry.getKey(), 0);
+    }
+    return sum;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof Invariant other && weights.equals(other.weights);
+  }
+
+  @Override
+  public int hashCode() {
+    return weights.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "Invariant" + weights;
+  }
+}
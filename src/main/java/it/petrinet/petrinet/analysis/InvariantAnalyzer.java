@@ -0,0 +1,415 @@
+package it.petrinet.petrinet.analysis;
+
+import it.petrinet.petrinet.engine.CompiledNet;
+import it.petrinet.petrinet.model.PetriNetModel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Computes the minimal-support P- and T-invariants of a net from its incidence
+ * matrix {@code C[p][t] = post(p, t) - pre(p, t)}, without exploring any
+ * marking.
+ * <p>
+ * The algorithm is Farkas' (Fourier–Motzkin elimination on {@code [C | I]}):
+ * one column of {@code C} at a time is cancelled by combining every row with a
+ * positive entry with every row with a negative entry; when all columns are
+ * zero, the identity part of the remaining rows holds the invariants. Rows are
+ * sparse, the column eliminated next is the one producing the fewest new rows,
+ * and after each step the rows whose support strictly contains the support of
+ * another row are dropped, which keeps the intermediate matrix close to the
+ * size of the final result.
+ * </p>
+ * <p>
+ * Inhibitor arcs do not change the incidence matrix. A reset arc empties its
+ * place whatever it holds, so no weighted sum involving that place is
+ * constant and no firing sequence including its transition is guaranteed to
+ * reproduce a marking: such P- and T-invariants are left out.
+ * </p>
+ * Results depend only on the structure of the net, so {@link #cached(CompiledNet)}
+ * keeps them per {@link CompiledNet#fingerprint()}.
+ */
+public class InvariantAnalyzer {
+
+  private static final int CACHE_SIZE = 64;
+
+  private static final Map<Long, InvariantResult> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Long, InvariantResult> eldest) {
+      return size() > CACHE_SIZE;
+    }
+  };
+
+  private final CompiledNet net;
+  private int maxRows = 100_000;
+
+  public InvariantAnalyzer(CompiledNet net) {
+    this.net = net;
+  }
+
+  public InvariantAnalyzer(PetriNetModel model) {
+    this(CompiledNet.compile(model));
+  }
+
+  /**
+   * Limits the number of rows of the intermediate matrix; when the limit is hit
+   * the result is marked as incomplete.
+   */
+  public InvariantAnalyzer withMaxRows(int maxRows) {
+    if (maxRows <= 0) {
+      throw new IllegalArgumentException("maxRows must be positive");
+    }
+    this.maxRows = maxRows;
+    return this;
+  }
+
+  /**
+   * Returns the invariants of the given net, computing them only the first time
+   * a net with the same structure is seen.
+   *
+   * @param net the compiled net
+   * @return the analysis result
+   */
+  public static InvariantResult cached(CompiledNet net) {
+    long key = net.fingerprint();
+    synchronized (CACHE) {
+      InvariantResult result = CACHE.get(key);
+      if (result != null) {
+        return result;
+      }
+    }
+    InvariantResult result = new InvariantAnalyzer(net).analyze();
+    synchronized (CACHE) {
+      CACHE.put(key, result);
+    }
+    return result;
+  }
+
+  /**
+   * Computes P- and T-invariants.
+   *
+   * @return the analysis result
+   */
+  public InvariantResult analyze() {
+    int places = net.placeCount();
+    int transitions = net.transitionCount();
+
+    // incidence matrix, sparse by transition (columns) and by place (rows)
+    List<List<long[]>> byPlace = new ArrayList<>(places);
+    List<List<long[]>> byTransition = new ArrayList<>(transitions);
+    for (int p = 0; p < places; p++) {
+      byPlace.add(new ArrayList<>());
+    }
+    long[] delta = new long[places];
+    for (int t = 0; t < transitions; t++) {
+      for (int k = 0; k < net.inputCount(t); k++) {
+        delta[net.inputPlace(t, k)] -= net.inputWeight(t, k);
+      }
+      for (int k = 0; k < net.outputCount(t); k++) {
+        delta[net.outputPlace(t, k)] += net.outputWeight(t, k);
+      }
+      List<long[]> column = new ArrayList<>();
+      for (int p = 0; p < places; p++) {
+        if (delta[p] != 0) {
+          column.add(new long[] { p, delta[p] });
+          byPlace.get(p).add(new long[] { t, delta[p] });
+          delta[p] = 0;
+        }
+      }
+      byTransition.add(column);
+    }
+
+    boolean[] resetPlaces = new boolean[places];
+    boolean[] resetTransitions = new boolean[transitions];
+    for (int t = 0; t < transitions; t++) {
+      for (int k = 0; k < net.resetCount(t); k++) {
+        resetPlaces[net.resetPlace(t, k)] = true;
+        resetTransitions[t] = true;
+      }
+    }
+
+    try {
+      List<Invariant> placeInvariants = toInvariants(farkas(byPlace, transitions), resetPlaces, net::placeName);
+      List<Invariant> transitionInvariants = toInvariants(farkas(byTransition, places), resetTransitions,
+          net::transitionName);
+
+      boolean[] covered = new boolean[places];
+      for (Invariant invariant : placeInvariants) {
+        for (String place : invariant.getWeights().keySet()) {
+          covered[net.placeIndex(place)] = true;
+        }
+      }
+      List<String> uncovered = new ArrayList<>();
+      for (int p = 0; p < places; p++) {
+        if (!covered[p]) {
+          uncovered.add(net.placeName(p));
+        }
+      }
+      return new InvariantResult(placeInvariants, transitionInvariants, uncovered, true);
+    } catch (ArithmeticException | TooManyRowsException e) {
+      return new InvariantResult(List.of(), List.of(), List.of(), false);
+    }
+  }
+
+  /**
+   * Converts the rows to invariants, leaving out those whose support contains
+   * an excluded variable.
+   */
+  private static List<Invariant> toInvariants(List<Row> rows, boolean[] excluded, IntFunction<String> names) {
+    List<Invariant> invariants = new ArrayList<>(rows.size());
+    for (Row row : rows) {
+      if (Arrays.stream(row.vars).anyMatch(var -> excluded[var])) {
+        continue;
+      }
+      Map<String, Integer> weights = new LinkedHashMap<>();
+      for (int i = 0; i < row.vars.length; i++) {
+        weights.put(names.apply(row.vars[i]), Math.toIntExact(row.coefs[i]));
+      }
+      invariants.add(new Invariant(weights));
+    }
+    return invariants;
+  }
+
+  /**
+   * Runs the elimination on the sparse matrix whose row {@code i} is
+   * {@code matrix.get(i)} (pairs {@code {column, value}} sorted by column).
+   *
+   * @return the rows left when every column is zero, with minimal supports
+   */
+  private List<Row> farkas(List<List<long[]>> matrix, int columns) {
+    int variables = matrix.size();
+    List<Row> rows = new ArrayList<>(variables);
+    for (int i = 0; i < variables; i++) {
+      List<long[]> entries = matrix.get(i);
+      int[] cols = new int[entries.size()];
+      long[] vals = new long[entries.size()];
+      for (int k = 0; k < cols.length; k++) {
+        cols[k] = (int) entries.get(k)[0];
+        vals[k] = entries.get(k)[1];
+      }
+      rows.add(new Row(cols, vals, new int[] { i }, new long[] { 1 }, variables));
+    }
+
+    boolean[] done = new boolean[columns];
+    for (int step = 0; step < columns; step++) {
+      int column = chooseColumn(rows, done);
+      if (column < 0) {
+        break;
+      }
+      done[column] = true;
+
+      List<Row> positive = new ArrayList<>();
+      List<Row> negative = new ArrayList<>();
+      List<Row> next = new ArrayList<>();
+      for (Row row : rows) {
+        long value = row.valueAt(column);
+        if (value > 0) {
+          positive.add(row);
+        } else if (value < 0) {
+          negative.add(row);
+        } else {
+          next.add(row);
+        }
+      }
+      for (Row a : positive) {
+        long va = a.valueAt(column);
+        for (Row b : negative) {
+          long vb = -b.valueAt(column);
+          next.add(Row.combine(a, vb, b, va, variables));
+          if (next.size() > maxRows) {
+            throw new TooManyRowsException();
+          }
+        }
+      }
+      rows = minimalSupports(next);
+    }
+    return rows;
+  }
+
+  /**
+   * Picks the column whose elimination adds the fewest rows; columns that are
+   * already zero in every row are marked done.
+   */
+  private static int chooseColumn(List<Row> rows, boolean[] done) {
+    int[] positive = new int[done.length];
+    int[] negative = new int[done.length];
+    for (Row row : rows) {
+      for (int k = 0; k < row.cols.length; k++) {
+        if (row.vals[k] > 0) {
+          positive[row.cols[k]]++;
+        } else {
+          negative[row.cols[k]]++;
+        }
+      }
+    }
+    int best = -1;
+    long bestGrowth = Long.MAX_VALUE;
+    for (int c = 0; c < done.length; c++) {
+      if (done[c]) {
+        continue;
+      }
+      if (positive[c] == 0 && negative[c] == 0) {
+        done[c] = true;
+        continue;
+      }
+      long growth = (long) positive[c] * negative[c] - positive[c] - negative[c];
+      if (growth < bestGrowth) {
+        bestGrowth = growth;
+        best = c;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Drops rows whose support strictly contains the support of another row, and
+   * duplicates.
+   */
+  private static List<Row> minimalSupports(List<Row> rows) {
+    List<Row> sorted = new ArrayList<>(rows);
+    sorted.sort(Comparator.comparingInt(row -> row.supportSize));
+    List<Row> kept = new ArrayList<>(sorted.size());
+    for (Row row : sorted) {
+      boolean minimal = true;
+      for (Row other : kept) {
+        if (other.supportSize < row.supportSize ? other.supportWithin(row) : other.sameAs(row)) {
+          minimal = false;
+          break;
+        }
+      }
+      if (minimal) {
+        kept.add(row);
+      }
+    }
+    return kept;
+  }
+
+  /**
+   * Row of {@code [C | I]}: the remaining part of the incidence matrix and the
+   * coefficients of the invariant being built, both sparse and sorted, with the
+   * support of the latter as a bit set.
+   */
+  private static final class Row {
+
+    final int[] cols;
+    final long[] vals;
+    final int[] vars;
+    final long[] coefs;
+    final long[] support;
+    final int supportSize;
+
+    Row(int[] cols, long[] vals, int[] vars, long[] coefs, int variables) {
+      this.cols = cols;
+      this.vals = vals;
+      this.vars = vars;
+      this.coefs = coefs;
+      this.support = new long[(variables + 63) >>> 6];
+      for (int var : vars) {
+        support[var >>> 6] |= 1L << var;
+      }
+      this.supportSize = vars.length;
+    }
+
+    long valueAt(int column) {
+      int k = Arrays.binarySearch(cols, column);
+      return k >= 0 ? vals[k] : 0;
+    }
+
+    boolean supportWithin(Row other) {
+      for (int w = 0; w < support.length; w++) {
+        if ((support[w] & ~other.support[w]) != 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    boolean sameAs(Row other) {
+      return Arrays.equals(vars, other.vars) && Arrays.equals(coefs, other.coefs)
+          && Arrays.equals(cols, other.cols) && Arrays.equals(vals, other.vals);
+    }
+
+    /**
+     * @return {@code fa * a + fb * b}, divided by the gcd of its entries
+     */
+    static Row combine(Row a, long fa, Row b, long fb, int variables) {
+      Sparse rest = Sparse.linear(a.cols, a.vals, fa, b.cols, b.vals, fb);
+      Sparse invariant = Sparse.linear(a.vars, a.coefs, fa, b.vars, b.coefs, fb);
+
+      long gcd = 0;
+      for (long value : rest.value()) {
+        gcd = gcd(gcd, Math.abs(value));
+      }
+      for (long value : invariant.value()) {
+        gcd = gcd(gcd, value);
+      }
+      if (gcd > 1) {
+        rest.divide(gcd);
+        invariant.divide(gcd);
+      }
+      return new Row(rest.index(), rest.value(), invariant.index(), invariant.value(), variables);
+    }
+
+    private static long gcd(long a, long b) {
+      while (b != 0) {
+        long r = a % b;
+        a = b;
+        b = r;
+      }
+      return a;
+    }
+  }
+
+  /** Sparse vector with sorted indexes. */
+  private record Sparse(int[] index, long[] value) {
+
+    /**
+     * @return {@code fa * a + fb * b} without zero entries
+     */
+    static Sparse linear(int[] ai, long[] av, long fa, int[] bi, long[] bv, long fb) {
+      int[] index = new int[ai.length + bi.length];
+      long[] value = new long[ai.length + bi.length];
+      int i = 0;
+      int j = 0;
+      int n = 0;
+      while (i < ai.length || j < bi.length) {
+        int key;
+        long sum;
+        if (j == bi.length || (i < ai.length && ai[i] < bi[j])) {
+          key = ai[i];
+          sum = Math.multiplyExact(av[i++], fa);
+        } else if (i == ai.length || bi[j] < ai[i]) {
+          key = bi[j];
+          sum = Math.multiplyExact(bv[j++], fb);
+        } else {
+          key = ai[i];
+          sum = Math.addExact(Math.multiplyExact(av[i++], fa), Math.multiplyExact(bv[j++], fb));
+        }
+        if (sum != 0) {
+          index[n] = key;
+          value[n++] = sum;
+        }
+      }
+      return new Sparse(Arrays.copyOf(index, n), Arrays.copyOf(value, n));
+    }
+
+    void divide(long divisor) {
+      for (int k = 0; k < value.length; k++) {
+        value[k] /= divisor;
+      }
+    }
+  }
+
+  private static final class TooManyRowsException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    TooManyRowsException() {
+      super(null, null, false, false);
+    }
+  }
+}
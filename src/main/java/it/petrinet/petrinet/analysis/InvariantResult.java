@@ -0,0 +1,72 @@
+package it.petrinet.petrinet.analysis;
+
+import java.util.List;
+
+/**
+ * Minimal-support P- and T-invariants of a net.
+ * <p>
+ * If every place belongs to the support of some P-invariant the net is
+ * structurally bounded: no marking reachable from any initial marking can put
+ * more than a fixed number of tokens in a place, which is proven here without
+ * enumerating a single state.
+ * </p>
+ */
+public class InvariantResult {
+
+  private final List<Invariant> placeInvariants;
+  private final List<Invariant> transitionInvariants;
+  private final List<String> uncoveredPlaces;
+  private final boolean complete;
+
+  InvariantResult(List<Invariant> placeInvariants, List<Invariant> transitionInvariants,
+      List<String> uncoveredPlaces, boolean complete) {
+    this.placeInvariants = List.copyOf(placeInvariants);
+    this.transitionInvariants = List.copyOf(transitionInvariants);
+    this.uncoveredPlaces = List.copyOf(uncoveredPlaces);
+    this.complete = complete;
+  }
+
+  /**
+   * @return the minimal-support P-invariants
+   */
+  public List<Invariant> getPlaceInvariants() {
+    return placeInvariants;
+  }
+
+  /**
+   * @return the minimal-support T-invariants
+   */
+  public List<Invariant> getTransitionInvariants() {
+    return transitionInvariants;
+  }
+
+  /**
+   * @return names of the places not covered by any P-invariant
+   */
+  public List<String> getUncoveredPlaces() {
+    return uncoveredPlaces;
+  }
+
+  /**
+   * @return false if the computation was abandoned because the intermediate
+   *         matrix grew past the row limit or a coefficient overflowed; the
+   *         invariants found are then empty
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  /**
+   * @return true if every place is covered by a P-invariant, so the net is
+   *         structurally bounded
+   */
+  public boolean isStructurallyBounded() {
+    return complete && uncoveredPlaces.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return "InvariantResult{placeInvariants=%d, transitionInvariants=%d, uncovered=%s, complete=%s}"
+        .formatted(placeInvariants.size(), transitionInvariants.size(), uncoveredPlaces, complete);
+  }
+}
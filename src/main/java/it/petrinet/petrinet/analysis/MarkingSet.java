@@ -0,0 +1,279 @@
+package it.petrinet.petrinet.analysis;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash set of markings that assigns every distinct marking a
+ * dense id ({@code 0, 1, 2, ...} in insertion order).
+ * <p>
+ * Markings are not stored as objects: each one is packed into a fixed number
+ * of {@code int} words inside a single growing arena. Token counts start with
+ * 8 bits per place (four places per word); the first marking that does not fit
+ * widens the whole arena to 16 and then 32 bits, so nets with small token
+ * counts use a quarter of the memory of a plain {@code int[]} per state. The
+ * hash table only holds ids and the cached hash of every marking, so probing
+ * never touches the arena unless the hashes match.
+ * </p>
+ * Not thread safe.
+ */
+public final class MarkingSet {
+
+  private static final float LOAD_FACTOR = 0.5f;
+
+  private final int places;
+
+  private int bits;
+  private int perWord;
+  private int words;
+
+  private int[] arena;
+  private int[] hashes;
+  private int[] table; // id + 1, 0 means empty
+  private int mask;
+  private int size;
+
+  private int[] scratch;
+
+  /**
+   * @param places number of places of the markings stored in the set
+   */
+  public MarkingSet(int places) {
+    this(places, 1024);
+  }
+
+  /**
+   * @param places           number of places of the markings stored in the set
+   * @param expectedMarkings initial capacity hint
+   */
+  public MarkingSet(int places, int expectedMarkings) {
+    this.places = places;
+    setBits(8);
+    int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedMarkings / LOAD_FACTOR)) - 1) << 1;
+    this.table = new int[capacity];
+    this.mask = capacity - 1;
+    this.hashes = new int[Math.max(16, expectedMarkings)];
+    this.arena = new int[Math.max(16, expectedMarkings) * words];
+  }
+
+  private void setBits(int newBits) {
+    this.bits = newBits;
+    this.perWord = 32 / newBits;
+    this.words = Math.max(1, (places + perWord - 1) / perWord);
+    this.scratch = new int[words];
+  }
+
+  /**
+   * Adds a marking to the set.
+   *
+   * @param marking the marking, not modified and not retained
+   * @return the id of the marking if it was not present, otherwise
+   *         {@code -1 - id} of the marking already stored
+   */
+  public int add(int[] marking) {
+    if (!fits(marking)) {
+      widen(marking);
+    }
+    pack(marking, scratch);
+    int hash = hash(scratch);
+    int slot = hash & mask;
+    while (true) {
+      int entry = table[slot];
+      if (entry == 0) {
+        break;
+      }
+      int id = entry - 1;
+      if (hashes[id] == hash && equalsStored(id, scratch)) {
+        return -1 - id;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    int id = size++;
+    if (id == hashes.length) {
+      int newLength = hashes.length * 2;
+      hashes = Arrays.copyOf(hashes, newLength);
+      arena = Arrays.copyOf(arena, newLength * words);
+    }
+    hashes[id] = hash;
+    System.arraycopy(scratch, 0, arena, id * words, words);
+    table[slot] = id + 1;
+    if (size > table.length * LOAD_FACTOR) {
+      rehash(table.length * 2);
+    }
+    return id;
+  }
+
+  /**
+   * Looks up a marking without adding it.
+   *
+   * @param marking the marking
+   * @return its id, or -1 if not present
+   */
+  public int indexOf(int[] marking) {
+    if (!fits(marking)) {
+      return -1;
+    }
+    int[] packed = new int[words];
+    pack(marking, packed);
+    int hash = hash(packed);
+    for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+      int entry = table[slot];
+      if (entry == 0) {
+        return -1;
+      }
+      if (hashes[entry - 1] == hash && equalsStored(entry - 1, packed)) {
+        return entry - 1;
+      }
+    }
+  }
+
+  /**
+   * Copies the marking with the given id into {@code dest}.
+   *
+   * @param id   marking id
+   * @param dest destination array of length {@code places}
+   * @return {@code dest}
+   */
+  public int[] get(int id, int[] dest) {
+    int base = id * words;
+    if (bits == 32) {
+      System.arraycopy(arena, base, dest, 0, places);
+      return dest;
+    }
+    int valueMask = (1 << bits) - 1;
+    for (int p = 0; p < places; p++) {
+      int word = arena[base + p / perWord];
+      dest[p] = (word >>> ((p % perWord) * bits)) & valueMask;
+    }
+    return dest;
+  }
+
+  /**
+   * @return number of markings in the set
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return number of places of every stored marking
+   */
+  public int placeCount() {
+    return places;
+  }
+
+  /**
+   * @return approximate number of bytes used by the set
+   */
+  public long memoryFootprint() {
+    return 4L * (arena.length + hashes.length + table.length);
+  }
+
+  private boolean fits(int[] marking) {
+    if (bits == 32) {
+      return true;
+    }
+    int limit = 1 << bits;
+    for (int value : marking) {
+      if (value < 0 || value >= limit) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void widen(int[] marking) {
+    int newBits = bits;
+    while (newBits < 32) {
+      newBits *= 2;
+      if (newBits == 32) {
+        break;
+      }
+      int limit = 1 << newBits;
+      boolean ok = true;
+      for (int value : marking) {
+        if (value < 0 || value >= limit) {
+          ok = false;
+          break;
+        }
+      }
+      if (ok) {
+        break;
+      }
+    }
+    int[] unpacked = new int[places];
+    int oldWords = words;
+    int oldBits = bits;
+    int[] oldArena = arena;
+    setBits(newBits);
+    int[] newArena = new int[hashes.length * words];
+    for (int id = 0; id < size; id++) {
+      unpack(oldArena, id * oldWords, oldBits, unpacked);
+      pack(unpacked, scratch);
+      System.arraycopy(scratch, 0, newArena, id * words, words);
+      hashes[id] = hash(scratch);
+    }
+    arena = newArena;
+    rehash(table.length);
+  }
+
+  private void unpack(int[] source, int base, int sourceBits, int[] dest) {
+    if (sourceBits == 32) {
+      System.arraycopy(source, base, dest, 0, places);
+      return;
+    }
+    int sourcePerWord = 32 / sourceBits;
+    int valueMask = (1 << sourceBits) - 1;
+    for (int p = 0; p < places; p++) {
+      dest[p] = (source[base + p / sourcePerWord] >>> ((p % sourcePerWord) * sourceBits)) & valueMask;
+    }
+  }
+
+  private void pack(int[] marking, int[] dest) {
+    if (bits == 32) {
+      System.arraycopy(marking, 0, dest, 0, places);
+      return;
+    }
+    Arrays.fill(dest, 0);
+    for (int p = 0; p < places; p++) {
+      dest[p / perWord] |= marking[p] << ((p % perWord) * bits);
+    }
+  }
+
+  private boolean equalsStored(int id, int[] packed) {
+    int base = id * words;
+    for (int w = 0; w < words; w++) {
+      if (arena[base + w] != packed[w]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void rehash(int capacity) {
+    table = new int[capacity];
+    mask = capacity - 1;
+    for (int id = 0; id < size; id++) {
+      int slot = hashes[id] & mask;
+      while (table[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      table[slot] = id + 1;
+    }
+  }
+
+  static int hash(int[] packed) {
+    int h = 0x9E3779B9;
+    for (int word : packed) {
+      h = (h ^ word) * 0x01000193;
+      h ^= h >>> 15;
+    }
+    // murmur3 finalizer
+    h ^= h >>> 16;
+    h *= 0x85EBCA6B;
+    h ^= h >>> 13;
+    h *= 0xC2B2AE35;
+    h ^= h >>> 16;
+    return h;
+  }
+}
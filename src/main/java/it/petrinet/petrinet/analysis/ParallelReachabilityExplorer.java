@@ -0,0 +1,333 @@
+package it.petrinet.petrinet.analysis;
+
+import it.petrinet.petrinet.engine.CompiledNet;
+import it.petrinet.petrinet.model.PetriNetModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Multi-threaded variant of {@link ReachabilityExplorer} for large state
+ * spaces.
+ * <p>
+ * The visited set is split into a fixed number of shards, each a
+ * {@link MarkingSet} owned by a single worker at a time: a marking always
+ * belongs to the shard selected by its hash, so no two threads ever write the
+ * same shard and the set needs no locks. The search is a level-synchronous BFS
+ * on a {@link ForkJoinPool}; every level runs in two phases:
+ * </p>
+ * <ol>
+ * <li><b>expand</b>: each shard fires the enabled transitions of its frontier
+ * and appends the successors to an outbox addressed to the owning shard;</li>
+ * <li><b>merge</b>: each shard drains the outboxes addressed to it, in shard
+ * order, inserting the successors into its own set and building its next
+ * frontier.</li>
+ * </ol>
+ * Since the number of shards does not depend on the number of threads and the
+ * outboxes are always drained in the same order, ids, counts and the state
+ * limit (checked at the end of a level) are the same for every degree of
+ * parallelism. Shards are many more than the threads, so the work-stealing
+ * pool balances uneven levels.
+ * <p>
+ * Usage:
+ * </p>
+ *
+ * <pre>
+ * ReachabilityResult result = new ParallelReachabilityExplorer(net)
+ *     .withThreads(32)
+ *     .withMaxStates(10_000_000)
+ *     .explore();
+ * </pre>
+ */
+public class ParallelReachabilityExplorer {
+
+  /** Number of visited-set shards, independent of the thread count. */
+  static final int SHARDS = 64;
+
+  /** Largest local id whose global id still fits in an int. */
+  private static final int MAX_LOCAL_ID = Integer.MAX_VALUE / SHARDS;
+
+  private final CompiledNet net;
+  private int threads = Runtime.getRuntime().availableProcessors();
+  private int maxStates = 10_000_000;
+  private boolean terminationCheck = true;
+
+  public ParallelReachabilityExplorer(CompiledNet net) {
+    this.net = net;
+  }
+
+  public ParallelReachabilityExplorer(PetriNetModel model) {
+    this(CompiledNet.compile(model));
+  }
+
+  /**
+   * Sets the number of worker threads; the result does not depend on it.
+   */
+  public ParallelReachabilityExplorer withThreads(int threads) {
+    if (threads <= 0) {
+      throw new IllegalArgumentException("threads must be positive");
+    }
+    this.threads = threads;
+    return this;
+  }
+
+  /**
+   * Limits the number of markings visited. The limit is checked after each BFS
+   * level, so the search may overshoot it by at most one level; the result is
+   * marked as incomplete only when more than {@code maxStates} markings were
+   * found, as in {@link ReachabilityExplorer#withMaxStates(int)}.
+   */
+  public ParallelReachabilityExplorer withMaxStates(int maxStates) {
+    if (maxStates <= 0) {
+      throw new IllegalArgumentException("maxStates must be positive");
+    }
+    this.maxStates = maxStates;
+    return this;
+  }
+
+  /**
+   * Enables or disables the backward search for markings that cannot finish.
+   * Disabling it avoids storing the edges of the reachability graph, which
+   * dominate memory on very large state spaces; the cannot-finish count is then
+   * reported as -1.
+   */
+  public ParallelReachabilityExplorer withTerminationCheck(boolean terminationCheck) {
+    this.terminationCheck = terminationCheck;
+    return this;
+  }
+
+  /**
+   * Explores the state space from the start marking.
+   *
+   * @return the exploration result
+   */
+  public ReachabilityResult explore() {
+    return explore(net.startMarking());
+  }
+
+  /**
+   * Explores the state space from the given marking.
+   *
+   * @param initialMarking marking indexed by place
+   * @return the exploration result
+   */
+  public ReachabilityResult explore(int[] initialMarking) {
+    Shard[] shards = new Shard[SHARDS];
+    for (int s = 0; s < SHARDS; s++) {
+      shards[s] = new Shard(s);
+    }
+    Shard owner = shards[shardOf(initialMarking)];
+    owner.visited.add(initialMarking);
+    owner.frontier.add(0);
+
+    int end = net.endPlace();
+    boolean endReachable = end >= 0 && initialMarking[end] > 0;
+    boolean complete = true;
+    int total = 1;
+
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      List<Callable<Void>> expand = new ArrayList<>(SHARDS);
+      List<Callable<Void>> merge = new ArrayList<>(SHARDS);
+      for (Shard shard : shards) {
+        expand.add(() -> {
+          shard.expand();
+          return null;
+        });
+        merge.add(() -> {
+          shard.merge(shards);
+          return null;
+        });
+      }
+
+      while (hasFrontier(shards)) {
+        runAll(pool, expand);
+        runAll(pool, merge);
+        total = 0;
+        for (Shard shard : shards) {
+          total = Math.addExact(total, shard.visited.size());
+          endReachable |= shard.endReachable;
+        }
+        if (total > maxStates) {
+          complete = false;
+          break;
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+
+    long edges = 0;
+    int deadlockCount = 0;
+    List<int[]> dead = new ArrayList<>();
+    for (Shard shard : shards) {
+      edges += shard.edgeCount;
+      deadlockCount += shard.deadlocks.size();
+      for (int i = 0; i < shard.deadlocks.size(); i++) {
+        dead.add(shard.visited.get(shard.deadlocks.get(i), new int[net.placeCount()]));
+      }
+    }
+
+    int cannotFinish = complete && terminationCheck ? countCannotFinish(shards, total, end) : -1;
+    return new ReachabilityResult(total, edges, deadlockCount,
+        ReachabilityExplorer.deadlockSamples(net, dead), endReachable, cannotFinish, complete);
+  }
+
+  private static boolean hasFrontier(Shard[] shards) {
+    for (Shard shard : shards) {
+      if (!shard.frontier.isEmpty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void runAll(ForkJoinPool pool, List<Callable<Void>> tasks) {
+    try {
+      for (Future<Void> future : pool.invokeAll(tasks)) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Exploration interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Exploration failed", e.getCause());
+    }
+  }
+
+  /**
+   * Renumbers the sharded states densely (shard by shard) and runs the backward
+   * search of the sequential explorer.
+   */
+  private int countCannotFinish(Shard[] shards, int total, int end) {
+    if (end < 0) {
+      return total;
+    }
+    int[] base = new int[SHARDS];
+    for (int s = 1; s < SHARDS; s++) {
+      base[s] = base[s - 1] + shards[s - 1].visited.size();
+    }
+    boolean[] finished = new boolean[total];
+    int[] marking = new int[net.placeCount()];
+    IntList edgeFrom = new IntList();
+    IntList edgeTo = new IntList();
+    for (Shard shard : shards) {
+      for (int id = 0; id < shard.visited.size(); id++) {
+        finished[base[shard.index] + id] = shard.visited.get(id, marking)[end] > 0;
+      }
+      for (int e = 0; e < shard.edgeFrom.size(); e++) {
+        int from = shard.edgeFrom.get(e);
+        int to = shard.edgeTo.get(e);
+        edgeFrom.add(base[from % SHARDS] + from / SHARDS);
+        edgeTo.add(base[to % SHARDS] + to / SHARDS);
+      }
+    }
+    return ReachabilityExplorer.countCannotFinish(finished, edgeFrom, edgeTo);
+  }
+
+  private static int shardOf(int[] marking) {
+    return Math.floorMod(MarkingSet.hash(marking), SHARDS);
+  }
+
+  /** Global id of a state: local id and owning shard interleaved. */
+  private static int globalId(int shard, int local) {
+    if (local > MAX_LOCAL_ID) {
+      throw new IllegalStateException("Shard " + shard + " has more states than int ids can address");
+    }
+    return local * SHARDS + shard;
+  }
+
+  /**
+   * One partition of the state space. Only the worker running
+   * {@link #expand()} or {@link #merge(Shard[])} on it touches its fields; the
+   * pool's invokeAll provides the happens-before edge between the two phases.
+   */
+  private final class Shard {
+
+    final int index;
+    final MarkingSet visited = new MarkingSet(net.placeCount());
+    IntList frontier = new IntList();
+    IntList nextFrontier = new IntList();
+    final IntList deadlocks = new IntList();
+    final IntList edgeFrom = new IntList();
+    final IntList edgeTo = new IntList();
+    long edgeCount;
+    boolean endReachable;
+
+    /** Successors produced by this shard, per destination shard: source id followed by the marking. */
+    final IntList[] outbox = new IntList[SHARDS];
+
+    Shard(int index) {
+      this.index = index;
+      for (int s = 0; s < SHARDS; s++) {
+        outbox[s] = new IntList();
+      }
+    }
+
+    void expand() {
+      int places = net.placeCount();
+      int transitions = net.transitionCount();
+      int[] current = new int[places];
+      int[] next = new int[places];
+      for (int i = 0; i < frontier.size(); i++) {
+        int state = frontier.get(i);
+        visited.get(state, current);
+        boolean dead = true;
+        for (int t = 0; t < transitions; t++) {
+          if (!net.isEnabled(t, current)) {
+            continue;
+          }
+          dead = false;
+          System.arraycopy(current, 0, next, 0, places);
+          net.fire(t, next);
+          IntList box = outbox[shardOf(next)];
+          box.add(globalId(index, state));
+          for (int value : next) {
+            box.add(value);
+          }
+        }
+        if (dead) {
+          deadlocks.add(state);
+        }
+      }
+      frontier.clear();
+    }
+
+    void merge(Shard[] shards) {
+      int places = net.placeCount();
+      int end = net.endPlace();
+      int[] marking = new int[places];
+      for (Shard source : shards) {
+        IntList box = source.outbox[index];
+        for (int i = 0; i < box.size(); i += places + 1) {
+          int from = box.get(i);
+          for (int p = 0; p < places; p++) {
+            marking[p] = box.get(i + 1 + p);
+          }
+          int id = visited.add(marking);
+          if (id >= 0) {
+            nextFrontier.add(id);
+            if (end >= 0 && marking[end] > 0) {
+              endReachable = true;
+            }
+          } else {
+            id = -1 - id;
+          }
+          edgeCount++;
+          if (terminationCheck) {
+            edgeFrom.add(from);
+            edgeTo.add(globalId(index, id));
+          }
+        }
+        box.clear();
+      }
+      IntList swap = frontier;
+      frontier = nextFrontier;
+      nextFrontier = swap;
+    }
+  }
+}
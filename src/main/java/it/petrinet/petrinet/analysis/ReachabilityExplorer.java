@@ -0,0 +1,388 @@
+package it.petrinet.petrinet.analysis;
+
+import it.petrinet.petrinet.engine.CompiledNet;
+import it.petrinet.petrinet.model.PetriNetModel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Explicit state-space explorer for a {@link CompiledNet}.
+ * <p>
+ * Visited markings are kept in a {@link MarkingSet}, which hands out dense ids;
+ * the frontier and the edges of the reachability graph are plain int lists of
+ * those ids. After the forward search the edges are reversed to find the
+ * markings from which the end place can no longer be reached.
+ * </p>
+ * <p>
+ * With {@link #withReduction(boolean)} only a <i>stubborn set</i> of the
+ * enabled transitions is fired in each marking: a set closed under conflicts
+ * (for an enabled member, every transition consuming from its input places)
+ * and under enabling (for a disabled member, every producer of one of its
+ * insufficiently marked input places). Independent transitions, such as USER
+ * and ADMIN steps on concurrent branches, are then fired in a single order
+ * instead of all their interleavings. Every deadlock is still found, and the
+ * producers of the end place are always part of the set, so whether the end
+ * place can be reached is preserved as well. Other properties are not: the
+ * cannot-finish count is not computed on a reduced graph.
+ * </p>
+ * Usage:
+ *
+ * <pre>
+ * ReachabilityResult result = new ReachabilityExplorer(net)
+ *     .withOrder(ReachabilityExplorer.SearchOrder.DFS)
+ *     .withMaxStates(100_000)
+ *     .withReduction(true)
+ *     .explore();
+ * </pre>
+ */
+public class ReachabilityExplorer {
+
+  public enum SearchOrder {
+    BFS, DFS
+  }
+
+  static final int MAX_DEADLOCK_SAMPLES = 10;
+
+  private final CompiledNet net;
+  private SearchOrder order = SearchOrder.BFS;
+  private int maxStates = 1_000_000;
+  private boolean reduction;
+  private boolean fullComparison;
+
+  // stubborn set work area: a transition is in the set if its stamp is current
+  private int[] stamp;
+  private int generation;
+  private IntList work;
+
+  public ReachabilityExplorer(CompiledNet net) {
+    this.net = net;
+  }
+
+  public ReachabilityExplorer(PetriNetModel model) {
+    this(CompiledNet.compile(model));
+  }
+
+  public ReachabilityExplorer withOrder(SearchOrder order) {
+    this.order = order;
+    return this;
+  }
+
+  /**
+   * Limits the number of markings visited; when a marking beyond the limit is
+   * found the result is marked as incomplete. A net with exactly
+   * {@code maxStates} reachable markings is still explored completely.
+   */
+  public ReachabilityExplorer withMaxStates(int maxStates) {
+    if (maxStates <= 0) {
+      throw new IllegalArgumentException("maxStates must be positive");
+    }
+    this.maxStates = maxStates;
+    return this;
+  }
+
+  /**
+   * Enables the stubborn-set partial-order reduction. It is ignored on nets
+   * with inhibitor or reset arcs, where adding or removing tokens can enable
+   * or disable transitions that do not share an input place.
+   */
+  public ReachabilityExplorer withReduction(boolean reduction) {
+    this.reduction = reduction;
+    return this;
+  }
+
+  /**
+   * With reduction enabled, also explores the full state space (with the same
+   * state limit) so the result reports both state counts.
+   */
+  public ReachabilityExplorer withFullComparison(boolean fullComparison) {
+    this.fullComparison = fullComparison;
+    return this;
+  }
+
+  /**
+   * Explores the state space from the start marking (one token in the start
+   * place), the marking every computation begins with.
+   *
+   * @return the exploration result
+   */
+  public ReachabilityResult explore() {
+    return explore(net.startMarking());
+  }
+
+  /**
+   * Explores the state space from the given marking.
+   *
+   * @param initialMarking marking indexed by place
+   * @return the exploration result
+   */
+  public ReachabilityResult explore(int[] initialMarking) {
+    boolean reduction = this.reduction && !net.hasInhibitorOrResetArcs();
+    int places = net.placeCount();
+    int transitions = net.transitionCount();
+    int end = net.endPlace();
+
+    MarkingSet visited = new MarkingSet(places);
+    IntList stack = new IntList();
+    IntList edgeFrom = new IntList();
+    IntList edgeTo = new IntList();
+    IntList deadlocks = new IntList();
+
+    visited.add(initialMarking);
+    stack.add(0);
+    int bfsCursor = 0;
+
+    int[] current = new int[places];
+    int[] next = new int[places];
+    int[] enabled = new int[transitions];
+    int[] fired = new int[transitions];
+    if (reduction) {
+      stamp = new int[transitions];
+      generation = 0;
+      work = new IntList();
+    }
+    boolean endReachable = end >= 0 && initialMarking[end] > 0;
+    boolean complete = true;
+
+    while (true) {
+      int state;
+      if (order == SearchOrder.BFS) {
+        if (bfsCursor == visited.size()) {
+          break;
+        }
+        // ids are assigned in discovery order, so the BFS queue is the id range
+        state = bfsCursor++;
+      } else {
+        if (stack.isEmpty()) {
+          break;
+        }
+        state = stack.removeLast();
+      }
+
+      visited.get(state, current);
+      int enabledCount = 0;
+      for (int t = 0; t < transitions; t++) {
+        if (net.isEnabled(t, current)) {
+          enabled[enabledCount++] = t;
+        }
+      }
+      boolean dead = enabledCount == 0;
+      int firedCount = enabledCount;
+      int[] toFire = enabled;
+      if (reduction && enabledCount > 1) {
+        firedCount = stubbornSet(current, enabled, enabledCount, fired);
+        toFire = fired;
+      }
+
+      boolean anyNew = false;
+      for (int i = 0; i < firedCount && complete; i++) {
+        System.arraycopy(current, 0, next, 0, places);
+        net.fire(toFire[i], next);
+        boolean added = record(visited, stack, edgeFrom, edgeTo, state, next);
+        anyNew |= added;
+        if (end >= 0 && next[end] > 0) {
+          endReachable = true;
+        }
+        complete = !added || visited.size() <= maxStates;
+      }
+      if (complete && firedCount < enabledCount && !anyNew) {
+        // cycle proviso: a reduced expansion that only closes cycles could
+        // postpone the other transitions forever, so expand this state fully
+        for (int i = 0; i < enabledCount && complete; i++) {
+          if (stamp[enabled[i]] == generation) {
+            continue;
+          }
+          System.arraycopy(current, 0, next, 0, places);
+          net.fire(enabled[i], next);
+          boolean added = record(visited, stack, edgeFrom, edgeTo, state, next);
+          if (end >= 0 && next[end] > 0) {
+            endReachable = true;
+          }
+          complete = !added || visited.size() <= maxStates;
+        }
+      }
+      if (dead) {
+        deadlocks.add(state);
+      }
+      if (!complete) {
+        break;
+      }
+    }
+
+    int cannotFinish = complete && !reduction ? countCannotFinish(visited, edgeFrom, edgeTo, end) : -1;
+    int fullStateCount = visited.size();
+    if (reduction) {
+      fullStateCount = fullComparison
+          ? new ReachabilityExplorer(net).withOrder(order).withMaxStates(maxStates).explore(initialMarking)
+              .getStateCount()
+          : -1;
+    }
+    return new ReachabilityResult(visited.size(), edgeFrom.size(), deadlocks.size(),
+        deadlockSamples(net, visited, deadlocks), endReachable, cannotFinish, complete, reduction,
+        fullStateCount);
+  }
+
+  /**
+   * Adds the edge to {@code next}, and the marking itself if it is new.
+   *
+   * @return true if the marking was not visited before
+   */
+  private boolean record(MarkingSet visited, IntList stack, IntList edgeFrom, IntList edgeTo, int state,
+      int[] next) {
+    int id = visited.add(next);
+    boolean added = id >= 0;
+    if (added) {
+      if (order == SearchOrder.DFS) {
+        stack.add(id);
+      }
+    } else {
+      id = -1 - id;
+    }
+    edgeFrom.add(state);
+    edgeTo.add(id);
+    return added;
+  }
+
+  /**
+   * Computes a stubborn set seeded with the first enabled transition and the
+   * producers of the end place, and copies its enabled members into
+   * {@code fired}.
+   *
+   * @return number of enabled transitions in the set
+   */
+  private int stubbornSet(int[] marking, int[] enabled, int enabledCount, int[] fired) {
+    generation++;
+    work.clear();
+    include(enabled[0]);
+    int end = net.endPlace();
+    if (end >= 0 && marking[end] == 0) {
+      for (int k = 0; k < net.producerCount(end); k++) {
+        include(net.producer(end, k));
+      }
+    }
+    while (!work.isEmpty()) {
+      int t = work.removeLast();
+      if (net.isEnabled(t, marking)) {
+        // conflicts: whatever can take tokens away from t
+        for (int k = 0; k < net.inputCount(t); k++) {
+          int p = net.inputPlace(t, k);
+          for (int j = 0; j < net.consumerCount(p); j++) {
+            include(net.consumer(p, j));
+          }
+        }
+      } else {
+        // scapegoat: t stays disabled until one of these producers fires
+        int p = scapegoat(t, marking);
+        for (int j = 0; j < net.producerCount(p); j++) {
+          include(net.producer(p, j));
+        }
+      }
+    }
+    int count = 0;
+    for (int i = 0; i < enabledCount; i++) {
+      if (stamp[enabled[i]] == generation) {
+        fired[count++] = enabled[i];
+      }
+    }
+    return count;
+  }
+
+  private void include(int t) {
+    if (stamp[t] != generation) {
+      stamp[t] = generation;
+      work.add(t);
+    }
+  }
+
+  private int scapegoat(int t, int[] marking) {
+    for (int k = 0; k < net.inputCount(t); k++) {
+      if (marking[net.inputPlace(t, k)] < net.inputWeight(t, k)) {
+        return net.inputPlace(t, k);
+      }
+    }
+    throw new IllegalStateException("Transition " + net.transitionName(t) + " is enabled");
+  }
+
+  private static int countCannotFinish(MarkingSet visited, IntList edgeFrom, IntList edgeTo, int end) {
+    int states = visited.size();
+    if (end < 0) {
+      return states;
+    }
+    boolean[] finished = new boolean[states];
+    int[] marking = new int[visited.placeCount()];
+    for (int s = 0; s < states; s++) {
+      finished[s] = visited.get(s, marking)[end] > 0;
+    }
+    return countCannotFinish(finished, edgeFrom, edgeTo);
+  }
+
+  /**
+   * Backward search from every finished marking over the reversed reachability
+   * graph; markings never reached cannot finish.
+   *
+   * @param finished marks the states with a token in the end place
+   * @param edgeFrom source state of every edge
+   * @param edgeTo   target state of every edge
+   * @return number of states from which no finished state is reachable
+   */
+  static int countCannotFinish(boolean[] finished, IntList edgeFrom, IntList edgeTo) {
+    int states = finished.length;
+    int[] reverseStart = new int[states + 1];
+    for (int e = 0; e < edgeTo.size(); e++) {
+      reverseStart[edgeTo.get(e) + 1]++;
+    }
+    for (int s = 0; s < states; s++) {
+      reverseStart[s + 1] += reverseStart[s];
+    }
+    int[] reverse = new int[edgeTo.size()];
+    int[] fill = Arrays.copyOf(reverseStart, states);
+    for (int e = 0; e < edgeTo.size(); e++) {
+      reverse[fill[edgeTo.get(e)]++] = edgeFrom.get(e);
+    }
+
+    boolean[] canFinish = new boolean[states];
+    IntList queue = new IntList();
+    for (int s = 0; s < states; s++) {
+      if (finished[s]) {
+        canFinish[s] = true;
+        queue.add(s);
+      }
+    }
+    int reached = queue.size();
+    while (!queue.isEmpty()) {
+      int s = queue.removeLast();
+      for (int i = reverseStart[s]; i < reverseStart[s + 1]; i++) {
+        int predecessor = reverse[i];
+        if (!canFinish[predecessor]) {
+          canFinish[predecessor] = true;
+          reached++;
+          queue.add(predecessor);
+        }
+      }
+    }
+    return states - reached;
+  }
+
+  private static List<Map<String, Integer>> deadlockSamples(CompiledNet net, MarkingSet visited, IntList deadlocks) {
+    List<int[]> dead = new ArrayList<>(deadlocks.size());
+    for (int i = 0; i < deadlocks.size(); i++) {
+      dead.add(visited.get(deadlocks.get(i), new int[net.placeCount()]));
+    }
+    return deadlockSamples(net, dead);
+  }
+
+  /**
+   * Sorts the dead markings and keeps the first few, so the samples do not
+   * depend on the search order.
+   */
+  static List<Map<String, Integer>> deadlockSamples(CompiledNet net, List<int[]> dead) {
+    dead.sort(Arrays::compare);
+    List<Map<String, Integer>> samples = new ArrayList<>();
+    for (int i = 0; i < Math.min(MAX_DEADLOCK_SAMPLES, dead.size()); i++) {
+      samples.add(net.toMap(dead.get(i)));
+    }
+    return samples;
+  }
+}
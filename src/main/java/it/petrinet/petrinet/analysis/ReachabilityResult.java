@@ -0,0 +1,130 @@
+package it.petrinet.petrinet.analysis;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a state-space exploration of a net.
+ * <p>
+ * Deadlocks are markings in which no transition is enabled; only a bounded
+ * number of them is kept as samples (sorted, so the samples do not depend on
+ * the search order), but all of them are counted.
+ * </p>
+ */
+public class ReachabilityResult {
+
+  private final int stateCount;
+  private final long edgeCount;
+  private final int deadlockCount;
+  private final List<Map<String, Integer>> deadlockSamples;
+  private final boolean endReachable;
+  private final int cannotFinishCount;
+  private final boolean complete;
+  private final boolean reduced;
+  private final int fullStateCount;
+
+  ReachabilityResult(int stateCount, long edgeCount, int deadlockCount, List<Map<String, Integer>> deadlockSamples,
+      boolean endReachable, int cannotFinishCount, boolean complete) {
+    this(stateCount, edgeCount, deadlockCount, deadlockSamples, endReachable, cannotFinishCount, complete, false,
+        stateCount);
+  }
+
+  ReachabilityResult(int stateCount, long edgeCount, int deadlockCount, List<Map<String, Integer>> deadlockSamples,
+      boolean endReachable, int cannotFinishCount, boolean complete, boolean reduced, int fullStateCount) {
+    this.stateCount = stateCount;
+    this.edgeCount = edgeCount;
+    this.deadlockCount = deadlockCount;
+    this.deadlockSamples = List.copyOf(deadlockSamples);
+    this.endReachable = endReachable;
+    this.cannotFinishCount = cannotFinishCount;
+    this.complete = complete;
+    this.reduced = reduced;
+    this.fullStateCount = fullStateCount;
+  }
+
+  /**
+   * @return number of distinct reachable markings visited; with reduction, the
+   *         markings of the reduced graph only
+   */
+  public int getStateCount() {
+    return stateCount;
+  }
+
+  /**
+   * @return true if the search used the stubborn-set reduction
+   */
+  public boolean isReduced() {
+    return reduced;
+  }
+
+  /**
+   * @return number of markings of the unreduced state space, or -1 if a reduced
+   *         search was not compared with a full one
+   */
+  public int getFullStateCount() {
+    return fullStateCount;
+  }
+
+  /**
+   * @return number of firings explored (edges of the reachability graph)
+   */
+  public long getEdgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * @return number of reachable markings with no enabled transition, including
+   *         the ones with a token in the end place
+   */
+  public int getDeadlockCount() {
+    return deadlockCount;
+  }
+
+  /**
+   * @return a sample of dead markings, keyed by place name
+   */
+  public List<Map<String, Integer>> getDeadlockSamples() {
+    return deadlockSamples;
+  }
+
+  /**
+   * @return true if some reachable marking puts a token in the end place
+   */
+  public boolean isEndReachable() {
+    return endReachable;
+  }
+
+  /**
+   * @return number of reachable markings from which no marking with a token in
+   *         the end place can be reached, or -1 if it was not computed
+   */
+  public int getCannotFinishCount() {
+    return cannotFinishCount;
+  }
+
+  /**
+   * @return false if the search stopped at the state limit before visiting the
+   *         whole state space
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  /**
+   * Checks the property required to publish a net: the whole state space was
+   * explored and from every reachable marking the end place can still be
+   * reached, so no computation can get stuck.
+   *
+   * @return true if every computation can finish
+   */
+  public boolean canAlwaysFinish() {
+    return complete && endReachable && cannotFinishCount == 0;
+  }
+
+  @Override
+  public String toString() {
+    return ("ReachabilityResult{states=%d, fullStates=%d, edges=%d, deadlocks=%d, endReachable=%s, cannotFinish=%d, "
+        + "complete=%s, reduced=%s}").formatted(stateCount, fullStateCount, edgeCount, deadlockCount, endReachable,
+            cannotFinishCount, complete, reduced);
+  }
+}
@@ -0,0 +1,383 @@
+package it.petrinet.petrinet.analysis.symbolic;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal reduced ordered binary decision diagram package.
+ * <p>
+ * Nodes live in three parallel int arrays (variable, low child, high child);
+ * node 0 is the constant false and node 1 the constant true. Every node is
+ * created through a hash-consing unique table, so two equal functions are
+ * always the same id and equivalence is an int comparison. Binary operations
+ * are memoized in a direct-mapped operation cache, which is simply overwritten
+ * on collisions. Variables are ordered by index (smaller index closer to the
+ * root).
+ * </p>
+ * There is no garbage collection: the package is meant to live for a single
+ * analysis and fails with {@link BddOverflowException} when the node limit is
+ * reached. Not thread safe.
+ */
+final class Bdd {
+
+  static final int FALSE = 0;
+  static final int TRUE = 1;
+
+  private static final int TERMINAL_VAR = Integer.MAX_VALUE;
+
+  private static final int OP_AND = 0;
+  private static final int OP_OR = 1;
+  private static final int OP_DIFF = 2;
+  private static final int OP_EXISTS = 3;
+  private static final int OP_REL_PROD = 4;
+  private static final int OP_SHIFT_UP = 5;
+  private static final int OP_SHIFT_DOWN = 6;
+  private static final int OP_KINDS = 8;
+
+  private final int maxNodes;
+
+  private int[] var;
+  private int[] low;
+  private int[] high;
+  private int size;
+
+  private int[] table; // node ids, 0 means empty (terminals are never stored)
+  private int mask;
+
+  private final int[] cache; // (op, a, b, result) quadruples
+  private final int cacheMask;
+
+  private final List<boolean[]> varSets = new ArrayList<>();
+
+  Bdd(int maxNodes) {
+    this.maxNodes = maxNodes;
+    int capacity = 1 << 16;
+    this.var = new int[capacity];
+    this.low = new int[capacity];
+    this.high = new int[capacity];
+    var[FALSE] = TERMINAL_VAR;
+    var[TRUE] = TERMINAL_VAR;
+    this.size = 2;
+    this.table = new int[capacity * 2];
+    this.mask = table.length - 1;
+    int cacheEntries = Integer.highestOneBit(Math.max(1 << 16, Math.min(maxNodes, 1 << 22)));
+    this.cache = new int[cacheEntries * 4];
+    Arrays.fill(cache, -1);
+    this.cacheMask = cacheEntries - 1;
+  }
+
+  /**
+   * @return number of nodes allocated so far, terminals included
+   */
+  int nodeCount() {
+    return size;
+  }
+
+  /**
+   * Registers a set of variables for quantification or renaming.
+   *
+   * @param vars flags indexed by variable
+   * @return the id of the set
+   */
+  int varSet(boolean[] vars) {
+    varSets.add(vars);
+    return varSets.size() - 1;
+  }
+
+  /**
+   * @return the function that is true when variable {@code v} is
+   *         {@code value}
+   */
+  int literal(int v, boolean value) {
+    return value ? mk(v, FALSE, TRUE) : mk(v, TRUE, FALSE);
+  }
+
+  int and(int a, int b) {
+    if (a == FALSE || b == FALSE) {
+      return FALSE;
+    }
+    if (a == TRUE || a == b) {
+      return b;
+    }
+    if (b == TRUE) {
+      return a;
+    }
+    if (a > b) {
+      int swap = a;
+      a = b;
+      b = swap;
+    }
+    int cached = lookup(OP_AND, a, b);
+    if (cached >= 0) {
+      return cached;
+    }
+    int v = Math.min(var[a], var[b]);
+    int lo = and(cofactor(a, v, false), cofactor(b, v, false));
+    int hi = and(cofactor(a, v, true), cofactor(b, v, true));
+    return store(OP_AND, a, b, mk(v, lo, hi));
+  }
+
+  int or(int a, int b) {
+    if (a == TRUE || b == TRUE) {
+      return TRUE;
+    }
+    if (a == FALSE || a == b) {
+      return b;
+    }
+    if (b == FALSE) {
+      return a;
+    }
+    if (a > b) {
+      int swap = a;
+      a = b;
+      b = swap;
+    }
+    int cached = lookup(OP_OR, a, b);
+    if (cached >= 0) {
+      return cached;
+    }
+    int v = Math.min(var[a], var[b]);
+    int lo = or(cofactor(a, v, false), cofactor(b, v, false));
+    int hi = or(cofactor(a, v, true), cofactor(b, v, true));
+    return store(OP_OR, a, b, mk(v, lo, hi));
+  }
+
+  /**
+   * @return {@code a ∧ ¬b}
+   */
+  int diff(int a, int b) {
+    if (a == FALSE || b == TRUE || a == b) {
+      return FALSE;
+    }
+    if (b == FALSE) {
+      return a;
+    }
+    int cached = lookup(OP_DIFF, a, b);
+    if (cached >= 0) {
+      return cached;
+    }
+    int v = Math.min(var[a], var[b]);
+    int lo = diff(cofactor(a, v, false), cofactor(b, v, false));
+    int hi = diff(cofactor(a, v, true), cofactor(b, v, true));
+    return store(OP_DIFF, a, b, mk(v, lo, hi));
+  }
+
+  /**
+   * @return {@code ∃ set . f}
+   */
+  int exists(int f, int set) {
+    if (f <= TRUE) {
+      return f;
+    }
+    int op = OP_EXISTS + set * OP_KINDS;
+    int cached = lookup(op, f, 0);
+    if (cached >= 0) {
+      return cached;
+    }
+    int v = var[f];
+    int lo = exists(low[f], set);
+    int result;
+    if (varSets.get(set)[v]) {
+      result = lo == TRUE ? TRUE : or(lo, exists(high[f], set));
+    } else {
+      result = mk(v, lo, exists(high[f], set));
+    }
+    return store(op, f, 0, result);
+  }
+
+  /**
+   * Relational product {@code ∃ set . (f ∧ r)}, computed without building the
+   * conjunction.
+   */
+  int relProd(int f, int r, int set) {
+    if (f == FALSE || r == FALSE) {
+      return FALSE;
+    }
+    if (f == TRUE && r == TRUE) {
+      return TRUE;
+    }
+    if (f == TRUE) {
+      return exists(r, set);
+    }
+    if (r == TRUE) {
+      return exists(f, set);
+    }
+    int op = OP_REL_PROD + set * OP_KINDS;
+    int cached = lookup(op, f, r);
+    if (cached >= 0) {
+      return cached;
+    }
+    int v = Math.min(var[f], var[r]);
+    int f0 = cofactor(f, v, false);
+    int r0 = cofactor(r, v, false);
+    int f1 = cofactor(f, v, true);
+    int r1 = cofactor(r, v, true);
+    int result;
+    if (varSets.get(set)[v]) {
+      int lo = relProd(f0, r0, set);
+      result = lo == TRUE ? TRUE : or(lo, relProd(f1, r1, set));
+    } else {
+      result = mk(v, relProd(f0, r0, set), relProd(f1, r1, set));
+    }
+    return store(op, f, r, result);
+  }
+
+  /**
+   * Renames every variable {@code v} of the set to {@code v + 1}. The caller
+   * guarantees that {@code v + 1} does not occur in {@code f}, so the variable
+   * order is preserved.
+   */
+  int shiftUp(int f, int set) {
+    return shift(f, set, 1, OP_SHIFT_UP);
+  }
+
+  /**
+   * Renames every variable {@code v} of the set to {@code v - 1}, with the same
+   * guarantee as {@link #shiftUp(int, int)}.
+   */
+  int shiftDown(int f, int set) {
+    return shift(f, set, -1, OP_SHIFT_DOWN);
+  }
+
+  private int shift(int f, int set, int delta, int kind) {
+    if (f <= TRUE) {
+      return f;
+    }
+    int op = kind + set * OP_KINDS;
+    int cached = lookup(op, f, 0);
+    if (cached >= 0) {
+      return cached;
+    }
+    int v = var[f];
+    int lo = shift(low[f], set, delta, kind);
+    int hi = shift(high[f], set, delta, kind);
+    return store(op, f, 0, mk(varSets.get(set)[v] ? v + delta : v, lo, hi));
+  }
+
+  /**
+   * Counts the assignments satisfying {@code f} over the given variables, which
+   * must include every variable {@code f} depends on.
+   *
+   * @param f         the function
+   * @param variables the counted variables
+   * @return the number of satisfying assignments
+   */
+  BigInteger satCount(int f, boolean[] variables) {
+    int[] position = new int[variables.length + 1];
+    int counted = 0;
+    for (int v = 0; v < variables.length; v++) {
+      position[v] = counted;
+      if (variables[v]) {
+        counted++;
+      }
+    }
+    position[variables.length] = counted;
+    Map<Integer, BigInteger> memo = new HashMap<>();
+    return countFrom(f, position, counted, memo).shiftLeft(level(f, position, counted));
+  }
+
+  private BigInteger countFrom(int f, int[] position, int counted, Map<Integer, BigInteger> memo) {
+    if (f == FALSE) {
+      return BigInteger.ZERO;
+    }
+    if (f == TRUE) {
+      return BigInteger.ONE;
+    }
+    BigInteger known = memo.get(f);
+    if (known != null) {
+      return known;
+    }
+    int here = level(f, position, counted);
+    BigInteger lo = countFrom(low[f], position, counted, memo)
+        .shiftLeft(level(low[f], position, counted) - here - 1);
+    BigInteger hi = countFrom(high[f], position, counted, memo)
+        .shiftLeft(level(high[f], position, counted) - here - 1);
+    BigInteger result = lo.add(hi);
+    memo.put(f, result);
+    return result;
+  }
+
+  private int level(int f, int[] position, int counted) {
+    return f <= TRUE ? counted : position[var[f]];
+  }
+
+  private int cofactor(int f, int v, boolean value) {
+    if (var[f] != v) {
+      return f;
+    }
+    return value ? high[f] : low[f];
+  }
+
+  private int mk(int v, int lo, int hi) {
+    if (lo == hi) {
+      return lo;
+    }
+    int slot = hash(v, lo, hi) & mask;
+    while (true) {
+      int node = table[slot];
+      if (node == 0) {
+        break;
+      }
+      if (var[node] == v && low[node] == lo && high[node] == hi) {
+        return node;
+      }
+      slot = (slot + 1) & mask;
+    }
+    if (size == maxNodes) {
+      throw new BddOverflowException(maxNodes);
+    }
+    if (size == var.length) {
+      int capacity = (int) Math.min((long) var.length * 2, maxNodes);
+      var = Arrays.copyOf(var, capacity);
+      low = Arrays.copyOf(low, capacity);
+      high = Arrays.copyOf(high, capacity);
+    }
+    int node = size++;
+    var[node] = v;
+    low[node] = lo;
+    high[node] = hi;
+    table[slot] = node;
+    if (size > table.length / 2) {
+      rehash();
+    }
+    return node;
+  }
+
+  private void rehash() {
+    table = new int[table.length * 2];
+    mask = table.length - 1;
+    for (int node = 2; node < size; node++) {
+      int slot = hash(var[node], low[node], high[node]) & mask;
+      while (table[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      table[slot] = node;
+    }
+  }
+
+  private int lookup(int op, int a, int b) {
+    int entry = (hash(op, a, b) & cacheMask) * 4;
+    if (cache[entry] == op && cache[entry + 1] == a && cache[entry + 2] == b) {
+      return cache[entry + 3];
+    }
+    return -1;
+  }
+
+  private int store(int op, int a, int b, int result) {
+    int entry = (hash(op, a, b) & cacheMask) * 4;
+    cache[entry] = op;
+    cache[entry + 1] = a;
+    cache[entry + 2] = b;
+    cache[entry + 3] = result;
+    return result;
+  }
+
+  private static int hash(int x, int y, int z) {
+    int h = x * 0x9E3779B1 + y * 0x85EBCA77 + z * 0xC2B2AE3D;
+    return h ^ (h >>> 15);
+  }
+}
@@ -0,0 +1,13 @@
+package it.petrinet.petrinet.analysis.symbolic;
+
+/**
+ * Thrown when a {@link Bdd} reaches its node limit.
+ */
+class BddOverflowException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  BddOverflowException(int maxNodes) {
+    super("BDD node limit reached: " + maxNodes);
+  }
+}
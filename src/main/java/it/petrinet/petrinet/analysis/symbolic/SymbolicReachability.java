@@ -0,0 +1,411 @@
+package it.petrinet.petrinet.analysis.symbolic;
+
+import it.petrinet.petrinet.analysis.Invariant;
+import it.petrinet.petrinet.analysis.InvariantAnalyzer;
+import it.petrinet.petrinet.engine.CompiledNet;
+import it.petrinet.petrinet.model.PetriNetModel;
+
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Symbolic state-space analysis of a bounded net: sets of markings are
+ * represented as {@link Bdd}s instead of being enumerated, so nets with a huge
+ * number of concurrent interleavings can be analyzed in a number of nodes that
+ * depends on the structure of the net rather than on the number of markings.
+ * <p>
+ * Every place is encoded in binary with as many bits as its bound requires.
+ * Bounds come from the P-invariants of the net when the place is covered by
+ * one, otherwise from {@link #withDefaultBound(int)}; if some reachable marking
+ * would exceed the bound of a place the result is marked as incomplete. Each
+ * bit has a current and a next variable, interleaved, and places are ordered
+ * depth-first along the flow of the net starting from the start place, so
+ * connected places end up close in the variable order.
+ * </p>
+ * <p>
+ * Every transition has its own relation over the bits of the places it touches
+ * only, and the fixpoint is computed saturation-style: transitions are sorted
+ * by the topmost variable they touch and applied from the bottom of the order
+ * upwards, each one until it adds no new marking, before moving to the next.
+ * </p>
+ * Usage:
+ *
+ * <pre>
+ * SymbolicResult result = new SymbolicReachability(model).analyze();
+ * </pre>
+ */
+public class SymbolicReachability {
+
+  private final CompiledNet net;
+  private int defaultBound = 1;
+  private int maxNodes = 1 << 23;
+
+  private Bdd bdd;
+  private int[] bitCount;
+  private int[] firstVar;
+  private int[] relation;
+  private int[] curSet;
+  private int[] nextSet;
+
+  public SymbolicReachability(CompiledNet net) {
+    this.net = net;
+  }
+
+  public SymbolicReachability(PetriNetModel model) {
+    this(CompiledNet.compile(model));
+  }
+
+  /**
+   * Sets the bound assumed for the places not covered by any P-invariant.
+   */
+  public SymbolicReachability withDefaultBound(int defaultBound) {
+    if (defaultBound <= 0) {
+      throw new IllegalArgumentException("defaultBound must be positive");
+    }
+    this.defaultBound = defaultBound;
+    return this;
+  }
+
+  /**
+   * Limits the number of decision-diagram nodes; when the limit is hit the
+   * result is marked as incomplete.
+   */
+  public SymbolicReachability withMaxNodes(int maxNodes) {
+    if (maxNodes < 1024) {
+      throw new IllegalArgumentException("maxNodes must be at least 1024");
+    }
+    this.maxNodes = maxNodes;
+    return this;
+  }
+
+  /**
+   * Analyzes the net from the start marking.
+   *
+   * @return the analysis result
+   */
+  public SymbolicResult analyze() {
+    return analyze(net.startMarking());
+  }
+
+  /**
+   * Analyzes the net from the given marking.
+   *
+   * @param initialMarking marking indexed by place
+   * @return the analysis result
+   */
+  public SymbolicResult analyze(int[] initialMarking) {
+    int places = net.placeCount();
+    int transitions = net.transitionCount();
+    int[] bound = placeBounds(initialMarking);
+
+    bitCount = new int[places];
+    firstVar = new int[places];
+    int variables = 0;
+    for (int p : placeOrder()) {
+      bitCount[p] = 32 - Integer.numberOfLeadingZeros(bound[p]);
+      firstVar[p] = variables;
+      variables += 2 * bitCount[p];
+    }
+    boolean[] currentVars = new boolean[variables];
+    for (int v = 0; v < variables; v += 2) {
+      currentVars[v] = true;
+    }
+
+    bdd = new Bdd(maxNodes);
+    try {
+      relation = new int[transitions];
+      curSet = new int[transitions];
+      nextSet = new int[transitions];
+      int anyEnabled = Bdd.FALSE;
+      int overflow = Bdd.FALSE;
+      for (int t = 0; t < transitions; t++) {
+        buildRelation(t, bound, variables);
+        int enabled = enabling(t);
+        anyEnabled = bdd.or(anyEnabled, enabled);
+        overflow = bdd.or(overflow, bdd.and(enabled, overflowing(t, bound)));
+      }
+
+      int reach = Bdd.TRUE;
+      for (int p = 0; p < places; p++) {
+        reach = bdd.and(reach, value(p, initialMarking[p], false));
+      }
+      reach = forward(reach);
+
+      int end = net.endPlace();
+      int finished = end < 0 ? Bdd.FALSE : bdd.and(reach, atLeast(end, 1, bound[end]));
+      int canFinish = backward(finished, reach);
+      int deadlocks = bdd.diff(reach, anyEnabled);
+
+      boolean complete = bdd.and(reach, overflow) == Bdd.FALSE;
+      return new SymbolicResult(bdd.satCount(reach, currentVars), bdd.satCount(deadlocks, currentVars),
+          finished != Bdd.FALSE, bdd.satCount(bdd.diff(reach, canFinish), currentVars), complete, bdd.nodeCount());
+    } catch (BddOverflowException e) {
+      return new SymbolicResult(BigInteger.ZERO, BigInteger.ZERO, false, BigInteger.ZERO, false, bdd.nodeCount());
+    } finally {
+      bdd = null;
+    }
+  }
+
+  private int forward(int reach) {
+    int[] order = transitionsBottomUp();
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (int t : order) {
+        int frontier = reach;
+        while (frontier != Bdd.FALSE) {
+          frontier = bdd.diff(image(t, frontier), reach);
+          if (frontier != Bdd.FALSE) {
+            reach = bdd.or(reach, frontier);
+            changed = true;
+          }
+        }
+      }
+    }
+    return reach;
+  }
+
+  private int backward(int target, int reach) {
+    int[] order = transitionsBottomUp();
+    int result = target;
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (int t : order) {
+        int frontier = result;
+        while (frontier != Bdd.FALSE) {
+          frontier = bdd.diff(bdd.and(preImage(t, frontier), reach), result);
+          if (frontier != Bdd.FALSE) {
+            result = bdd.or(result, frontier);
+            changed = true;
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  private int image(int t, int states) {
+    return bdd.shiftDown(bdd.relProd(states, relation[t], curSet[t]), nextSet[t]);
+  }
+
+  private int preImage(int t, int states) {
+    return bdd.relProd(bdd.shiftUp(states, curSet[t]), relation[t], nextSet[t]);
+  }
+
+  /**
+   * Builds the local relation of {@code t}: for every touched place, the pairs
+   * (current value, value after firing) within the bound of the place. An
+   * inhibitor arc limits the current values, a reset arc maps all of them to
+   * the tokens produced.
+   */
+  private void buildRelation(int t, int[] bound, int variables) {
+    int[] need = new int[net.placeCount()];
+    int[] limit = bound.clone();
+    int[] produced = new int[net.placeCount()];
+    boolean[] reset = new boolean[net.placeCount()];
+    boolean[] touched = new boolean[net.placeCount()];
+    for (int k = 0; k < net.inputCount(t); k++) {
+      int p = net.inputPlace(t, k);
+      need[p] += net.inputWeight(t, k);
+      touched[p] = true;
+    }
+    for (int k = 0; k < net.inhibitorCount(t); k++) {
+      int p = net.inhibitorPlace(t, k);
+      limit[p] = Math.min(limit[p], net.inhibitorWeight(t, k) - 1);
+      touched[p] = true;
+    }
+    for (int k = 0; k < net.resetCount(t); k++) {
+      int p = net.resetPlace(t, k);
+      reset[p] = true;
+      touched[p] = true;
+    }
+    for (int k = 0; k < net.outputCount(t); k++) {
+      int p = net.outputPlace(t, k);
+      produced[p] += net.outputWeight(t, k);
+      touched[p] = true;
+    }
+
+    boolean[] current = new boolean[variables];
+    boolean[] next = new boolean[variables];
+    int result = Bdd.TRUE;
+    for (int p = 0; p < touched.length; p++) {
+      if (!touched[p]) {
+        continue;
+      }
+      for (int b = 0; b < bitCount[p]; b++) {
+        current[firstVar[p] + 2 * b] = true;
+        next[firstVar[p] + 2 * b + 1] = true;
+      }
+      int local = Bdd.FALSE;
+      for (int v = need[p]; v <= limit[p]; v++) {
+        int after = reset[p] ? produced[p] : v - need[p] + produced[p];
+        if (after <= bound[p]) {
+          local = bdd.or(local, bdd.and(value(p, v, false), value(p, after, true)));
+        }
+      }
+      result = bdd.and(result, local);
+    }
+    relation[t] = result;
+    curSet[t] = bdd.varSet(current);
+    nextSet[t] = bdd.varSet(next);
+  }
+
+  private int enabling(int t) {
+    int result = Bdd.TRUE;
+    for (int k = 0; k < net.inputCount(t); k++) {
+      int p = net.inputPlace(t, k);
+      result = bdd.and(result, atLeast(p, net.inputWeight(t, k), (1 << bitCount[p]) - 1));
+    }
+    for (int k = 0; k < net.inhibitorCount(t); k++) {
+      int p = net.inhibitorPlace(t, k);
+      result = bdd.and(result, atLeast(p, 0, Math.min(net.inhibitorWeight(t, k), 1 << bitCount[p]) - 1));
+    }
+    return result;
+  }
+
+  /**
+   * @return the markings in which firing {@code t} would exceed the bound of
+   *         one of its output places
+   */
+  private int overflowing(int t, int[] bound) {
+    int result = Bdd.FALSE;
+    for (int k = 0; k < net.outputCount(t); k++) {
+      int p = net.outputPlace(t, k);
+      int delta = net.outputWeight(t, k);
+      for (int i = 0; i < net.inputCount(t); i++) {
+        if (net.inputPlace(t, i) == p) {
+          delta -= net.inputWeight(t, i);
+        }
+      }
+      boolean reset = false;
+      for (int i = 0; i < net.resetCount(t); i++) {
+        reset |= net.resetPlace(t, i) == p;
+      }
+      if (reset) {
+        if (net.outputWeight(t, k) > bound[p]) {
+          result = bdd.or(result, atLeast(p, 0, bound[p]));
+        }
+      } else if (delta > 0) {
+        result = bdd.or(result, atLeast(p, Math.max(0, bound[p] - delta + 1), bound[p]));
+      }
+    }
+    return result;
+  }
+
+  private int atLeast(int p, int min, int max) {
+    int result = Bdd.FALSE;
+    for (int v = min; v <= max; v++) {
+      result = bdd.or(result, value(p, v, false));
+    }
+    return result;
+  }
+
+  /**
+   * @return the function that is true when place {@code p} holds {@code v}
+   *         tokens, on the current or next variables
+   */
+  private int value(int p, int v, boolean next) {
+    int result = Bdd.TRUE;
+    for (int b = bitCount[p] - 1; b >= 0; b--) {
+      boolean bit = ((v >>> (bitCount[p] - 1 - b)) & 1) != 0;
+      result = bdd.and(result, bdd.literal(firstVar[p] + 2 * b + (next ? 1 : 0), bit));
+    }
+    return result;
+  }
+
+  /**
+   * Bound of every place: the tightest one implied by a P-invariant
+   * ({@code y · M0 / y[p]}), or the default bound.
+   */
+  private int[] placeBounds(int[] initialMarking) {
+    int places = net.placeCount();
+    int[] bound = new int[places];
+    Arrays.fill(bound, Integer.MAX_VALUE);
+    Map<String, Integer> marking = net.toMap(initialMarking);
+    for (Invariant invariant : InvariantAnalyzer.cached(net).getPlaceInvariants()) {
+      long total = invariant.weightedSum(marking);
+      for (Map.Entry<String, Integer> entry : invariant.getWeights().entrySet()) {
+        int p = net.placeIndex(entry.getKey());
+        bound[p] = (int) Math.min(bound[p], total / entry.getValue());
+      }
+    }
+    for (int p = 0; p < places; p++) {
+      if (bound[p] == Integer.MAX_VALUE) {
+        bound[p] = defaultBound;
+      }
+      bound[p] = Math.max(Math.max(bound[p], initialMarking[p]), 1);
+    }
+    return bound;
+  }
+
+  /**
+   * Places in depth-first order along the arcs from the start place, then the
+   * unreachable ones by index. Depth-first keeps each branch of a fork
+   * contiguous, so the bits of a branch are tested together instead of being
+   * interleaved with every other branch.
+   */
+  private int[] placeOrder() {
+    int places = net.placeCount();
+    int[] order = new int[places];
+    boolean[] seen = new boolean[places];
+    int count = 0;
+    Deque<Integer> stack = new ArrayDeque<>();
+    if (net.startPlace() >= 0) {
+      stack.push(net.startPlace());
+    }
+    while (!stack.isEmpty()) {
+      int p = stack.pop();
+      if (seen[p]) {
+        continue;
+      }
+      seen[p] = true;
+      order[count++] = p;
+      for (int j = net.consumerCount(p) - 1; j >= 0; j--) {
+        int t = net.consumer(p, j);
+        for (int k = net.outputCount(t) - 1; k >= 0; k--) {
+          int q = net.outputPlace(t, k);
+          if (!seen[q]) {
+            stack.push(q);
+          }
+        }
+      }
+    }
+    for (int p = 0; p < places; p++) {
+      if (!seen[p]) {
+        order[count++] = p;
+      }
+    }
+    return order;
+  }
+
+  private int[] transitionsBottomUp() {
+    return IntStream.range(0, net.transitionCount())
+        .boxed()
+        .sorted(Comparator.comparingInt(this::topVariable).reversed())
+        .mapToInt(Integer::intValue)
+        .toArray();
+  }
+
+  private int topVariable(int t) {
+    int top = Integer.MAX_VALUE;
+    for (int k = 0; k < net.inputCount(t); k++) {
+      top = Math.min(top, firstVar[net.inputPlace(t, k)]);
+    }
+    for (int k = 0; k < net.outputCount(t); k++) {
+      top = Math.min(top, firstVar[net.outputPlace(t, k)]);
+    }
+    for (int k = 0; k < net.inhibitorCount(t); k++) {
+      top = Math.min(top, firstVar[net.inhibitorPlace(t, k)]);
+    }
+    for (int k = 0; k < net.resetCount(t); k++) {
+      top = Math.min(top, firstVar[net.resetPlace(t, k)]);
+    }
+    return top;
+  }
+}
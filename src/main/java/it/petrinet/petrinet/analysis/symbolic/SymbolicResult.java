@@ -0,0 +1,87 @@
+package it.petrinet.petrinet.analysis.symbolic;
+
+import java.math.BigInteger;
+
+/**
+ * Outcome of a symbolic reachability analysis. Counts are exact and may exceed
+ * the range of {@code long}.
+ */
+public class SymbolicResult {
+
+  private final BigInteger stateCount;
+  private final BigInteger deadlockCount;
+  private final boolean endReachable;
+  private final BigInteger cannotFinishCount;
+  private final boolean complete;
+  private final int nodeCount;
+
+  SymbolicResult(BigInteger stateCount, BigInteger deadlockCount, boolean endReachable,
+      BigInteger cannotFinishCount, boolean complete, int nodeCount) {
+    this.stateCount = stateCount;
+    this.deadlockCount = deadlockCount;
+    this.endReachable = endReachable;
+    this.cannotFinishCount = cannotFinishCount;
+    this.complete = complete;
+    this.nodeCount = nodeCount;
+  }
+
+  /**
+   * @return number of reachable markings
+   */
+  public BigInteger getStateCount() {
+    return stateCount;
+  }
+
+  /**
+   * @return number of reachable markings with no enabled transition
+   */
+  public BigInteger getDeadlockCount() {
+    return deadlockCount;
+  }
+
+  /**
+   * @return true if some reachable marking puts a token in the end place
+   */
+  public boolean isEndReachable() {
+    return endReachable;
+  }
+
+  /**
+   * @return number of reachable markings from which the end place cannot be
+   *         reached
+   */
+  public BigInteger getCannotFinishCount() {
+    return cannotFinishCount;
+  }
+
+  /**
+   * @return false if the analysis ran out of decision-diagram nodes or a place
+   *         exceeded the bound it was encoded with; the other values are then
+   *         meaningless
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  /**
+   * @return number of decision-diagram nodes allocated by the analysis
+   */
+  public int getNodeCount() {
+    return nodeCount;
+  }
+
+  /**
+   * Same property as {@code ReachabilityResult#canAlwaysFinish()}.
+   *
+   * @return true if every computation can finish
+   */
+  public boolean canAlwaysFinish() {
+    return complete && endReachable && cannotFinishCount.signum() == 0;
+  }
+
+  @Override
+  public String toString() {
+    return "SymbolicResult{states=%s, deadlocks=%s, endReachable=%s, cannotFinish=%s, complete=%s, nodes=%d}"
+        .formatted(stateCount, deadlockCount, endReachable, cannotFinishCount, complete, nodeCount);
+  }
+}
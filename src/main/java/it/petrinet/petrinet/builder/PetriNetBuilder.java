@@ -2,16 +2,20 @@ package it.petrinet.petrinet.builder;
 
 import it.petrinet.petrinet.IllegalConnectionException;
 import it.petrinet.petrinet.model.*;
-import javafx.geometry.Point2D;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class PetriNetBuilder {
 
   private List<Place> places;
   private List<Transition> transitions;
   private List<Arc> arcs;
+  // places and transitions by name, kept in sync by every method that adds,
+  // removes or renames a node
+  private Map<String, Node> nodesByName;
 
   private Place startNode = null;
 
@@ -31,6 +35,7 @@ public class PetriNetBuilder {
     this.places = new ArrayList<>();
     this.transitions = new ArrayList<>();
     this.arcs = new ArrayList<>();
+    this.nodesByName = new HashMap<>();
     this.petriName = petriNetName;
   }
 
@@ -46,9 +51,9 @@ public class PetriNetBuilder {
   public PetriNetBuilder setNodePosition(String name, double x, double y) {
     Node node = getNodeByName(name);
     if (node instanceof Place place) {
-      place.setPosition(new Point2D(x, y));
+      place.setPosition(new Position(x, y));
     } else if (node instanceof Transition transition) {
-      transition.setPosition(new Point2D(x, y));
+      transition.setPosition(new Position(x, y));
     }
     return this;
   }
@@ -73,15 +78,25 @@ public class PetriNetBuilder {
       finishNode = null;
     }
     System.out.println("Removing place: " + places.remove(place));
+    nodesByName.remove(place.getName(), place);
     return this;
   }
 
   private PetriNetBuilder removeTransition(Transition transition) {
     System.out.println("Removing transition: " + transitions.remove(transition));
+    nodesByName.remove(transition.getName(), transition);
     return this;
   }
 
+  /**
+   * Renames a node and updates the arcs that refer to it.
+   */
   public void renameNode(String oldName, String newName){
+    Node node = nodesByName.remove(oldName);
+    if (node != null) {
+      node.setName(newName);
+      nodesByName.put(newName, node);
+    }
     arcs.forEach(arc -> {
       if (arc.getFrom().equals(oldName)){
         arc.setFrom(newName);
@@ -114,13 +129,24 @@ public class PetriNetBuilder {
   }
 
   public PetriNetBuilder addArc(String from, String to) {
-    Arc arc = new Arc(from, to);
+    return addArc(from, to, 1);
+  }
+
+  public PetriNetBuilder addArc(String from, String to, int weight) {
+    return addArc(from, to, weight, ARC_TYPE.NORMAL);
+  }
+
+  /**
+   * Adds an arc of the given kind; inhibitor and reset arcs go from a place
+   * to a transition.
+   */
+  public PetriNetBuilder addArc(String from, String to, int weight, ARC_TYPE type) {
+    Arc arc = new Arc(from, to, weight, type);
     arcs.add(arc);
     return this;
   }
 
   public PetriNetBuilder setFinishNode(String name) {
-    System.out.println("All nodes: " + places.size() + " places, " + transitions.size() + " transitions");
     Node d = getNodeByName(name);
     if (d instanceof Place p) {
       p.setType(PLACE_TYPE.END);
@@ -207,12 +233,13 @@ public class PetriNetBuilder {
     }
 
     public PlaceBuilder withPosition(double x, double y) {
-      place.setPosition(new Point2D(x, y));
+      place.setPosition(new Position(x, y));
       return this;
     }
 
     public PetriNetBuilder donePlace() {
       petriNetBuilder.places.add(place);
+      petriNetBuilder.nodesByName.put(place.getName(), place);
       return petriNetBuilder;
     }
   }
@@ -237,29 +264,23 @@ public class PetriNetBuilder {
     }
 
     public TransitionBuilder withPosition(double x, double y) {
-      transition.setPosition(new Point2D(x, y));
+      transition.setPosition(new Position(x, y));
       return this;
     }
 
     public PetriNetBuilder doneTransition() {
       petriNetBuilder.transitions.add(transition);
+      petriNetBuilder.nodesByName.put(transition.getName(), transition);
       return petriNetBuilder;
     }
   }
 
+  /**
+   * @return the place or transition with the given name, or null if there is
+   *         none
+   */
   public Node getNodeByName(String name) {
-    for (Place place : places) {
-      System.out.println("Checking place: " + place.getName());
-      if (place.getName().equals(name)) {
-        return place;
-      }
-    }
-    for (Transition transition : transitions) {
-      if (transition.getName().equals(name)) {
-        return transition;
-      }
-    }
-    return null;
+    return nodesByName.get(name);
   }
 
 }
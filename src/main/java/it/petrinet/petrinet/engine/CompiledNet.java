@@ -0,0 +1,709 @@
+package it.petrinet.petrinet.engine;
+
+import it.petrinet.petrinet.model.ARC_TYPE;
+import it.petrinet.petrinet.model.FrozenNet;
+import it.petrinet.petrinet.model.Marking;
+import it.petrinet.petrinet.model.PLACE_TYPE;
+import it.petrinet.petrinet.model.PetriNetModel;
+import it.petrinet.petrinet.model.TRANSITION_TYPE;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, int-indexed representation of a {@link PetriNetModel} used to play
+ * the token game without any scene graph.
+ * <p>
+ * Places and transitions are numbered {@code 0..n-1} (sorted by name, so the
+ * numbering is stable across runs). For every transition the input (pre) and
+ * output (post) places are stored in compressed rows: the places of transition
+ * {@code t} are {@code prePlace[preStart[t] .. preStart[t + 1])} with the
+ * matching weights in {@code preWeight}. Inhibitor and reset arcs have rows
+ * of their own, so no loop ever tests the kind of an arc. A marking is a plain
+ * {@code int[]} indexed by place, so {@link #isEnabled(int, int[])} and
+ * {@link #fire(int, int[])} never allocate.
+ * </p>
+ * Instances are thread safe and can be shared by any number of executions.
+ */
+public final class CompiledNet {
+
+  private final String name;
+
+  private final String[] placeNames;
+  private final PLACE_TYPE[] placeTypes;
+  private final int[] initialMarking;
+  private final int startPlace;
+  private final int endPlace;
+
+  private final String[] transitionNames;
+  private final TRANSITION_TYPE[] transitionTypes;
+
+  private final int[] preStart;
+  private final int[] prePlace;
+  private final int[] preWeight;
+  private final int[] postStart;
+  private final int[] postPlace;
+  private final int[] postWeight;
+  private final int[] inhibitorStart;
+  private final int[] inhibitorPlace;
+  private final int[] inhibitorWeight;
+  private final int[] resetStart;
+  private final int[] resetPlace;
+
+  // place -> transitions consuming from it / producing into it / inhibited by
+  // it, and transition -> transitions whose enabling may change when it fires
+  private final int[] consumerStart;
+  private final int[] consumer;
+  private final int[] producerStart;
+  private final int[] producer;
+  private final int[] inhibitedStart;
+  private final int[] inhibited;
+  private final int[] dependentStart;
+  private final int[] dependent;
+
+  private final Map<String, Integer> placeIndex;
+  private final Map<String, Integer> transitionIndex;
+  // empty marking over placeNames, the names shared by every Marking of this net
+  private final Marking emptyMarking;
+
+  private CompiledNet(String name, String[] placeNames, PLACE_TYPE[] placeTypes, int[] initialMarking,
+      String[] transitionNames, TRANSITION_TYPE[] transitionTypes, int[] preStart, int[] prePlace, int[] preWeight,
+      int[] postStart, int[] postPlace, int[] postWeight, int[] inhibitorStart, int[] inhibitorPlace,
+      int[] inhibitorWeight, int[] resetStart, int[] resetPlace) {
+    this.name = name;
+    this.placeNames = placeNames;
+    this.placeTypes = placeTypes;
+    this.initialMarking = initialMarking;
+    this.transitionNames = transitionNames;
+    this.transitionTypes = transitionTypes;
+    this.preStart = preStart;
+    this.prePlace = prePlace;
+    this.preWeight = preWeight;
+    this.postStart = postStart;
+    this.postPlace = postPlace;
+    this.postWeight = postWeight;
+    this.inhibitorStart = inhibitorStart;
+    this.inhibitorPlace = inhibitorPlace;
+    this.inhibitorWeight = inhibitorWeight;
+    this.resetStart = resetStart;
+    this.resetPlace = resetPlace;
+
+    int placeCount = placeNames.length;
+    this.placeIndex = new HashMap<>(placeCount * 2);
+    int start = -1;
+    int end = -1;
+    for (int p = 0; p < placeCount; p++) {
+      placeIndex.put(placeNames[p], p);
+      if (placeTypes[p] == PLACE_TYPE.START && start < 0) {
+        start = p;
+      } else if (placeTypes[p] == PLACE_TYPE.END && end < 0) {
+        end = p;
+      }
+    }
+    this.startPlace = start;
+    this.endPlace = end;
+    this.emptyMarking = Marking.of(placeNames, new int[placeCount]);
+
+    int transitionCount = transitionNames.length;
+    this.transitionIndex = new HashMap<>(transitionCount * 2);
+    for (int t = 0; t < transitionCount; t++) {
+      transitionIndex.put(transitionNames[t], t);
+    }
+
+    this.consumerStart = new int[placeCount + 1];
+    this.consumer = transpose(preStart, prePlace, consumerStart);
+    this.producerStart = new int[placeCount + 1];
+    this.producer = transpose(postStart, postPlace, producerStart);
+    this.inhibitedStart = new int[placeCount + 1];
+    this.inhibited = transpose(inhibitorStart, inhibitorPlace, inhibitedStart);
+
+    this.dependentStart = new int[transitionCount + 1];
+    int[] mark = new int[transitionCount];
+    Arrays.fill(mark, -1);
+    int[] buffer = new int[Math.max(transitionCount, 1)];
+    List<int[]> rows = new ArrayList<>(transitionCount);
+    int dependentCount = 0;
+    for (int t = 0; t < transitionCount; t++) {
+      int size = 0;
+      size = collectConsumers(prePlace, preStart[t], preStart[t + 1], t, mark, buffer, size);
+      size = collectConsumers(postPlace, postStart[t], postStart[t + 1], t, mark, buffer, size);
+      size = collectConsumers(resetPlace, resetStart[t], resetStart[t + 1], t, mark, buffer, size);
+      int[] row = Arrays.copyOf(buffer, size);
+      Arrays.sort(row);
+      rows.add(row);
+      dependentCount += size;
+    }
+    this.dependent = new int[dependentCount];
+    int cursor = 0;
+    for (int t = 0; t < transitionCount; t++) {
+      dependentStart[t] = cursor;
+      int[] row = rows.get(t);
+      System.arraycopy(row, 0, dependent, cursor, row.length);
+      cursor += row.length;
+    }
+    dependentStart[transitionCount] = cursor;
+  }
+
+  /**
+   * Turns rows by transition into rows by place: fills {@code placeStart} and
+   * returns, for every place, the transitions whose row contains it.
+   */
+  private static int[] transpose(int[] start, int[] place, int[] placeStart) {
+    int placeCount = placeStart.length - 1;
+    int[] transitions = new int[place.length];
+    for (int p : place) {
+      placeStart[p + 1]++;
+    }
+    for (int p = 0; p < placeCount; p++) {
+      placeStart[p + 1] += placeStart[p];
+    }
+    int[] fill = Arrays.copyOf(placeStart, placeCount);
+    for (int t = 0; t + 1 < start.length; t++) {
+      for (int i = start[t]; i < start[t + 1]; i++) {
+        transitions[fill[place[i]]++] = t;
+      }
+    }
+    return transitions;
+  }
+
+  /**
+   * Adds to {@code buffer} the transitions that consume from, or are inhibited
+   * by, the given places and are not marked yet.
+   */
+  private int collectConsumers(int[] places, int from, int to, int owner, int[] mark, int[] buffer, int size) {
+    for (int i = from; i < to; i++) {
+      int p = places[i];
+      size = collect(consumer, consumerStart[p], consumerStart[p + 1], owner, mark, buffer, size);
+      size = collect(inhibited, inhibitedStart[p], inhibitedStart[p + 1], owner, mark, buffer, size);
+    }
+    return size;
+  }
+
+  private static int collect(int[] candidates, int from, int to, int owner, int[] mark, int[] buffer, int size) {
+    for (int j = from; j < to; j++) {
+      int candidate = candidates[j];
+      if (mark[candidate] != owner) {
+        mark[candidate] = owner;
+        buffer[size++] = candidate;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Compiles the given model. Arc weights are taken from the model, where
+   * parallel arcs between the same pair of nodes are already merged into a
+   * single arc whose weight is the sum of theirs.
+   *
+   * @param model the model to compile
+   * @return the compiled net
+   */
+  public static CompiledNet compile(PetriNetModel model) {
+    return compile(model.freeze());
+  }
+
+  /**
+   * Compiles a snapshot of a net. Places and transitions keep the indexes of
+   * the snapshot, which are sorted by name as well.
+   *
+   * @param net the snapshot to compile
+   * @return the compiled net
+   */
+  public static CompiledNet compile(FrozenNet net) {
+    int placeCount = net.placeCount();
+    String[] placeNames = new String[placeCount];
+    PLACE_TYPE[] placeTypes = new PLACE_TYPE[placeCount];
+    for (int p = 0; p < placeCount; p++) {
+      placeNames[p] = net.placeName(p);
+      placeTypes[p] = net.placeType(p);
+    }
+    int transitionCount = net.transitionCount();
+    String[] transitionNames = new String[transitionCount];
+    TRANSITION_TYPE[] transitionTypes = new TRANSITION_TYPE[transitionCount];
+    for (int t = 0; t < transitionCount; t++) {
+      transitionNames[t] = net.transitionName(t);
+      transitionTypes[t] = net.transitionType(t);
+    }
+
+    int[][] preRows = rows(net, ARC_TYPE.NORMAL);
+    int[][] inhibitorRows = rows(net, ARC_TYPE.INHIBITOR);
+    int[][] resetRows = rows(net, ARC_TYPE.RESET);
+
+    // the arcs leaving transitions are already rows sorted by place
+    int[] postStart = new int[transitionCount + 1];
+    for (int t = 0; t < transitionCount; t++) {
+      postStart[t + 1] = postStart[t] + net.transitionArcCount(t);
+    }
+    int[] postPlace = new int[postStart[transitionCount]];
+    int[] postWeight = new int[postPlace.length];
+    for (int t = 0; t < transitionCount; t++) {
+      for (int k = 0; k < net.transitionArcCount(t); k++) {
+        postPlace[postStart[t] + k] = net.transitionArcTarget(t, k);
+        postWeight[postStart[t] + k] = net.transitionArcWeight(t, k);
+      }
+    }
+
+    return new CompiledNet(net.getName(), placeNames, placeTypes, net.initialMarking(), transitionNames,
+        transitionTypes, preRows[0], preRows[1], preRows[2], postStart, postPlace, postWeight,
+        inhibitorRows[0], inhibitorRows[1], inhibitorRows[2], resetRows[0], resetRows[1]);
+  }
+
+  /**
+   * Lays out the arcs of the given kind from places to transitions as
+   * compressed rows, one per transition. Places are visited in index order,
+   * so every row is sorted by place.
+   *
+   * @return the row offsets, the places and the weights
+   */
+  private static int[][] rows(FrozenNet net, ARC_TYPE type) {
+    int transitionCount = net.transitionCount();
+    int[] start = new int[transitionCount + 1];
+    for (int p = 0; p < net.placeCount(); p++) {
+      for (int k = 0; k < net.placeArcCount(p); k++) {
+        if (net.placeArcType(p, k) == type) {
+          start[net.placeArcTarget(p, k) + 1]++;
+        }
+      }
+    }
+    for (int t = 0; t < transitionCount; t++) {
+      start[t + 1] += start[t];
+    }
+    int[] place = new int[start[transitionCount]];
+    int[] weight = new int[place.length];
+    int[] cursor = Arrays.copyOf(start, transitionCount);
+    for (int p = 0; p < net.placeCount(); p++) {
+      for (int k = 0; k < net.placeArcCount(p); k++) {
+        if (net.placeArcType(p, k) == type) {
+          int arc = cursor[net.placeArcTarget(p, k)]++;
+          place[arc] = p;
+          weight[arc] = net.placeArcWeight(p, k);
+        }
+      }
+    }
+    return new int[][] { start, place, weight };
+  }
+
+  /**
+   * Builds a compiled net directly from its compressed rows, as stored by a
+   * binary net file, without going through a {@link PetriNetModel}. The arrays
+   * are owned by the returned net and must not be modified afterwards.
+   *
+   * @param name            name of the net
+   * @param placeNames      place names, indexed by place
+   * @param placeTypes      place types, indexed by place
+   * @param initialMarking  tokens stored in the places
+   * @param transitionNames transition names, indexed by transition
+   * @param transitionTypes transition types, indexed by transition
+   * @param preStart        row offsets of the input arcs, one per transition
+   *                        plus one
+   * @param prePlace        input place of every input arc
+   * @param preWeight       weight of every input arc
+   * @param postStart       row offsets of the output arcs, one per transition
+   *                        plus one
+   * @param postPlace       output place of every output arc
+   * @param postWeight      weight of every output arc
+   * @param inhibitorStart  row offsets of the inhibitor arcs, one per
+   *                        transition plus one
+   * @param inhibitorPlace  place of every inhibitor arc
+   * @param inhibitorWeight token count disabling every inhibitor arc
+   * @param resetStart      row offsets of the reset arcs, one per transition
+   *                        plus one
+   * @param resetPlace      place of every reset arc
+   * @return the compiled net
+   * @throws IllegalArgumentException if the arrays are not consistent
+   */
+  public static CompiledNet fromArrays(String name, String[] placeNames, PLACE_TYPE[] placeTypes,
+      int[] initialMarking, String[] transitionNames, TRANSITION_TYPE[] transitionTypes, int[] preStart,
+      int[] prePlace, int[] preWeight, int[] postStart, int[] postPlace, int[] postWeight, int[] inhibitorStart,
+      int[] inhibitorPlace, int[] inhibitorWeight, int[] resetStart, int[] resetPlace) {
+    int placeCount = placeNames.length;
+    int transitionCount = transitionNames.length;
+    if (placeTypes.length != placeCount || initialMarking.length != placeCount
+        || transitionTypes.length != transitionCount) {
+      throw new IllegalArgumentException("Node arrays of different lengths");
+    }
+    checkRows(preStart, prePlace, preWeight, transitionCount, placeCount);
+    checkRows(postStart, postPlace, postWeight, transitionCount, placeCount);
+    checkRows(inhibitorStart, inhibitorPlace, inhibitorWeight, transitionCount, placeCount);
+    checkRows(resetStart, resetPlace, null, transitionCount, placeCount);
+    return new CompiledNet(name, placeNames, placeTypes, initialMarking, transitionNames, transitionTypes,
+        preStart, prePlace, preWeight, postStart, postPlace, postWeight, inhibitorStart, inhibitorPlace,
+        inhibitorWeight, resetStart, resetPlace);
+  }
+
+  private static void checkRows(int[] start, int[] place, int[] weight, int transitionCount, int placeCount) {
+    if (start.length != transitionCount + 1 || start[0] != 0 || start[transitionCount] != place.length
+        || weight != null && weight.length != place.length) {
+      throw new IllegalArgumentException("Malformed arc rows");
+    }
+    for (int t = 0; t < transitionCount; t++) {
+      if (start[t] > start[t + 1]) {
+        throw new IllegalArgumentException("Malformed arc rows");
+      }
+    }
+    for (int i = 0; i < place.length; i++) {
+      if (place[i] < 0 || place[i] >= placeCount || weight != null && weight[i] <= 0) {
+        throw new IllegalArgumentException("Invalid arc " + i);
+      }
+    }
+  }
+
+  /**
+   * Checks whether transition {@code t} is enabled in the given marking. The
+   * differences between tokens and thresholds are or-ed together and only the
+   * sign of the result is tested, so the loops have no data-dependent branch.
+   *
+   * @param t       transition index
+   * @param marking marking indexed by place
+   * @return true if every input place holds at least the arc weight and every
+   *         inhibiting place holds less than its threshold
+   */
+  public boolean isEnabled(int t, int[] marking) {
+    int missing = 0;
+    for (int i = preStart[t], end = preStart[t + 1]; i < end; i++) {
+      missing |= marking[prePlace[i]] - preWeight[i];
+    }
+    for (int i = inhibitorStart[t], end = inhibitorStart[t + 1]; i < end; i++) {
+      missing |= inhibitorWeight[i] - 1 - marking[inhibitorPlace[i]];
+    }
+    return missing >= 0;
+  }
+
+  /**
+   * Fires transition {@code t} in place: tokens are consumed, the places of its
+   * reset arcs emptied, then tokens are produced. The caller is responsible
+   * for checking {@link #isEnabled(int, int[])} first; firing a disabled
+   * transition leaves negative token counts in the marking.
+   *
+   * @param t       transition index
+   * @param marking marking indexed by place, updated in place
+   */
+  public void fire(int t, int[] marking) {
+    for (int i = preStart[t], end = preStart[t + 1]; i < end; i++) {
+      marking[prePlace[i]] -= preWeight[i];
+    }
+    for (int i = resetStart[t], end = resetStart[t + 1]; i < end; i++) {
+      marking[resetPlace[i]] = 0;
+    }
+    for (int i = postStart[t], end = postStart[t + 1]; i < end; i++) {
+      marking[postPlace[i]] += postWeight[i];
+    }
+  }
+
+  /**
+   * Returns a copy of the marking stored in the places of the compiled model.
+   */
+  public int[] initialMarking() {
+    return initialMarking.clone();
+  }
+
+  /**
+   * Returns the marking used to start a computation: a single token in the
+   * start place and nothing else.
+   */
+  public int[] startMarking() {
+    int[] marking = new int[placeNames.length];
+    if (startPlace >= 0) {
+      marking[startPlace] = 1;
+    }
+    return marking;
+  }
+
+  /**
+   * Converts a marking keyed by place name (as stored in computation steps) to
+   * an indexed marking. Unknown place names are ignored.
+   *
+   * @param marking place name to token count
+   * @return the indexed marking
+   */
+  public int[] toMarking(Map<String, Integer> marking) {
+    int[] result = new int[placeNames.length];
+    marking.forEach((place, tokens) -> {
+      int p = placeIndex(place);
+      if (p >= 0) {
+        result[p] = tokens;
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Converts an indexed marking back to a map keyed by place name. Empty places
+   * are omitted, as in the markings stored by computation steps.
+   *
+   * @param marking indexed marking
+   * @return place name to token count
+   */
+  public Map<String, Integer> toMap(int[] marking) {
+    Map<String, Integer> result = new HashMap<>();
+    for (int p = 0; p < marking.length; p++) {
+      if (marking[p] != 0) {
+        result.put(placeNames[p], marking[p]);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Wraps an indexed marking in an immutable {@link Marking}, sharing the
+   * place names of this net.
+   *
+   * @param marking indexed marking, copied
+   * @return the marking
+   */
+  public Marking marking(int[] marking) {
+    return Marking.of(placeNames, marking);
+  }
+
+  /**
+   * Converts a marking to an indexed one: a marking of this net is copied as
+   * is, any other one is matched by place name. Unknown place names are
+   * ignored.
+   *
+   * @param marking the marking
+   * @return the indexed marking
+   */
+  public int[] toMarking(Marking marking) {
+    if (marking.hasSamePlaces(emptyMarking)) {
+      return marking.toArray();
+    }
+    int[] result = new int[placeNames.length];
+    for (int i = 0; i < marking.size(); i++) {
+      int p = placeIndex(marking.placeName(i));
+      if (p >= 0) {
+        result[p] = marking.tokens(i);
+      }
+    }
+    return result;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int placeCount() {
+    return placeNames.length;
+  }
+
+  public int transitionCount() {
+    return transitionNames.length;
+  }
+
+  /**
+   * @return index of the place with the given name, or -1 if not present
+   */
+  public int placeIndex(String placeName) {
+    Integer p = placeIndex.get(placeName);
+    return p == null ? -1 : p;
+  }
+
+  /**
+   * @return index of the transition with the given name, or -1 if not present
+   */
+  public int transitionIndex(String transitionName) {
+    Integer t = transitionIndex.get(transitionName);
+    return t == null ? -1 : t;
+  }
+
+  public String placeName(int p) {
+    return placeNames[p];
+  }
+
+  public PLACE_TYPE placeType(int p) {
+    return placeTypes[p];
+  }
+
+  public String transitionName(int t) {
+    return transitionNames[t];
+  }
+
+  public TRANSITION_TYPE transitionType(int t) {
+    return transitionTypes[t];
+  }
+
+  /**
+   * @return index of the start place, or -1 if the net has none
+   */
+  public int startPlace() {
+    return startPlace;
+  }
+
+  /**
+   * @return index of the end place, or -1 if the net has none
+   */
+  public int endPlace() {
+    return endPlace;
+  }
+
+  /**
+   * @return number of input places of transition {@code t}
+   */
+  public int inputCount(int t) {
+    return preStart[t + 1] - preStart[t];
+  }
+
+  /**
+   * @return the {@code k}-th input place of transition {@code t}
+   */
+  public int inputPlace(int t, int k) {
+    return prePlace[preStart[t] + k];
+  }
+
+  /**
+   * @return weight of the {@code k}-th input arc of transition {@code t}
+   */
+  public int inputWeight(int t, int k) {
+    return preWeight[preStart[t] + k];
+  }
+
+  /**
+   * @return number of output places of transition {@code t}
+   */
+  public int outputCount(int t) {
+    return postStart[t + 1] - postStart[t];
+  }
+
+  /**
+   * @return the {@code k}-th output place of transition {@code t}
+   */
+  public int outputPlace(int t, int k) {
+    return postPlace[postStart[t] + k];
+  }
+
+  /**
+   * @return weight of the {@code k}-th output arc of transition {@code t}
+   */
+  public int outputWeight(int t, int k) {
+    return postWeight[postStart[t] + k];
+  }
+
+  /**
+   * @return number of inhibitor arcs of transition {@code t}
+   */
+  public int inhibitorCount(int t) {
+    return inhibitorStart[t + 1] - inhibitorStart[t];
+  }
+
+  /**
+   * @return place of the {@code k}-th inhibitor arc of transition {@code t}
+   */
+  public int inhibitorPlace(int t, int k) {
+    return inhibitorPlace[inhibitorStart[t] + k];
+  }
+
+  /**
+   * @return tokens that make the {@code k}-th inhibitor arc of transition
+   *         {@code t} disable it
+   */
+  public int inhibitorWeight(int t, int k) {
+    return inhibitorWeight[inhibitorStart[t] + k];
+  }
+
+  /**
+   * @return number of reset arcs of transition {@code t}
+   */
+  public int resetCount(int t) {
+    return resetStart[t + 1] - resetStart[t];
+  }
+
+  /**
+   * @return place emptied by the {@code k}-th reset arc of transition
+   *         {@code t}
+   */
+  public int resetPlace(int t, int k) {
+    return resetPlace[resetStart[t] + k];
+  }
+
+  /**
+   * @return true if the net has inhibitor or reset arcs, which analyses
+   *         assuming monotonic firing do not support
+   */
+  public boolean hasInhibitorOrResetArcs() {
+    return inhibitorPlace.length > 0 || resetPlace.length > 0;
+  }
+
+  /**
+   * @return number of transitions consuming from place {@code p}
+   */
+  public int consumerCount(int p) {
+    return consumerStart[p + 1] - consumerStart[p];
+  }
+
+  /**
+   * @return the {@code k}-th transition consuming from place {@code p}
+   */
+  public int consumer(int p, int k) {
+    return consumer[consumerStart[p] + k];
+  }
+
+  /**
+   * @return number of transitions producing into place {@code p}
+   */
+  public int producerCount(int p) {
+    return producerStart[p + 1] - producerStart[p];
+  }
+
+  /**
+   * @return the {@code k}-th transition producing into place {@code p}
+   */
+  public int producer(int p, int k) {
+    return producer[producerStart[p] + k];
+  }
+
+  /**
+   * Number of transitions whose enabling may change when {@code t} fires, that
+   * is the consumers and the inhibited transitions of every place whose tokens
+   * {@code t} changes.
+   */
+  public int dependentCount(int t) {
+    return dependentStart[t + 1] - dependentStart[t];
+  }
+
+  /**
+   * @return the {@code k}-th transition that may change enabling when
+   *         {@code t} fires
+   */
+  public int dependent(int t, int k) {
+    return dependent[dependentStart[t] + k];
+  }
+
+  /**
+   * 64-bit hash of the structure of the net: place and transition names, place
+   * types and weighted arcs of every kind. Two compilations of the same version of a net
+   * share the fingerprint, so it can key caches of structural results.
+   *
+   * @return the structural fingerprint
+   */
+  public long fingerprint() {
+    long h = 0xCBF29CE484222325L;
+    for (int p = 0; p < placeNames.length; p++) {
+      h = mix(h, placeNames[p].hashCode());
+      h = mix(h, placeTypes[p].ordinal());
+    }
+    for (String transitionName : transitionNames) {
+      h = mix(h, transitionName.hashCode());
+    }
+    for (int[] array : new int[][] { preStart, prePlace, preWeight, postStart, postPlace, postWeight,
+        inhibitorStart, inhibitorPlace, inhibitorWeight, resetStart, resetPlace }) {
+      h = mix(h, array.length);
+      for (int value : array) {
+        h = mix(h, value);
+      }
+    }
+    return h;
+  }
+
+  private static long mix(long h, int value) {
+    h = (h ^ value) * 0x100000001B3L;
+    return h ^ (h >>> 29);
+  }
+
+  @Override
+  public String toString() {
+    return "CompiledNet{name='%s', places=%s, transitions=%s}".formatted(name, Arrays.toString(placeNames),
+        Arrays.toString(transitionNames));
+  }
+}
@@ -0,0 +1,168 @@
+package it.petrinet.petrinet.engine;
+
+import it.petrinet.petrinet.model.TRANSITION_TYPE;
+
+import java.util.Arrays;
+
+/**
+ * Tracks the set of enabled transitions of a {@link CompiledNet} for a marking
+ * that evolves by single firings.
+ * <p>
+ * {@link #reset(int[])} performs one full scan; after that
+ * {@link #update(int, int[])} only re-checks the transitions that consume from
+ * a place touched by the fired transition (see
+ * {@link CompiledNet#dependent(int, int)}), so the cost of a firing depends on
+ * the local neighbourhood of the transition and not on the size of the net.
+ * The transitions whose status flipped during the last call are available
+ * through {@link #changedCount()} / {@link #changed(int)}, which lets the view
+ * restyle only what actually changed.
+ * </p>
+ * The structure is not thread safe; use one instance per execution.
+ */
+public final class EnabledSet {
+
+  private final CompiledNet net;
+
+  // dense list of enabled transitions and position of each transition in it
+  // (-1 when disabled), so add and remove are O(1)
+  private final int[] enabled;
+  private final int[] position;
+  private int size;
+
+  private final int[] typeCounts = new int[TRANSITION_TYPE.values().length];
+
+  private final int[] changed;
+  private int changedSize;
+
+  /**
+   * Creates an empty set for the given net. Call {@link #reset(int[])} before
+   * using it.
+   *
+   * @param net the compiled net
+   */
+  public EnabledSet(CompiledNet net) {
+    this.net = net;
+    int transitionCount = net.transitionCount();
+    this.enabled = new int[transitionCount];
+    this.position = new int[transitionCount];
+    this.changed = new int[transitionCount];
+    Arrays.fill(position, -1);
+  }
+
+  /**
+   * Creates a set initialized for the given marking.
+   *
+   * @param net     the compiled net
+   * @param marking the current marking
+   */
+  public EnabledSet(CompiledNet net, int[] marking) {
+    this(net);
+    reset(marking);
+  }
+
+  /**
+   * Recomputes the whole set for the given marking. Every transition whose
+   * status differs from the previous state is reported as changed.
+   *
+   * @param marking the current marking
+   */
+  public void reset(int[] marking) {
+    changedSize = 0;
+    for (int t = 0; t < net.transitionCount(); t++) {
+      recheck(t, marking);
+    }
+  }
+
+  /**
+   * Updates the set after transition {@code fired} has fired, re-checking only
+   * its dependent transitions.
+   *
+   * @param fired   the transition that fired
+   * @param marking the marking after the firing
+   */
+  public void update(int fired, int[] marking) {
+    changedSize = 0;
+    for (int k = 0, n = net.dependentCount(fired); k < n; k++) {
+      recheck(net.dependent(fired, k), marking);
+    }
+  }
+
+  private void recheck(int t, int[] marking) {
+    boolean isEnabled = net.isEnabled(t, marking);
+    boolean wasEnabled = position[t] >= 0;
+    if (isEnabled == wasEnabled) {
+      return;
+    }
+    int type = net.transitionType(t).ordinal();
+    if (isEnabled) {
+      position[t] = size;
+      enabled[size++] = t;
+      typeCounts[type]++;
+    } else {
+      int last = enabled[--size];
+      int hole = position[t];
+      enabled[hole] = last;
+      position[last] = hole;
+      position[t] = -1;
+      typeCounts[type]--;
+    }
+    changed[changedSize++] = t;
+  }
+
+  /**
+   * @param t transition index
+   * @return true if {@code t} is enabled
+   */
+  public boolean contains(int t) {
+    return position[t] >= 0;
+  }
+
+  /**
+   * @return number of enabled transitions
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return true if no transition is enabled (dead marking)
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns the {@code i}-th enabled transition. The order is unspecified and
+   * changes as transitions are added and removed.
+   */
+  public int get(int i) {
+    return enabled[i];
+  }
+
+  /**
+   * @param type transition type
+   * @return number of enabled transitions of that type
+   */
+  public int count(TRANSITION_TYPE type) {
+    return typeCounts[type.ordinal()];
+  }
+
+  /**
+   * @return number of transitions whose status changed during the last
+   *         {@link #reset(int[])} or {@link #update(int, int[])}
+   */
+  public int changedCount() {
+    return changedSize;
+  }
+
+  /**
+   * @return the {@code i}-th transition changed by the last update
+   */
+  public int changed(int i) {
+    return changed[i];
+  }
+
+  public CompiledNet getNet() {
+    return net;
+  }
+}
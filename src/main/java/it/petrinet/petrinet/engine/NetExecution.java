@@ -0,0 +1,104 @@
+package it.petrinet.petrinet.engine;
+
+import java.util.Arrays;
+
+/**
+ * A single run of the token game on a {@link CompiledNet}.
+ * <p>
+ * The execution owns its marking; the compiled net is shared and never
+ * modified, so any number of executions can run concurrently on the same net
+ * (one execution per thread).
+ * </p>
+ */
+public class NetExecution {
+
+  private final CompiledNet net;
+  private final int[] marking;
+
+  /**
+   * Creates an execution starting from the given marking.
+   *
+   * @param net     the compiled net
+   * @param marking initial marking, copied
+   */
+  public NetExecution(CompiledNet net, int[] marking) {
+    if (marking.length != net.placeCount()) {
+      throw new IllegalArgumentException(
+          "Marking has %d places, net has %d".formatted(marking.length, net.placeCount()));
+    }
+    this.net = net;
+    this.marking = marking.clone();
+  }
+
+  /**
+   * Creates an execution starting from the start marking of the net.
+   *
+   * @param net the compiled net
+   */
+  public NetExecution(CompiledNet net) {
+    this(net, net.startMarking());
+  }
+
+  /**
+   * @param t transition index
+   * @return true if {@code t} can fire in the current marking
+   */
+  public boolean enabled(int t) {
+    return net.isEnabled(t, marking);
+  }
+
+  /**
+   * Fires transition {@code t} if it is enabled.
+   *
+   * @param t transition index
+   * @return true if the transition fired, false if it was not enabled
+   */
+  public boolean fire(int t) {
+    if (!net.isEnabled(t, marking)) {
+      return false;
+    }
+    net.fire(t, marking);
+    return true;
+  }
+
+  /**
+   * @return true if the end place of the net holds at least one token
+   */
+  public boolean isFinished() {
+    int end = net.endPlace();
+    return end >= 0 && marking[end] > 0;
+  }
+
+  /**
+   * @param p place index
+   * @return tokens currently in place {@code p}
+   */
+  public int tokens(int p) {
+    return marking[p];
+  }
+
+  /**
+   * Replaces the current marking.
+   *
+   * @param newMarking the marking to copy
+   */
+  public void reset(int[] newMarking) {
+    System.arraycopy(newMarking, 0, marking, 0, marking.length);
+  }
+
+  /**
+   * @return a copy of the current marking
+   */
+  public int[] getMarking() {
+    return marking.clone();
+  }
+
+  public CompiledNet getNet() {
+    return net;
+  }
+
+  @Override
+  public String toString() {
+    return "NetExecution{net='%s', marking=%s}".formatted(net.getName(), Arrays.toString(marking));
+  }
+}
@@ -0,0 +1,30 @@
+package it.petrinet.petrinet.model;
+
+/**
+ * Kind of an arc. Inhibitor and reset arcs always go from a place to a
+ * transition:
+ * <ul>
+ * <li>{@link #NORMAL} consumes or produces its weight in tokens;</li>
+ * <li>{@link #INHIBITOR} enables the transition only while the place holds
+ * fewer tokens than its weight (with weight 1, only while it is empty) and
+ * consumes nothing;</li>
+ * <li>{@link #RESET} empties the place when the transition fires, without
+ * affecting enabling.</li>
+ * </ul>
+ */
+public enum ARC_TYPE {
+  NORMAL("normal"),
+  INHIBITOR("inhibitor"),
+  RESET("reset");
+
+  private final String value;
+
+  ARC_TYPE(String value) {
+    this.value = value;
+  }
+
+  @Override
+  public String toString() {
+    return value;
+  }
+}
@@ -4,10 +4,41 @@ public class Arc {
 
   private String from;
   private String to;
+  private int weight;
+  private ARC_TYPE type;
 
-  public Arc(String from, String to) {
+  /**
+   * Creates an arc of the given kind.
+   *
+   * @param from   name of the source node
+   * @param to     name of the target node
+   * @param weight number of tokens, at least 1; for an inhibitor arc the
+   *               number of tokens that disables the transition
+   * @param type   kind of the arc
+   */
+  public Arc(String from, String to, int weight, ARC_TYPE type) {
+    if (weight < 1) {
+      throw new IllegalArgumentException("Arc weight must be positive: " + weight);
+    }
     this.from = from;
     this.to = to;
+    this.weight = weight;
+    this.type = type;
+  }
+
+  /**
+   * Creates an arc consuming or producing {@code weight} tokens per firing.
+   *
+   * @param from   name of the source node
+   * @param to     name of the target node
+   * @param weight number of tokens, at least 1
+   */
+  public Arc(String from, String to, int weight) {
+    this(from, to, weight, ARC_TYPE.NORMAL);
+  }
+
+  public Arc(String from, String to) {
+    this(from, to, 1);
   }
 
   @Override
@@ -35,4 +66,23 @@ public class Arc {
     this.to = to;
   }
 
+  public int getWeight() {
+    return weight;
+  }
+
+  public void setWeight(int weight) {
+    if (weight < 1) {
+      throw new IllegalArgumentException("Arc weight must be positive: " + weight);
+    }
+    this.weight = weight;
+  }
+
+  public ARC_TYPE getType() {
+    return type;
+  }
+
+  public void setType(ARC_TYPE type) {
+    this.type = type;
+  }
+
 }
@@ -0,0 +1,347 @@
+package it.petrinet.petrinet.model;
+
+import it.petrinet.petrinet.IllegalConnectionException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of a {@link PetriNetModel}, returned by
+ * {@link PetriNetModel#freeze()}.
+ * <p>
+ * Places and transitions are numbered {@code 0..n-1} sorted by name, like in
+ * {@link it.petrinet.petrinet.engine.CompiledNet}, and everything is stored in
+ * arrays: names (interned, so snapshots of the same net share them), types,
+ * positions ({@code NaN} for a node without one) and arcs in compressed rows.
+ * The arcs leaving place {@code p} go to the transitions
+ * {@code placeArcTarget[placeArcStart[p] .. placeArcStart[p + 1])}, sorted by
+ * index, and the same layout is used for the arcs leaving transitions.
+ * </p>
+ * The structure is kept apart from the marking: the initial marking is only
+ * handed out as a copy, and {@link #toModel(int[])} rebuilds a mutable model
+ * with any marking. Instances are thread safe and can be shared by viewer
+ * panes, simulations and analyses without copying.
+ */
+public final class FrozenNet {
+
+  private final String name;
+
+  private final String[] placeNames;
+  private final PLACE_TYPE[] placeTypes;
+  private final double[] placeX;
+  private final double[] placeY;
+  private final int[] initialMarking;
+
+  private final String[] transitionNames;
+  private final TRANSITION_TYPE[] transitionTypes;
+  private final double[] transitionX;
+  private final double[] transitionY;
+
+  private final int[] placeArcStart;
+  private final int[] placeArcTarget;
+  private final int[] placeArcWeight;
+  private final ARC_TYPE[] placeArcType;
+  private final int[] transitionArcStart;
+  private final int[] transitionArcTarget;
+  private final int[] transitionArcWeight;
+
+  private final Map<String, Integer> placeIndex;
+  private final Map<String, Integer> transitionIndex;
+
+  private FrozenNet(PetriNetModel model) {
+    this.name = model.getName();
+
+    List<Place> places = new ArrayList<>();
+    List<Transition> transitions = new ArrayList<>();
+    for (Node node : model.getNodes()) {
+      if (node instanceof Place p) {
+        places.add(p);
+      } else if (node instanceof Transition t) {
+        transitions.add(t);
+      }
+    }
+    places.sort(Comparator.comparing(Node::getName));
+    transitions.sort(Comparator.comparing(Node::getName));
+
+    int placeCount = places.size();
+    placeNames = new String[placeCount];
+    placeTypes = new PLACE_TYPE[placeCount];
+    placeX = new double[placeCount];
+    placeY = new double[placeCount];
+    initialMarking = new int[placeCount];
+    Map<String, Integer> placesByName = new HashMap<>(placeCount * 2);
+    for (int p = 0; p < placeCount; p++) {
+      Place place = places.get(p);
+      placeNames[p] = place.getName().intern();
+      placeTypes[p] = place.getType();
+      placeX[p] = x(place);
+      placeY[p] = y(place);
+      initialMarking[p] = place.getPlaceTokens();
+      placesByName.put(placeNames[p], p);
+    }
+
+    int transitionCount = transitions.size();
+    transitionNames = new String[transitionCount];
+    transitionTypes = new TRANSITION_TYPE[transitionCount];
+    transitionX = new double[transitionCount];
+    transitionY = new double[transitionCount];
+    Map<String, Integer> transitionsByName = new HashMap<>(transitionCount * 2);
+    for (int t = 0; t < transitionCount; t++) {
+      Transition transition = transitions.get(t);
+      transitionNames[t] = transition.getName().intern();
+      transitionTypes[t] = transition.getType();
+      transitionX[t] = x(transition);
+      transitionY[t] = y(transition);
+      transitionsByName.put(transitionNames[t], t);
+    }
+    placeIndex = Map.copyOf(placesByName);
+    transitionIndex = Map.copyOf(transitionsByName);
+
+    placeArcStart = new int[placeCount + 1];
+    int count = 0;
+    for (int p = 0; p < placeCount; p++) {
+      placeArcStart[p] = count;
+      count += model.getSuccessors(places.get(p)).size();
+    }
+    placeArcStart[placeCount] = count;
+    placeArcTarget = new int[count];
+    placeArcWeight = new int[count];
+    placeArcType = new ARC_TYPE[count];
+    for (int p = 0; p < placeCount; p++) {
+      Place place = places.get(p);
+      int[] targets = sortedTargets(model.getSuccessors(place), transitionIndex);
+      for (int k = 0; k < targets.length; k++) {
+        Transition transition = transitions.get(targets[k]);
+        int arc = placeArcStart[p] + k;
+        placeArcTarget[arc] = targets[k];
+        placeArcWeight[arc] = model.getWeight(place, transition);
+        placeArcType[arc] = model.getArcType(place, transition);
+      }
+    }
+
+    transitionArcStart = new int[transitionCount + 1];
+    count = 0;
+    for (int t = 0; t < transitionCount; t++) {
+      transitionArcStart[t] = count;
+      count += model.getSuccessors(transitions.get(t)).size();
+    }
+    transitionArcStart[transitionCount] = count;
+    transitionArcTarget = new int[count];
+    transitionArcWeight = new int[count];
+    for (int t = 0; t < transitionCount; t++) {
+      Transition transition = transitions.get(t);
+      int[] targets = sortedTargets(model.getSuccessors(transition), placeIndex);
+      for (int k = 0; k < targets.length; k++) {
+        int arc = transitionArcStart[t] + k;
+        transitionArcTarget[arc] = targets[k];
+        transitionArcWeight[arc] = model.getWeight(transition, places.get(targets[k]));
+      }
+    }
+  }
+
+  /**
+   * Takes a snapshot of the current state of a model.
+   */
+  static FrozenNet of(PetriNetModel model) {
+    return new FrozenNet(model);
+  }
+
+  private static int[] sortedTargets(List<Node> successors, Map<String, Integer> index) {
+    int[] targets = new int[successors.size()];
+    for (int k = 0; k < targets.length; k++) {
+      targets[k] = index.get(successors.get(k).getName());
+    }
+    Arrays.sort(targets);
+    return targets;
+  }
+
+  private static double x(Node node) {
+    return node.getPosition() == null ? Double.NaN : node.getPosition().getX();
+  }
+
+  private static double y(Node node) {
+    return node.getPosition() == null ? Double.NaN : node.getPosition().getY();
+  }
+
+  /**
+   * Rebuilds a mutable model with the initial marking of the snapshot.
+   *
+   * @return a new model, sharing nothing with the snapshot
+   */
+  public PetriNetModel toModel() {
+    return toModel(initialMarking);
+  }
+
+  /**
+   * Rebuilds a mutable model with the given marking.
+   *
+   * @param marking tokens of every place, indexed like the places of the
+   *                snapshot
+   * @return a new model, sharing nothing with the snapshot
+   */
+  public PetriNetModel toModel(int[] marking) {
+    if (marking.length != placeNames.length) {
+      throw new IllegalArgumentException("Expected a marking of " + placeNames.length + " places");
+    }
+    PetriNetModel model = new PetriNetModel(name);
+    Place[] places = new Place[placeNames.length];
+    for (int p = 0; p < places.length; p++) {
+      places[p] = new Place(placeNames[p], position(placeX[p], placeY[p]), placeTypes[p], marking[p]);
+      model.addNode(places[p]);
+    }
+    Transition[] transitions = new Transition[transitionNames.length];
+    for (int t = 0; t < transitions.length; t++) {
+      transitions[t] = new Transition(transitionNames[t], position(transitionX[t], transitionY[t]),
+          transitionTypes[t], false);
+      model.addNode(transitions[t]);
+    }
+    try {
+      for (int p = 0; p < places.length; p++) {
+        for (int arc = placeArcStart[p]; arc < placeArcStart[p + 1]; arc++) {
+          model.addArc(places[p], transitions[placeArcTarget[arc]], placeArcWeight[arc], placeArcType[arc]);
+        }
+      }
+      for (int t = 0; t < transitions.length; t++) {
+        for (int arc = transitionArcStart[t]; arc < transitionArcStart[t + 1]; arc++) {
+          model.addArc(transitions[t], places[transitionArcTarget[arc]], transitionArcWeight[arc]);
+        }
+      }
+    } catch (IllegalConnectionException e) {
+      // the arcs come from a valid model
+      throw new IllegalStateException(e);
+    }
+    return model;
+  }
+
+  private static Position position(double x, double y) {
+    return Double.isNaN(x) ? null : new Position(x, y);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int placeCount() {
+    return placeNames.length;
+  }
+
+  public int transitionCount() {
+    return transitionNames.length;
+  }
+
+  /**
+   * @return index of the place, or -1 if the net has no such place
+   */
+  public int placeIndex(String placeName) {
+    return placeIndex.getOrDefault(placeName, -1);
+  }
+
+  /**
+   * @return index of the transition, or -1 if the net has no such transition
+   */
+  public int transitionIndex(String transitionName) {
+    return transitionIndex.getOrDefault(transitionName, -1);
+  }
+
+  public String placeName(int p) {
+    return placeNames[p];
+  }
+
+  public PLACE_TYPE placeType(int p) {
+    return placeTypes[p];
+  }
+
+  /**
+   * @return x coordinate of the place, {@code NaN} if it has no position
+   */
+  public double placeX(int p) {
+    return placeX[p];
+  }
+
+  /**
+   * @return y coordinate of the place, {@code NaN} if it has no position
+   */
+  public double placeY(int p) {
+    return placeY[p];
+  }
+
+  public String transitionName(int t) {
+    return transitionNames[t];
+  }
+
+  public TRANSITION_TYPE transitionType(int t) {
+    return transitionTypes[t];
+  }
+
+  /**
+   * @return x coordinate of the transition, {@code NaN} if it has no position
+   */
+  public double transitionX(int t) {
+    return transitionX[t];
+  }
+
+  /**
+   * @return y coordinate of the transition, {@code NaN} if it has no position
+   */
+  public double transitionY(int t) {
+    return transitionY[t];
+  }
+
+  /**
+   * @return the tokens of every place when the snapshot was taken, as a new
+   *         array
+   */
+  public int[] initialMarking() {
+    return initialMarking.clone();
+  }
+
+  /**
+   * @return number of arcs leaving place {@code p}, of any kind
+   */
+  public int placeArcCount(int p) {
+    return placeArcStart[p + 1] - placeArcStart[p];
+  }
+
+  /**
+   * @return transition reached by the {@code k}-th arc leaving place {@code p}
+   */
+  public int placeArcTarget(int p, int k) {
+    return placeArcTarget[placeArcStart[p] + k];
+  }
+
+  public int placeArcWeight(int p, int k) {
+    return placeArcWeight[placeArcStart[p] + k];
+  }
+
+  public ARC_TYPE placeArcType(int p, int k) {
+    return placeArcType[placeArcStart[p] + k];
+  }
+
+  /**
+   * @return number of arcs leaving transition {@code t}
+   */
+  public int transitionArcCount(int t) {
+    return transitionArcStart[t + 1] - transitionArcStart[t];
+  }
+
+  /**
+   * @return place reached by the {@code k}-th arc leaving transition
+   *         {@code t}
+   */
+  public int transitionArcTarget(int t, int k) {
+    return transitionArcTarget[transitionArcStart[t] + k];
+  }
+
+  public int transitionArcWeight(int t, int k) {
+    return transitionArcWeight[transitionArcStart[t] + k];
+  }
+
+  @Override
+  public String toString() {
+    return "FrozenNet[" + name + ", " + placeNames.length + " places, " + transitionNames.length + " transitions]";
+  }
+}
@@ -0,0 +1,278 @@
+package it.petrinet.petrinet.model;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable token distribution over the places of a net.
+ * <p>
+ * Tokens are a plain {@code int[]} indexed by place, next to the array of the
+ * place names. The names belong to the structure of the net and are shared by
+ * every marking of it, e.g. all the markings made by
+ * {@link it.petrinet.petrinet.engine.CompiledNet#marking(int[])}, so a marking
+ * costs little more than its tokens and any number of computations can run on
+ * one parsed net. Copies share the names and clone the tokens only.
+ * </p>
+ * Two markings are equal when every place has the same number of tokens in
+ * both, places missing from one of them counting as empty, so a marking
+ * parsed from a computation step, which lists only some places, equals the
+ * same marking over all the places of the net. The string form is the one
+ * stored by computation steps: {@code "place1:count1,place2:count2,..."},
+ * empty places omitted.
+ */
+public final class Marking {
+
+  private static final Marking EMPTY = new Marking(new String[0], new int[0]);
+
+  private final String[] places;
+  private final int[] tokens;
+  private int hash;
+
+  private Marking(String[] places, int[] tokens) {
+    this.places = places;
+    this.tokens = tokens;
+  }
+
+  /**
+   * Creates a marking over the given places. The array of names is shared and
+   * must not be modified afterwards; the tokens are copied.
+   *
+   * @param places name of every place
+   * @param tokens tokens of every place, indexed like {@code places}
+   * @return the marking
+   * @throws IllegalArgumentException if the arrays differ in length or a count
+   *                                  is negative
+   */
+  public static Marking of(String[] places, int[] tokens) {
+    if (places.length != tokens.length) {
+      throw new IllegalArgumentException("Expected " + places.length + " token counts, got " + tokens.length);
+    }
+    for (int count : tokens) {
+      if (count < 0) {
+        throw new IllegalArgumentException("Negative token count in marking: " + count);
+      }
+    }
+    return new Marking(places, tokens.clone());
+  }
+
+  /**
+   * Creates a marking from place names and token counts.
+   *
+   * @param tokens place name to token count
+   * @return the marking, over the places of the map
+   */
+  public static Marking of(Map<String, Integer> tokens) {
+    String[] places = new String[tokens.size()];
+    int[] counts = new int[tokens.size()];
+    int p = 0;
+    for (Map.Entry<String, Integer> entry : tokens.entrySet()) {
+      places[p] = entry.getKey();
+      counts[p] = entry.getValue();
+      p++;
+    }
+    return of(places, counts);
+  }
+
+  /**
+   * @return the marking without places
+   */
+  public static Marking empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Parses the string form of a marking, {@code "place1:count1,..."}.
+   *
+   * @param markingState the string form, null or blank for the empty marking
+   * @return the marking, over the places listed
+   * @throws IllegalArgumentException if the string is malformed
+   */
+  public static Marking parse(String markingState) {
+    if (markingState == null || markingState.trim().isEmpty()) {
+      return EMPTY;
+    }
+    Map<String, Integer> tokens = new LinkedHashMap<>();
+    for (String pair : markingState.split(",")) {
+      String[] parts = pair.split(":");
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("Invalid marking state format: " + markingState);
+      }
+      int count;
+      try {
+        count = Integer.parseInt(parts[1].trim());
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid count in marking state: " + parts[1]);
+      }
+      tokens.put(parts[0].trim(), count);
+    }
+    return of(tokens);
+  }
+
+  /**
+   * @return number of places of the marking
+   */
+  public int size() {
+    return places.length;
+  }
+
+  public String placeName(int p) {
+    return places[p];
+  }
+
+  /**
+   * @return tokens in place {@code p}
+   */
+  public int tokens(int p) {
+    return tokens[p];
+  }
+
+  /**
+   * Looks a place up by name, scanning the places: prefer
+   * {@link #tokens(int)} in loops.
+   *
+   * @return tokens in the place, 0 if the marking does not have it
+   */
+  public int tokens(String place) {
+    for (int p = 0; p < places.length; p++) {
+      if (places[p].equals(place)) {
+        return tokens[p];
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * @return total number of tokens
+   */
+  public int total() {
+    int total = 0;
+    for (int count : tokens) {
+      total += count;
+    }
+    return total;
+  }
+
+  /**
+   * @return true if the marking is over the same array of place names, in
+   *         which case the token arrays can be compared index by index
+   */
+  public boolean hasSamePlaces(Marking other) {
+    return places == other.places;
+  }
+
+  /**
+   * @return the tokens of every place, as a new array
+   */
+  public int[] toArray() {
+    return tokens.clone();
+  }
+
+  /**
+   * @return a marking with {@code count} tokens in place {@code p} and the
+   *         tokens of this one everywhere else
+   */
+  public Marking with(int p, int count) {
+    if (count < 0) {
+      throw new IllegalArgumentException("Negative token count in marking: " + count);
+    }
+    int[] copy = tokens.clone();
+    copy[p] = count;
+    return new Marking(places, copy);
+  }
+
+  /**
+   * Returns the places whose tokens differ in another marking.
+   *
+   * @param other the marking to compare with
+   * @return place name to token change from this marking to {@code other},
+   *         only for the places that changed
+   */
+  public Map<String, Integer> diff(Marking other) {
+    Map<String, Integer> changes = new LinkedHashMap<>();
+    if (hasSamePlaces(other)) {
+      for (int p = 0; p < tokens.length; p++) {
+        if (tokens[p] != other.tokens[p]) {
+          changes.put(places[p], other.tokens[p] - tokens[p]);
+        }
+      }
+      return changes;
+    }
+    Map<String, Integer> mine = toMap();
+    Map<String, Integer> theirs = other.toMap();
+    mine.forEach((place, count) -> {
+      int change = theirs.getOrDefault(place, 0) - count;
+      if (change != 0) {
+        changes.put(place, change);
+      }
+    });
+    theirs.forEach((place, count) -> {
+      if (!mine.containsKey(place)) {
+        changes.put(place, count);
+      }
+    });
+    return changes;
+  }
+
+  /**
+   * @return place name to token count; empty places are omitted
+   */
+  public Map<String, Integer> toMap() {
+    Map<String, Integer> result = new LinkedHashMap<>();
+    for (int p = 0; p < tokens.length; p++) {
+      if (tokens[p] != 0) {
+        result.put(places[p], tokens[p]);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Marking other)) {
+      return false;
+    }
+    if (hasSamePlaces(other)) {
+      return Arrays.equals(tokens, other.tokens);
+    }
+    return toMap().equals(other.toMap());
+  }
+
+  /**
+   * Same as the hash of {@link #toMap()}, so it does not depend on the places
+   * the marking is over.
+   */
+  @Override
+  public int hashCode() {
+    int h = hash;
+    if (h == 0) {
+      for (int p = 0; p < tokens.length; p++) {
+        if (tokens[p] != 0) {
+          h += places[p].hashCode() ^ tokens[p];
+        }
+      }
+      hash = h;
+    }
+    return h;
+  }
+
+  /**
+   * @return the string form, {@code "place1:count1,..."}, empty places omitted
+   */
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    for (int p = 0; p < tokens.length; p++) {
+      if (tokens[p] != 0) {
+        if (!sb.isEmpty()) {
+          sb.append(",");
+        }
+        sb.append(places[p]).append(":").append(tokens[p]);
+      }
+    }
+    return sb.toString();
+  }
+}
@@ -1,13 +1,9 @@
 package it.petrinet.petrinet.model;
 
-import com.brunomnsilva.smartgraph.graphview.SmartLabelSource;
-import com.brunomnsilva.smartgraph.graphview.SmartShapeTypeSource;
-import javafx.geometry.Point2D;
-
 public abstract class Node {
 
   private String name;
-  private Point2D position;
+  private Position position;
 
   /**
    * Set node name, used as well for label
@@ -15,7 +11,7 @@ public abstract class Node {
    * @param name
    * @param position
    */
-  public Node(String name, Point2D position) {
+  public Node(String name, Position position) {
     if (name.isBlank()) {
       throw new IllegalArgumentException("Name can't be empty");
     }
@@ -27,7 +23,7 @@ public abstract class Node {
    * @param name
    */
   public Node(String name) {
-    this(name, new Point2D(0, 0));
+    this(name, Position.ORIGIN);
   }
 
   /**
@@ -40,7 +36,7 @@ public abstract class Node {
   /**
    * @return
    */
-  public Point2D getPosition() {
+  public Position getPosition() {
     return position;
   }
 
@@ -49,7 +45,7 @@ public abstract class Node {
    *
    * @param position
    */
-  public void updatePosition(Point2D position) {
+  public void updatePosition(Position position) {
     this.position = position;
   }
 
@@ -58,7 +54,7 @@ public abstract class Node {
    *
    * @param position
    */
-  public void setPosition(Point2D position) {
+  public void setPosition(Position position) {
     this.position = position;
   }
 
@@ -67,18 +63,17 @@ public abstract class Node {
    * 
    * @return the name of the node
    */
-  @SmartLabelSource
   final public String getName() {
     return this.name;
   }
 
   /*
-   * Establishes the shape of the vertex to use when representing the net.
+   * Establishes the shape of the vertex to use when representing the net,
+   * handed to the graph panel by the view layer.
    * 
    * @return the name of the shape, see {@link
    * com.brunomnsilva.smartgraph.graphview.ShapeFactory}
    */
-  @SmartShapeTypeSource
   public abstract String modelShape();
 
   // Additional method for compatibility with CustomVertex
@@ -6,17 +6,57 @@ import java.util.*;
 
 /**
  * Represents a Petri net model with nodes and arcs.
- * Maintains an adjacency list to represent the connections between nodes.
+ * Maintains an adjacency list to represent the connections between nodes, with
+ * one entry per connected pair, and the weight of every arc. Adding an arc
+ * between an already connected pair adds to its weight, so parallel arcs
+ * behave as a single weighted arc. Inhibitor and reset arcs are stored in the
+ * same adjacency list, with their {@link ARC_TYPE} kept apart; a pair of nodes
+ * is connected by at most one arc, of a single kind.
+ * <p>
+ * Nodes are indexed by name, so lookups by name take constant time, and get a
+ * dense int id in the order they are added, usable to index arrays. The
+ * reverse adjacency is kept next to the forward one, so pre-sets cost as much
+ * as post-sets, and the start and finish places are cached. Pre-sets and
+ * post-sets are also kept as rows of ids, read through
+ * {@link #getPresetSize(int)} and {@link #getPresetId(int, int)} without
+ * boxing or allocating.
+ * </p>
  */
 public class PetriNetModel {
   private String name;
   private Map<Node, List<Node>> adjacencyList;
+  private Map<Node, List<Node>> predecessors;
+  private Map<Node, Map<Node, Integer>> weights;
+  private Map<Node, Map<Node, ARC_TYPE>> arcTypes;
+  private Map<String, Node> nodesByName;
+  private Map<Node, Integer> ids;
+  private List<Node> nodesById;
+  private IdRows presetIds;
+  private IdRows postsetIds;
+  private Place startNode;
+  private Place finishNode;
 
   /**
    * Constructs an empty PetriNetModel.
    */
   public PetriNetModel() {
     this.adjacencyList = new HashMap<>();
+    this.predecessors = new HashMap<>();
+    this.weights = new HashMap<>();
+    this.arcTypes = new HashMap<>();
+    this.nodesByName = new HashMap<>();
+    this.ids = new HashMap<>();
+    this.nodesById = new ArrayList<>();
+    this.presetIds = new IdRows();
+    this.postsetIds = new IdRows();
+  }
+
+  /**
+   * Constructs an empty PetriNetModel with a name, filled node by node.
+   */
+  PetriNetModel(String name) {
+    this();
+    this.name = name;
   }
 
   /**
@@ -38,12 +78,13 @@ public class PetriNetModel {
     }
 
     Map<Node, Boolean> allNodes = new HashMap<>();
-    for (Place node : places) {
-      addNode(node);
-      allNodes.put(node, false);
-    }
-
-    for (Node node : transition) {
+    List<Node> nodes = new ArrayList<>(places.size() + transition.size());
+    nodes.addAll(places);
+    nodes.addAll(transition);
+    for (Node node : nodes) {
+      if (nodesByName.containsKey(node.getName()) && nodesByName.get(node.getName()) != node) {
+        throw new IllegalConnectionException("Duplicate node name: %s".formatted(node.getName()));
+      }
       addNode(node);
       allNodes.put(node, false);
     }
@@ -51,6 +92,8 @@ public class PetriNetModel {
     if (!adjacencyList.containsKey(startNode) || !adjacencyList.containsKey(finishNode)) {
       throw new IllegalConnectionException("Start node or finish node are not present in the petri net nodes");
     }
+    this.startNode = startNode;
+    this.finishNode = finishNode;
 
     for (Arc arc : arcs) {
       Node fromNode = getNodeByName(arc.getFrom());
@@ -69,7 +112,7 @@ public class PetriNetModel {
 
       allNodes.put(fromNode, true);
       allNodes.put(toNode, true);
-      addArc(arc.getFrom(), arc.getTo());
+      addArc(fromNode, toNode, arc.getWeight(), arc.getType());
     }
     if (!allNodes.values().stream().allMatch(t -> t)) {
       System.out.println("All nodes are connected: " + allNodes);
@@ -81,50 +124,141 @@ public class PetriNetModel {
     return this.name;
   }
 
+  /**
+   * Returns the start place. The place is cached, and searched again only if
+   * its type was changed since.
+   *
+   * @return the start place, or null if the net has none
+   */
   public Node getStartNode() {
-    return adjacencyList.keySet().stream().filter(n -> {
-      if (n instanceof Place p) {
-        return p.getType().equals(PLACE_TYPE.START);
-      }
-      return false;
-    }).findFirst().orElse(null);
+    if (startNode == null || startNode.getType() != PLACE_TYPE.START) {
+      startNode = findPlace(PLACE_TYPE.START);
+    }
+    return startNode;
   }
 
+  /**
+   * Returns the finish place. The place is cached, and searched again only if
+   * its type was changed since.
+   *
+   * @return the finish place, or null if the net has none
+   */
   public Node getFinishNode() {
-    return adjacencyList.keySet().stream().filter(n -> {
-      if (n instanceof Place p) {
-        return p.getType().equals(PLACE_TYPE.END);
+    if (finishNode == null || finishNode.getType() != PLACE_TYPE.END) {
+      finishNode = findPlace(PLACE_TYPE.END);
+    }
+    return finishNode;
+  }
+
+  private Place findPlace(PLACE_TYPE type) {
+    for (Node n : nodesById) {
+      if (n instanceof Place p && p.getType() == type) {
+        return p;
       }
-      return false;
-    }).findFirst().orElse(null);
+    }
+    return null;
   }
 
   /**
-   * Adds a node to the Petri net.
+   * Adds a node to the Petri net, giving it the next free id. Adding a node
+   * already in the net does nothing.
    * 
    * @param node the node to add
+   * @throws IllegalArgumentException if another node has the same name
    */
   public void addNode(Node node) {
-    adjacencyList.putIfAbsent(node, new ArrayList<>());
+    if (adjacencyList.containsKey(node)) {
+      return;
+    }
+    Node previous = nodesByName.putIfAbsent(node.getName(), node);
+    if (previous != null) {
+      throw new IllegalArgumentException("Duplicate node name in the net model: " + node.getName());
+    }
+    adjacencyList.put(node, new ArrayList<>());
+    predecessors.put(node, new ArrayList<>());
+    ids.put(node, nodesById.size());
+    nodesById.add(node);
+    presetIds.addRow();
+    postsetIds.addRow();
+    if (node instanceof Place p) {
+      if (startNode == null && p.getType() == PLACE_TYPE.START) {
+        startNode = p;
+      } else if (finishNode == null && p.getType() == PLACE_TYPE.END) {
+        finishNode = p;
+      }
+    }
   }
 
   /**
-   * Adds an arc from one node to another if they are compatible.
+   * Adds an arc of weight 1 from one node to another if they are compatible.
    * 
    * @param from the source node
    * @param to   the destination node
    * @throws IllegalConnectionException if the nodes are not compatible
    */
   public void addArc(Node from, Node to) throws IllegalConnectionException {
+    addArc(from, to, 1);
+  }
+
+  /**
+   * Adds a weighted arc from one node to another if they are compatible. If
+   * the nodes are already connected the weight is added to the existing arc.
+   * 
+   * @param from   the source node
+   * @param to     the destination node
+   * @param weight tokens consumed or produced per firing, at least 1
+   * @throws IllegalConnectionException if the nodes are not compatible
+   */
+  public void addArc(Node from, Node to, int weight) throws IllegalConnectionException {
+    addArc(from, to, weight, ARC_TYPE.NORMAL);
+  }
+
+  /**
+   * Adds an arc of the given kind. Normal arcs between an already connected
+   * pair add to its weight; inhibitor and reset arcs must go from a place to a
+   * transition that are not connected yet. Reset arcs always have weight 1.
+   *
+   * @param from   the source node
+   * @param to     the destination node
+   * @param weight tokens consumed or produced per firing, or the threshold of
+   *               an inhibitor arc, at least 1
+   * @param type   the kind of arc
+   * @throws IllegalConnectionException if the nodes are not compatible or
+   *                                    already connected by an arc of another
+   *                                    kind
+   */
+  public void addArc(Node from, Node to, int weight, ARC_TYPE type) throws IllegalConnectionException {
+    if (weight < 1) {
+      throw new IllegalConnectionException("Arc weight must be positive: %s->%s".formatted(from, to));
+    }
     if (!areCompatible(from, to)) {
       throw new IllegalConnectionException("Nodes %s->%s are not compatible for connection".formatted(from, to));
     }
     if (!adjacencyList.containsKey(from) || !adjacencyList.containsKey(to)) {
       throw new IllegalConnectionException("from node or to node are not present in the net model");
     }
-    adjacencyList.putIfAbsent(from, new ArrayList<>());
-    adjacencyList.putIfAbsent(to, new ArrayList<>());
-    adjacencyList.get(from).add(to);
+    if (type != ARC_TYPE.NORMAL && !(from instanceof Place)) {
+      throw new IllegalConnectionException("A %s arc must go from a place to a transition: %s->%s".formatted(
+          type, from, to));
+    }
+    boolean connected = getWeight(from, to) > 0;
+    if (connected && (type != ARC_TYPE.NORMAL || getArcType(from, to) != ARC_TYPE.NORMAL)) {
+      throw new IllegalConnectionException("Nodes %s->%s are already connected by a %s arc".formatted(
+          from, to, getArcType(from, to)));
+    }
+    if (type != ARC_TYPE.NORMAL) {
+      arcTypes.computeIfAbsent(from, k -> new HashMap<>()).put(to, type);
+      if (type == ARC_TYPE.RESET) {
+        weight = 1;
+      }
+    }
+    Map<Node, Integer> fromWeights = weights.computeIfAbsent(from, k -> new HashMap<>());
+    if (fromWeights.merge(to, weight, Integer::sum) == weight) {
+      adjacencyList.get(from).add(to);
+      predecessors.get(to).add(from);
+      postsetIds.add(ids.get(from), ids.get(to));
+      presetIds.add(ids.get(to), ids.get(from));
+    }
   }
 
   /**
@@ -140,6 +274,37 @@ public class PetriNetModel {
     addArc(fromNode, toNode);
   }
 
+  /**
+   * Returns the weight of the arc between two nodes.
+   *
+   * @param from the source node
+   * @param to   the destination node
+   * @return the weight, or 0 if the nodes are not connected
+   */
+  public int getWeight(Node from, Node to) {
+    Map<Node, Integer> fromWeights = weights.get(from);
+    if (fromWeights == null) {
+      return 0;
+    }
+    return fromWeights.getOrDefault(to, 0);
+  }
+
+  /**
+   * Returns the kind of the arc between two nodes.
+   *
+   * @param from the source node
+   * @param to   the destination node
+   * @return the kind, {@link ARC_TYPE#NORMAL} also if the nodes are not
+   *         connected
+   */
+  public ARC_TYPE getArcType(Node from, Node to) {
+    Map<Node, ARC_TYPE> fromTypes = arcTypes.get(from);
+    if (fromTypes == null) {
+      return ARC_TYPE.NORMAL;
+    }
+    return fromTypes.getOrDefault(to, ARC_TYPE.NORMAL);
+  }
+
   /**
    * Returns the list of successor nodes for a given node.
    * 
@@ -150,6 +315,55 @@ public class PetriNetModel {
     return adjacencyList.getOrDefault(node, Collections.emptyList());
   }
 
+  /**
+   * Returns the list of predecessor nodes for a given node, the pre-set of a
+   * transition or the transitions producing into a place.
+   *
+   * @param node the node whose predecessors are to be returned
+   * @return list of predecessor nodes
+   */
+  public List<Node> getPredecessors(Node node) {
+    return predecessors.getOrDefault(node, Collections.emptyList());
+  }
+
+  /**
+   * @param id the id of a node
+   * @return number of nodes with an arc to it
+   * @see #getId(Node)
+   */
+  public int getPresetSize(int id) {
+    return presetIds.size(id);
+  }
+
+  /**
+   * @param id the id of a node
+   * @param k  index in the pre-set, from 0 to {@link #getPresetSize(int)} - 1
+   * @return id of the {@code k}-th node with an arc to it, in the order the
+   *         arcs were added
+   */
+  public int getPresetId(int id, int k) {
+    return presetIds.get(id, k);
+  }
+
+  /**
+   * @param id the id of a node
+   * @return number of nodes it has an arc to
+   * @see #getId(Node)
+   */
+  public int getPostsetSize(int id) {
+    return postsetIds.size(id);
+  }
+
+  /**
+   * @param id the id of a node
+   * @param k  index in the post-set, from 0 to {@link #getPostsetSize(int)} - 1
+   * @return id of the {@code k}-th node it has an arc to, in the order the
+   *         arcs were added
+   */
+  public int getPostsetId(int id, int k) {
+    return postsetIds.get(id, k);
+  }
+
   /**
    * Returns the set of all nodes in the Petri net.
    * 
@@ -159,6 +373,38 @@ public class PetriNetModel {
     return adjacencyList.keySet();
   }
 
+  /**
+   * @return number of nodes, places and transitions together
+   */
+  public int getNodeCount() {
+    return nodesById.size();
+  }
+
+  /**
+   * Returns the id of a node: ids go from 0 to {@link #getNodeCount()} - 1 in
+   * the order the nodes were added.
+   *
+   * @param node the node
+   * @return its id
+   * @throws IllegalArgumentException if the node is not in the net
+   */
+  public int getId(Node node) {
+    Integer id = ids.get(node);
+    if (id == null) {
+      throw new IllegalArgumentException("Node " + node + " is not present in the model.");
+    }
+    return id;
+  }
+
+  /**
+   * @param id a node id
+   * @return the node with that id
+   * @throws IndexOutOfBoundsException if no node has that id
+   */
+  public Node getNode(int id) {
+    return nodesById.get(id);
+  }
+
   @Override
   public String toString() {
     StringBuilder sb = new StringBuilder();
@@ -181,6 +427,80 @@ public class PetriNetModel {
     return sb.toString();
   }
 
+  /**
+   * Takes an immutable snapshot of this net, safe to share between threads.
+   * Later changes to the net, its tokens or its positions do not affect the
+   * snapshot.
+   *
+   * @return the snapshot
+   */
+  public FrozenNet freeze() {
+    return FrozenNet.of(this);
+  }
+
+  /**
+   * Returns a deep copy of this net. Nodes are duplicated, so tokens, types and
+   * positions of the copy can be changed without affecting this net.
+   *
+   * @return the copy
+   */
+  public PetriNetModel copy() {
+    return copy(name);
+  }
+
+  /**
+   * Returns a deep copy of this net under another name.
+   *
+   * @param name the name of the copy
+   * @return the copy
+   */
+  public PetriNetModel copy(String name) {
+    PetriNetModel copy = new PetriNetModel();
+    copy.name = name;
+    Map<Node, Node> copies = new HashMap<>(adjacencyList.size() * 2);
+    for (Node node : nodesById) {
+      Node nodeCopy = null;
+      if (node instanceof Place p) {
+        nodeCopy = new Place(p.getName(), p.getPosition(), p.getType(), p.getPlaceTokens());
+      } else if (node instanceof Transition t) {
+        nodeCopy = new Transition(t.getName(), t.getPosition(), t.getType(), t.getIsReadyToFire());
+      }
+      copies.put(node, nodeCopy);
+      copy.addNode(nodeCopy);
+    }
+    for (Map.Entry<Node, List<Node>> entry : adjacencyList.entrySet()) {
+      Node from = copies.get(entry.getKey());
+      List<Node> successors = new ArrayList<>(entry.getValue().size());
+      Map<Node, Integer> successorWeights = new HashMap<>();
+      Map<Node, ARC_TYPE> successorTypes = new HashMap<>();
+      for (Node successor : entry.getValue()) {
+        successors.add(copies.get(successor));
+        successorWeights.put(copies.get(successor), getWeight(entry.getKey(), successor));
+        ARC_TYPE type = getArcType(entry.getKey(), successor);
+        if (type != ARC_TYPE.NORMAL) {
+          successorTypes.put(copies.get(successor), type);
+        }
+      }
+      copy.adjacencyList.put(from, successors);
+      if (!successorWeights.isEmpty()) {
+        copy.weights.put(from, successorWeights);
+      }
+      if (!successorTypes.isEmpty()) {
+        copy.arcTypes.put(from, successorTypes);
+      }
+    }
+    for (Map.Entry<Node, List<Node>> entry : predecessors.entrySet()) {
+      List<Node> copyPredecessors = copy.predecessors.get(copies.get(entry.getKey()));
+      for (Node predecessor : entry.getValue()) {
+        copyPredecessors.add(copies.get(predecessor));
+      }
+    }
+    // the copy numbers its nodes in the same order, so the id rows carry over
+    copy.presetIds = presetIds.copy();
+    copy.postsetIds = postsetIds.copy();
+    return copy;
+  }
+
   /**
    * Returns the adjacencyList.
    * 
@@ -197,25 +517,11 @@ public class PetriNetModel {
    * @return the node with the specified name
    */
   public Node getNodeByName(String name) {
-    Node n = null;
-
-    try {
-      n = adjacencyList.keySet().stream().filter(e -> e.getName().equals(name)).findFirst().get();
-    } catch (Exception e) {
-      throw new IllegalArgumentException("Node with name " + name + " is not a valid Place or Transition or is not present in the model.");
-    }
-
+    Node n = nodesByName.get(name);
     if (n == null) {
-      throw new IllegalArgumentException("Node with name " + name + " is not a valid Place or Transition.");
-    }
-
-    if (n instanceof Place p) {
-      return p;
-    } else if (n instanceof Transition t) {
-      return t;
-    } else {
-      throw new IllegalArgumentException("Node with name " + name + " is not a valid Place or Transition.");
+      throw new IllegalArgumentException("Node with name " + name + " is not a valid Place or Transition or is not present in the model.");
     }
+    return n;
   }
 
   /**
@@ -230,4 +536,60 @@ public class PetriNetModel {
         (from instanceof Transition && to instanceof Place);
   }
 
+
+  /** Growable rows of node ids, one per node id. */
+  private static final class IdRows {
+    private static final int[] EMPTY = new int[0];
+
+    private int[][] rows = new int[16][];
+    private int[] sizes = new int[16];
+    private int count;
+
+    void addRow() {
+      if (count == rows.length) {
+        rows = Arrays.copyOf(rows, count * 2);
+        sizes = Arrays.copyOf(sizes, count * 2);
+      }
+      rows[count++] = EMPTY;
+    }
+
+    void add(int row, int id) {
+      int[] values = rows[row];
+      if (sizes[row] == values.length) {
+        values = Arrays.copyOf(values, Math.max(4, values.length * 2));
+        rows[row] = values;
+      }
+      values[sizes[row]++] = id;
+    }
+
+    int size(int row) {
+      checkRow(row);
+      return sizes[row];
+    }
+
+    int get(int row, int k) {
+      checkRow(row);
+      if (k < 0 || k >= sizes[row]) {
+        throw new IndexOutOfBoundsException("Index " + k + " out of bounds for length " + sizes[row]);
+      }
+      return rows[row][k];
+    }
+
+    private void checkRow(int row) {
+      if (row < 0 || row >= count) {
+        throw new IndexOutOfBoundsException("No node with id " + row);
+      }
+    }
+
+    IdRows copy() {
+      IdRows copy = new IdRows();
+      copy.rows = new int[rows.length][];
+      for (int row = 0; row < count; row++) {
+        copy.rows[row] = Arrays.copyOf(rows[row], sizes[row]);
+      }
+      copy.sizes = sizes.clone();
+      copy.count = count;
+      return copy;
+    }
+  }
 }
@@ -1,8 +1,5 @@
 package it.petrinet.petrinet.model;
 
-import com.brunomnsilva.smartgraph.graphview.SmartShapeTypeSource;
-import javafx.geometry.Point2D;
-
 /**
  * Represents a place (node) in a Petri net.
  * A Place can hold tokens and has a specific type (e.g., START, END, or
@@ -24,7 +21,7 @@ public class Place extends Node {
    * @param type     the type of the place (e.g., START, FINISH)
    * @param tokens   the initial number of tokens in the place
    */
-  public Place(String name, Point2D position, PLACE_TYPE type, int tokens) {
+  public Place(String name, Position position, PLACE_TYPE type, int tokens) {
     super(name, position);
     this.type = type;
     this.tokens = tokens;
@@ -45,7 +42,7 @@ public class Place extends Node {
    * @param position the position of the place in 2D space
    * @param type     the type of the place (e.g., START, FINISH)
    */
-  public Place(String name, Point2D position, PLACE_TYPE type) {
+  public Place(String name, Position position, PLACE_TYPE type) {
     this(name, position, type, 0);
   }
 
@@ -56,7 +53,7 @@ public class Place extends Node {
    * @param name     the name of the place
    * @param position the position of the place in 2D space
    */
-  public Place(String name, Point2D position) {
+  public Place(String name, Position position) {
     this(name, position, PLACE_TYPE.NORMAL, 0);
   }
 
@@ -68,7 +65,7 @@ public class Place extends Node {
    * @param name the name of the place
    */
   public Place(String name) {
-    this(name, new Point2D(-1, -1), PLACE_TYPE.NORMAL, 0);
+    this(name, new Position(-1, -1), PLACE_TYPE.NORMAL, 0);
   }
 
   /*
@@ -77,7 +74,6 @@ public class Place extends Node {
    * @return the name of the shape, see {@link
    * com.brunomnsilva.smartgraph.graphview.ShapeFactory}
    */
-  @SmartShapeTypeSource
   public String modelShape() {
     if (this.getPlaceTokens() > 0) {
       return "place_" + this.getPlaceTokens();
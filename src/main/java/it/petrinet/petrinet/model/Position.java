@@ -0,0 +1,51 @@
+package it.petrinet.petrinet.model;
+
+/**
+ * Immutable coordinates of a node in the drawing of a net.
+ * <p>
+ * The model keeps its own value type instead of {@code javafx.geometry.Point2D}
+ * so parsers, serializers and analyses run without loading JavaFX; the view
+ * converts with {@link it.petrinet.petrinet.view.FxAdapters}.
+ * </p>
+ */
+public final class Position {
+
+  public static final Position ORIGIN = new Position(0, 0);
+
+  private final double x;
+  private final double y;
+
+  public Position(double x, double y) {
+    this.x = x;
+    this.y = y;
+  }
+
+  public double getX() {
+    return x;
+  }
+
+  public double getY() {
+    return y;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Position other)) {
+      return false;
+    }
+    return Double.compare(x, other.x) == 0 && Double.compare(y, other.y) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Double.hashCode(x) + Double.hashCode(y);
+  }
+
+  @Override
+  public String toString() {
+    return "Position [x = " + x + ", y = " + y + "]";
+  }
+}
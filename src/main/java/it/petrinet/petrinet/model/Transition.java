@@ -1,8 +1,5 @@
 package it.petrinet.petrinet.model;
 
-import com.brunomnsilva.smartgraph.graphview.SmartShapeTypeSource;
-import javafx.geometry.Point2D;
-
 /**
  * Represents a transition node in a Petri net.
  * A Transition can have a specific type and a state indicating if it is
@@ -24,7 +21,7 @@ public class Transition extends Node {
    * @param type      the type of the transition
    * @param isFirable whether the transition is firable
    */
-  public Transition(String name, Point2D position, TRANSITION_TYPE type, boolean isFirable) {
+  public Transition(String name, Position position, TRANSITION_TYPE type, boolean isFirable) {
     super(name, position);
     this.type = type;
     this.isFirable = isFirable;
@@ -38,7 +35,7 @@ public class Transition extends Node {
    * @param position the position of the transition in 2D space
    * @param type     the type of the transition
    */
-  public Transition(String name, Point2D position, TRANSITION_TYPE type) {
+  public Transition(String name, Position position, TRANSITION_TYPE type) {
     this(name, position, type, false);
   }
 
@@ -49,7 +46,7 @@ public class Transition extends Node {
    * @param name     the name of the transition
    * @param position the position of the transition in 2D space
    */
-  public Transition(String name, Point2D position) {
+  public Transition(String name, Position position) {
     this(name, position, TRANSITION_TYPE.USER, false);
   }
 
@@ -61,7 +58,7 @@ public class Transition extends Node {
    * @param name the name of the transition
    */
   public Transition(String name) {
-    this(name, new Point2D(0, 0), TRANSITION_TYPE.USER, false);
+    this(name, Position.ORIGIN, TRANSITION_TYPE.USER, false);
   }
 
   /**
@@ -114,7 +111,6 @@ public class Transition extends Node {
    * @return the name of the shape, see {@link
    * com.brunomnsilva.smartgraph.graphview.ShapeFactory}
    */
-  @SmartShapeTypeSource
   public String modelShape() {
     return "Transition";
   }
@@ -1,9 +1,23 @@
 package it.petrinet.petrinet.persistance;
 
 import it.petrinet.petrinet.model.PetriNetModel;
+import it.petrinet.petrinet.persistance.binary.BinaryNetParser;
+import it.petrinet.petrinet.persistance.binary.BinaryNetSerializer;
+import it.petrinet.petrinet.persistance.pnml.StaxPNMLParser;
 
 import java.io.IOException;
 
 public interface NetParser {
   PetriNetModel parse(String path) throws IOException;
+
+  /**
+   * Chooses the parser from the file extension: binary nets for
+   * {@value BinaryNetSerializer#EXTENSION}, PNML otherwise.
+   *
+   * @param path the file to parse
+   * @return the parser for its format
+   */
+  static NetParser forPath(String path) {
+    return path.endsWith(BinaryNetSerializer.EXTENSION) ? new BinaryNetParser() : new StaxPNMLParser();
+  }
 }
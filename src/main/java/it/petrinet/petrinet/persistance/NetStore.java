@@ -0,0 +1,150 @@
+package it.petrinet.petrinet.persistance;
+
+import it.petrinet.petrinet.model.Node;
+import it.petrinet.petrinet.model.PetriNetModel;
+import it.petrinet.petrinet.model.Place;
+import it.petrinet.petrinet.model.Transition;
+import it.petrinet.petrinet.persistance.pnml.StaxPNMLSerializer;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Content-addressed store of PNML files.
+ * <p>
+ * A net is stored as {@code <hash>.pnml}, where the hash is the SHA-256 of a
+ * canonical encoding of its places, transitions, arcs and positions; the name
+ * of the net is not part of it, since it lives in {@code petri_nets.netName}.
+ * Saving an unchanged net, or a net identical to another one, finds the file
+ * already there and writes nothing, and every row of {@code petri_nets} with
+ * the same content points to the same file, so caches keyed by path (like
+ * {@link PetriNetModelCache}) are shared by those nets too. Stored files are
+ * never modified: a changed net gets a new file.
+ * </p>
+ * Usage:
+ *
+ * <pre>
+ * String xmlPath = new NetStore(Path.of(NavigationHelper.netDirectory)).store(model);
+ * PetriNetsDAO.insertNet(new PetriNet(name, creator, now, xmlPath, image, false));
+ * </pre>
+ */
+public class NetStore {
+
+  /** Extension of the stored files. */
+  public static final String EXTENSION = ".pnml";
+
+  private final Path directory;
+
+  /**
+   * @param directory directory holding the stored files, the net directory of
+   *                  the application
+   */
+  public NetStore(Path directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * Stores a net, writing its file only if no net with the same content is
+   * stored yet. The file is written to a temporary name and then moved, so
+   * concurrent readers never see a partial file.
+   *
+   * @param model the net
+   * @return path of the file relative to the store directory, to be used as
+   *         {@code XML_PATH}
+   * @throws IOException if the file cannot be written
+   */
+  public String store(PetriNetModel model) throws IOException {
+    String hash = hash(model);
+    String xmlPath = hash + EXTENSION;
+    Path file = directory.resolve(xmlPath);
+    if (Files.exists(file)) {
+      return xmlPath;
+    }
+    Files.createDirectories(directory);
+    Path temporary = Files.createTempFile(directory, hash, ".tmp");
+    try {
+      // the file is named after its content, so it holds the hash as net name
+      new StaxPNMLSerializer().write(model.copy(hash), temporary);
+      Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+    } catch (FileAlreadyExistsException e) {
+      // stored meanwhile by another thread, with the same content
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+    return xmlPath;
+  }
+
+  /**
+   * @param model the net
+   * @return path the net would be stored at, relative to the store directory
+   */
+  public static String pathOf(PetriNetModel model) {
+    return hash(model) + EXTENSION;
+  }
+
+  /**
+   * Computes the canonical hash of a net: nodes and arcs are encoded in name
+   * order, so the hash does not depend on the order they were added in.
+   * Positions are encoded as the integers PNML files are read back with.
+   *
+   * @param model the net
+   * @return the SHA-256 of the net, as 64 lowercase hex digits
+   */
+  public static String hash(PetriNetModel model) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+    List<Node> nodes = new ArrayList<>(model.getNodes());
+    nodes.sort(Comparator.comparing(Node::getName));
+
+    try (DataOutputStream out = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(),
+        digest))) {
+      for (Node node : nodes) {
+        if (node instanceof Place p) {
+          out.writeUTF("place");
+          out.writeUTF(p.getName());
+          out.writeUTF(p.getType().toString());
+          out.writeInt(p.getPlaceTokens());
+        } else if (node instanceof Transition t) {
+          out.writeUTF("transition");
+          out.writeUTF(t.getName());
+          out.writeUTF(t.getType().toString());
+        }
+        out.writeBoolean(node.getPosition() != null);
+        if (node.getPosition() != null) {
+          out.writeInt((int) node.getPosition().getX());
+          out.writeInt((int) node.getPosition().getY());
+        }
+      }
+      for (Node from : nodes) {
+        List<Node> successors = new ArrayList<>(model.getSuccessors(from));
+        successors.sort(Comparator.comparing(Node::getName));
+        for (Node to : successors) {
+          out.writeUTF("arc");
+          out.writeUTF(from.getName());
+          out.writeUTF(to.getName());
+          out.writeInt(model.getWeight(from, to));
+          out.writeUTF(model.getArcType(from, to).toString());
+        }
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot hash net " + model.getName(), e);
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+}
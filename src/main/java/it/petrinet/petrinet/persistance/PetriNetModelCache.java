@@ -0,0 +1,149 @@
+package it.petrinet.petrinet.persistance;
+
+import it.petrinet.petrinet.model.FrozenNet;
+import it.petrinet.petrinet.model.PetriNetModel;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process-wide cache of parsed nets.
+ * <p>
+ * Entries are keyed by the absolute path of the file and validated against its
+ * modification time and size, so a net saved again is parsed again on the
+ * next request. The cache keeps one {@link FrozenNet} per file: it is handed
+ * out as is by {@link #getFrozen(String)}, to analyses and compiled nets that
+ * only read it, while {@link #get(String)} rebuilds a mutable model from it,
+ * so callers can change tokens and positions freely. The least recently used
+ * entries are evicted beyond the capacity.
+ * </p>
+ * Files are parsed outside the lock, so two threads missing the same file at
+ * the same time may both parse it; the last one wins.
+ */
+public class PetriNetModelCache {
+
+  private static final int DEFAULT_CAPACITY = 128;
+
+  private static PetriNetModelCache instance;
+
+  private final int capacity;
+  private final Map<Path, Entry> entries;
+
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  private record Entry(long modified, long size, FrozenNet net) {
+  }
+
+  /**
+   * @param capacity maximum number of nets kept
+   */
+  public PetriNetModelCache(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    this.capacity = capacity;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Path, Entry> eldest) {
+        if (size() > PetriNetModelCache.this.capacity) {
+          evictions++;
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  public static synchronized PetriNetModelCache getInstance() {
+    if (instance == null) {
+      instance = new PetriNetModelCache(DEFAULT_CAPACITY);
+    }
+    return instance;
+  }
+
+  /**
+   * Returns the net stored in a file, parsing it only if it is not cached or
+   * has changed since it was cached. The parser is chosen by
+   * {@link NetParser#forPath(String)}.
+   *
+   * @param path the file
+   * @return a private copy of the parsed net
+   * @throws IOException if the file cannot be read
+   */
+  public PetriNetModel get(String path) throws IOException {
+    return getFrozen(path).toModel();
+  }
+
+  /**
+   * Returns the snapshot of the net stored in a file, shared with every other
+   * caller, parsing the file only if it is not cached or has changed since it
+   * was cached.
+   *
+   * @param path the file
+   * @return the shared snapshot of the parsed net
+   * @throws IOException if the file cannot be read
+   */
+  public FrozenNet getFrozen(String path) throws IOException {
+    Path key = Path.of(path).toAbsolutePath().normalize();
+    BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+    long modified = attributes.lastModifiedTime().toMillis();
+    long size = attributes.size();
+
+    synchronized (this) {
+      Entry entry = entries.get(key);
+      if (entry != null && entry.modified() == modified && entry.size() == size) {
+        hits++;
+        return entry.net();
+      }
+      misses++;
+    }
+
+    FrozenNet net = NetParser.forPath(path).parse(path).freeze();
+    synchronized (this) {
+      entries.put(key, new Entry(modified, size, net));
+    }
+    return net;
+  }
+
+  /**
+   * Drops the entry of a file, if any.
+   */
+  public synchronized void invalidate(String path) {
+    entries.remove(Path.of(path).toAbsolutePath().normalize());
+  }
+
+  /**
+   * Drops every entry; the counters are kept.
+   */
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  public synchronized long getEvictions() {
+    return evictions;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "PetriNetModelCache{size=%d/%d, hits=%d, misses=%d, evictions=%d}".formatted(entries.size(), capacity,
+        hits, misses, evictions);
+  }
+}
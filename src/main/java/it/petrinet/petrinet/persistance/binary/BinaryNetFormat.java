@@ -0,0 +1,46 @@
+package it.petrinet.petrinet.persistance.binary;
+
+import java.nio.ByteOrder;
+
+/**
+ * Layout of the binary net files shared by {@link BinaryNetSerializer} and
+ * {@link BinaryNetParser}.
+ * <p>
+ * The file is a flat sequence of little-endian 32-bit words, so it can be
+ * mapped in memory and read with bulk int copies:
+ * </p>
+ *
+ * <pre>
+ * header      MAGIC, VERSION, placeCount P, transitionCount T,
+ *             preCount A, postCount B, stringCount S, stringBytes N,
+ *             inhibitorCount I, resetCount R
+ * strings     int[S + 1] byte offsets, then N bytes of UTF-8, padded to 4
+ * net         name (string index)
+ * places      name[P] (string index), type[P] (ordinal), tokens[P],
+ *             x[P], y[P] (float bits, NaN if no position)
+ * transitions name[T], type[T], x[T], y[T]
+ * arcs        preStart[T + 1], prePlace[A], preWeight[A],
+ *             postStart[T + 1], postPlace[B], postWeight[B],
+ *             inhibitorStart[T + 1], inhibitorPlace[I], inhibitorWeight[I],
+ *             resetStart[T + 1], resetPlace[R]
+ * </pre>
+ *
+ * Version 1 files, written before inhibitor and reset arcs, have neither the
+ * last two header words nor the last two arc sections; they are still read.
+ *
+ * Places and transitions are numbered as in
+ * {@link it.petrinet.petrinet.engine.CompiledNet}, and the arcs are its
+ * compressed rows, so a compiled net is built from the file without any
+ * parsing.
+ */
+final class BinaryNetFormat {
+
+  static final int MAGIC = 0x54454E50; // "PNET" in little-endian
+  static final int VERSION = 2;
+  static final int HEADER_WORDS = 10;
+  static final int VERSION_1_HEADER_WORDS = 8;
+  static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+  private BinaryNetFormat() {
+  }
+}
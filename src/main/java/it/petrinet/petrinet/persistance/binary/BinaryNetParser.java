@@ -0,0 +1,216 @@
+package it.petrinet.petrinet.persistance.binary;
+
+import it.petrinet.petrinet.builder.PetriNetBuilder;
+import it.petrinet.petrinet.engine.CompiledNet;
+import it.petrinet.petrinet.model.ARC_TYPE;
+import it.petrinet.petrinet.model.PLACE_TYPE;
+import it.petrinet.petrinet.model.PetriNetModel;
+import it.petrinet.petrinet.model.TRANSITION_TYPE;
+import it.petrinet.petrinet.persistance.NetParser;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads nets written by {@link BinaryNetSerializer}.
+ * <p>
+ * The file is mapped with {@link FileChannel#map} and its sections are copied
+ * out with bulk int reads; {@link #load(String)} turns them directly into a
+ * {@link CompiledNet}, while {@link #parse(String)} rebuilds the full
+ * {@link PetriNetModel}, positions included, for the editor and the viewer.
+ * </p>
+ */
+public class BinaryNetParser implements NetParser {
+
+  @Override
+  public PetriNetModel parse(String path) throws IOException {
+    Contents c = read(Path.of(path));
+    PetriNetBuilder netBuilder = new PetriNetBuilder(c.name);
+    for (int p = 0; p < c.placeNames.length; p++) {
+      PetriNetBuilder.PlaceBuilder placeBuilder = netBuilder.newPlace(c.placeNames[p])
+          .withType(c.placeTypes[p])
+          .initialMarking(c.tokens[p]);
+      if (!Float.isNaN(c.placeX[p])) {
+        placeBuilder.withPosition(c.placeX[p], c.placeY[p]);
+      }
+      netBuilder = placeBuilder.donePlace();
+    }
+    for (int t = 0; t < c.transitionNames.length; t++) {
+      PetriNetBuilder.TransitionBuilder transitionBuilder = netBuilder.newTransition(c.transitionNames[t])
+          .withType(c.transitionTypes[t]);
+      if (!Float.isNaN(c.transitionX[t])) {
+        transitionBuilder.withPosition(c.transitionX[t], c.transitionY[t]);
+      }
+      netBuilder = transitionBuilder.doneTransition();
+    }
+    for (int t = 0; t < c.transitionNames.length; t++) {
+      for (int i = c.preStart[t]; i < c.preStart[t + 1]; i++) {
+        netBuilder.addArc(c.placeNames[c.prePlace[i]], c.transitionNames[t], c.preWeight[i]);
+      }
+      for (int i = c.postStart[t]; i < c.postStart[t + 1]; i++) {
+        netBuilder.addArc(c.transitionNames[t], c.placeNames[c.postPlace[i]], c.postWeight[i]);
+      }
+      for (int i = c.inhibitorStart[t]; i < c.inhibitorStart[t + 1]; i++) {
+        netBuilder.addArc(c.placeNames[c.inhibitorPlace[i]], c.transitionNames[t], c.inhibitorWeight[i],
+            ARC_TYPE.INHIBITOR);
+      }
+      for (int i = c.resetStart[t]; i < c.resetStart[t + 1]; i++) {
+        netBuilder.addArc(c.placeNames[c.resetPlace[i]], c.transitionNames[t], 1, ARC_TYPE.RESET);
+      }
+    }
+    try {
+      return netBuilder.build();
+    } catch (Exception e) {
+      throw new RuntimeException("Error building net from " + path + ": " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Loads a binary net straight into a compiled net, skipping the model.
+   *
+   * @param path the file
+   * @return the compiled net
+   * @throws IOException if the file cannot be read or is not a valid binary net
+   */
+  public static CompiledNet load(String path) throws IOException {
+    Contents c = read(Path.of(path));
+    try {
+      return CompiledNet.fromArrays(c.name, c.placeNames, c.placeTypes, c.tokens, c.transitionNames,
+          c.transitionTypes, c.preStart, c.prePlace, c.preWeight, c.postStart, c.postPlace, c.postWeight,
+          c.inhibitorStart, c.inhibitorPlace, c.inhibitorWeight, c.resetStart, c.resetPlace);
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Corrupted binary net " + path + ": " + e.getMessage(), e);
+    }
+  }
+
+  private static Contents read(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+          .order(BinaryNetFormat.ORDER);
+      return decode(bytes);
+    } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+      throw new IOException("Corrupted binary net " + file, e);
+    }
+  }
+
+  private static Contents decode(ByteBuffer bytes) throws IOException {
+    if (bytes.remaining() < BinaryNetFormat.VERSION_1_HEADER_WORDS * 4 || bytes.getInt() != BinaryNetFormat.MAGIC) {
+      throw new IOException("Not a binary net file");
+    }
+    int version = bytes.getInt();
+    if (version != 1 && version != BinaryNetFormat.VERSION) {
+      throw new IOException("Unsupported binary net version " + version);
+    }
+    int places = bytes.getInt();
+    int transitions = bytes.getInt();
+    int pre = bytes.getInt();
+    int post = bytes.getInt();
+    int stringCount = bytes.getInt();
+    int stringBytes = bytes.getInt();
+    int inhibitors = version == 1 ? 0 : bytes.getInt();
+    int resets = version == 1 ? 0 : bytes.getInt();
+
+    IntBuffer ints = bytes.asIntBuffer();
+    int[] offsets = ints(ints, stringCount + 1);
+    int stringsStart = bytes.position() + (stringCount + 1) * 4;
+    String[] strings = new String[stringCount];
+    byte[] utf8 = new byte[stringBytes];
+    bytes.get(stringsStart, utf8);
+    for (int s = 0; s < stringCount; s++) {
+      strings[s] = new String(utf8, offsets[s], offsets[s + 1] - offsets[s], StandardCharsets.UTF_8);
+    }
+    ints.position(ints.position() + (stringBytes + 3) / 4);
+
+    Contents c = new Contents();
+    c.name = strings[ints.get()];
+    c.placeNames = names(ints(ints, places), strings);
+    c.placeTypes = enums(ints(ints, places), PLACE_TYPE.values(), new PLACE_TYPE[places]);
+    c.tokens = ints(ints, places);
+    c.placeX = floats(ints, places);
+    c.placeY = floats(ints, places);
+    c.transitionNames = names(ints(ints, transitions), strings);
+    c.transitionTypes = enums(ints(ints, transitions), TRANSITION_TYPE.values(), new TRANSITION_TYPE[transitions]);
+    c.transitionX = floats(ints, transitions);
+    c.transitionY = floats(ints, transitions);
+    c.preStart = ints(ints, transitions + 1);
+    c.prePlace = ints(ints, pre);
+    c.preWeight = ints(ints, pre);
+    c.postStart = ints(ints, transitions + 1);
+    c.postPlace = ints(ints, post);
+    c.postWeight = ints(ints, post);
+    if (version == 1) {
+      c.inhibitorStart = new int[transitions + 1];
+      c.inhibitorPlace = new int[0];
+      c.inhibitorWeight = new int[0];
+      c.resetStart = new int[transitions + 1];
+      c.resetPlace = new int[0];
+    } else {
+      c.inhibitorStart = ints(ints, transitions + 1);
+      c.inhibitorPlace = ints(ints, inhibitors);
+      c.inhibitorWeight = ints(ints, inhibitors);
+      c.resetStart = ints(ints, transitions + 1);
+      c.resetPlace = ints(ints, resets);
+    }
+    return c;
+  }
+
+  private static int[] ints(IntBuffer ints, int count) {
+    int[] values = new int[count];
+    ints.get(values);
+    return values;
+  }
+
+  private static float[] floats(IntBuffer ints, int count) {
+    float[] values = new float[count];
+    for (int i = 0; i < count; i++) {
+      values[i] = Float.intBitsToFloat(ints.get());
+    }
+    return values;
+  }
+
+  private static String[] names(int[] refs, String[] strings) {
+    String[] names = new String[refs.length];
+    for (int i = 0; i < refs.length; i++) {
+      names[i] = strings[refs[i]];
+    }
+    return names;
+  }
+
+  private static <E extends Enum<E>> E[] enums(int[] ordinals, E[] values, E[] result) {
+    for (int i = 0; i < ordinals.length; i++) {
+      result[i] = values[ordinals[i]];
+    }
+    return result;
+  }
+
+  /** The decoded sections of a file. */
+  private static final class Contents {
+    String name;
+    String[] placeNames;
+    PLACE_TYPE[] placeTypes;
+    int[] tokens;
+    float[] placeX;
+    float[] placeY;
+    String[] transitionNames;
+    TRANSITION_TYPE[] transitionTypes;
+    float[] transitionX;
+    float[] transitionY;
+    int[] preStart;
+    int[] prePlace;
+    int[] preWeight;
+    int[] postStart;
+    int[] postPlace;
+    int[] postWeight;
+    int[] inhibitorStart;
+    int[] inhibitorPlace;
+    int[] inhibitorWeight;
+    int[] resetStart;
+    int[] resetPlace;
+  }
+}
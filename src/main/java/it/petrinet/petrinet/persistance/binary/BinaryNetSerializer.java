@@ -0,0 +1,202 @@
+package it.petrinet.petrinet.persistance.binary;
+
+import it.petrinet.petrinet.engine.CompiledNet;
+import it.petrinet.petrinet.model.Node;
+import it.petrinet.petrinet.model.PetriNetModel;
+import it.petrinet.petrinet.persistance.NetSerializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Writes nets in the compact binary format described in
+ * {@link BinaryNetFormat}, meant to be reopened many times through
+ * {@link BinaryNetParser} without XML parsing.
+ */
+public class BinaryNetSerializer implements NetSerializer {
+
+  /** Extension of the binary net files. */
+  public static final String EXTENSION = ".pnb";
+
+  private final Path outputDirectory;
+
+  /**
+   * @param outputDirectory directory where {@link #serialize(PetriNetModel)}
+   *                        writes {@code <net name>.pnb}
+   */
+  public BinaryNetSerializer(Path outputDirectory) {
+    this.outputDirectory = outputDirectory;
+  }
+
+  /**
+   * Creates a serializer without an output directory, usable only through
+   * {@link #write(PetriNetModel, Path)}.
+   */
+  public BinaryNetSerializer() {
+    this(null);
+  }
+
+  @Override
+  public void serialize(PetriNetModel net) throws IOException {
+    if (outputDirectory == null) {
+      throw new IllegalStateException("No output directory configured");
+    }
+    Files.createDirectories(outputDirectory);
+    write(net, outputDirectory.resolve(net.getName() + EXTENSION));
+  }
+
+  /**
+   * Writes the net to a file, replacing it if it exists.
+   *
+   * @param net  the net
+   * @param file the destination
+   * @throws IOException if an I/O error occurs
+   */
+  public void write(PetriNetModel net, Path file) throws IOException {
+    ByteBuffer buffer = encode(net);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    }
+  }
+
+  private static ByteBuffer encode(PetriNetModel net) {
+    CompiledNet compiled = CompiledNet.compile(net);
+    int places = compiled.placeCount();
+    int transitions = compiled.transitionCount();
+    Map<String, Node> nodes = new HashMap<>(net.getNodes().size() * 2);
+    for (Node node : net.getNodes()) {
+      nodes.put(node.getName(), node);
+    }
+
+    // string table: the net name, then the nodes in compiled order
+    byte[][] strings = new byte[1 + places + transitions][];
+    strings[0] = String.valueOf(net.getName()).getBytes(StandardCharsets.UTF_8);
+    for (int p = 0; p < places; p++) {
+      strings[1 + p] = compiled.placeName(p).getBytes(StandardCharsets.UTF_8);
+    }
+    for (int t = 0; t < transitions; t++) {
+      strings[1 + places + t] = compiled.transitionName(t).getBytes(StandardCharsets.UTF_8);
+    }
+    int stringBytes = 0;
+    for (byte[] string : strings) {
+      stringBytes += string.length;
+    }
+
+    int pre = 0;
+    int post = 0;
+    int inhibitors = 0;
+    int resets = 0;
+    for (int t = 0; t < transitions; t++) {
+      pre += compiled.inputCount(t);
+      post += compiled.outputCount(t);
+      inhibitors += compiled.inhibitorCount(t);
+      resets += compiled.resetCount(t);
+    }
+
+    long words = BinaryNetFormat.HEADER_WORDS + (strings.length + 1L) + (stringBytes + 3L) / 4 + 1
+        + 5L * places + 4L * transitions + 4L * (transitions + 1) + 2L * pre + 2L * post + 2L * inhibitors
+        + resets;
+    if (words * 4 > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Net too large for the binary format: " + net.getName());
+    }
+    ByteBuffer buffer = ByteBuffer.allocate((int) (words * 4)).order(BinaryNetFormat.ORDER);
+
+    buffer.putInt(BinaryNetFormat.MAGIC).putInt(BinaryNetFormat.VERSION)
+        .putInt(places).putInt(transitions).putInt(pre).putInt(post)
+        .putInt(strings.length).putInt(stringBytes).putInt(inhibitors).putInt(resets);
+
+    int offset = 0;
+    for (byte[] string : strings) {
+      buffer.putInt(offset);
+      offset += string.length;
+    }
+    buffer.putInt(offset);
+    for (byte[] string : strings) {
+      buffer.put(string);
+    }
+    while (buffer.position() % 4 != 0) {
+      buffer.put((byte) 0);
+    }
+
+    buffer.putInt(0);
+    for (int p = 0; p < places; p++) {
+      buffer.putInt(1 + p);
+    }
+    for (int p = 0; p < places; p++) {
+      buffer.putInt(compiled.placeType(p).ordinal());
+    }
+    int[] tokens = compiled.initialMarking();
+    for (int p = 0; p < places; p++) {
+      buffer.putInt(tokens[p]);
+    }
+    putPositions(buffer, nodes, compiled::placeName, places);
+
+    for (int t = 0; t < transitions; t++) {
+      buffer.putInt(1 + places + t);
+    }
+    for (int t = 0; t < transitions; t++) {
+      buffer.putInt(compiled.transitionType(t).ordinal());
+    }
+    putPositions(buffer, nodes, compiled::transitionName, transitions);
+
+    putRows(buffer, transitions, compiled::inputCount, compiled::inputPlace, compiled::inputWeight);
+    putRows(buffer, transitions, compiled::outputCount, compiled::outputPlace, compiled::outputWeight);
+    putRows(buffer, transitions, compiled::inhibitorCount, compiled::inhibitorPlace, compiled::inhibitorWeight);
+    putRows(buffer, transitions, compiled::resetCount, compiled::resetPlace, null);
+
+    return buffer.flip();
+  }
+
+  /**
+   * Writes the row offsets, the places and, unless {@code weight} is null, the
+   * weights of one kind of arc.
+   */
+  private static void putRows(ByteBuffer buffer, int transitions, IntUnaryOperator count,
+      IntBinaryOperator place, IntBinaryOperator weight) {
+    int cursor = 0;
+    for (int t = 0; t < transitions; t++) {
+      buffer.putInt(cursor);
+      cursor += count.applyAsInt(t);
+    }
+    buffer.putInt(cursor);
+    for (int t = 0; t < transitions; t++) {
+      for (int k = 0; k < count.applyAsInt(t); k++) {
+        buffer.putInt(place.applyAsInt(t, k));
+      }
+    }
+    if (weight != null) {
+      for (int t = 0; t < transitions; t++) {
+        for (int k = 0; k < count.applyAsInt(t); k++) {
+          buffer.putInt(weight.applyAsInt(t, k));
+        }
+      }
+    }
+  }
+
+  private static void putPositions(ByteBuffer buffer, Map<String, Node> nodes,
+      IntFunction<String> names, int count) {
+    for (int axis = 0; axis < 2; axis++) {
+      for (int i = 0; i < count; i++) {
+        Node node = nodes.get(names.apply(i));
+        if (node.getPosition() == null) {
+          buffer.putFloat(Float.NaN);
+        } else {
+          buffer.putFloat((float) (axis == 0 ? node.getPosition().getX() : node.getPosition().getY()));
+        }
+      }
+    }
+  }
+}
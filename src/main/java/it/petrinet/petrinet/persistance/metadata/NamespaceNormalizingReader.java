@@ -0,0 +1,61 @@
+package it.petrinet.petrinet.persistance.metadata;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+
+/**
+ * Stream reader that reports every element without a namespace as belonging
+ * to a given namespace.
+ * <p>
+ * Used to read PNML files saved without the PNML namespace: the elements are
+ * renamed on the fly while streaming, so the file is neither copied into a
+ * second tree nor rewritten on disk, and read-only or shared files can be
+ * opened by any number of concurrent readers. Elements that already have a
+ * namespace, and all attributes, are reported unchanged.
+ * </p>
+ */
+public class NamespaceNormalizingReader extends StreamReaderDelegate {
+
+  private final String namespaceUri;
+
+  /**
+   * @param reader       the reader to wrap
+   * @param namespaceUri the namespace given to elements without one
+   */
+  public NamespaceNormalizingReader(XMLStreamReader reader, String namespaceUri) {
+    super(reader);
+    this.namespaceUri = namespaceUri;
+  }
+
+  @Override
+  public String getNamespaceURI() {
+    String ns = super.getNamespaceURI();
+    if ((ns == null || ns.isEmpty()) && isElement()) {
+      return namespaceUri;
+    }
+    return ns;
+  }
+
+  @Override
+  public QName getName() {
+    QName name = super.getName();
+    if (name.getNamespaceURI().isEmpty()) {
+      return new QName(namespaceUri, name.getLocalPart(), name.getPrefix());
+    }
+    return name;
+  }
+
+  @Override
+  public String getNamespaceURI(String prefix) {
+    String ns = super.getNamespaceURI(prefix);
+    if ((ns == null || ns.isEmpty()) && (prefix == null || prefix.isEmpty())) {
+      return namespaceUri;
+    }
+    return ns;
+  }
+
+  private boolean isElement() {
+    return isStartElement() || isEndElement();
+  }
+}
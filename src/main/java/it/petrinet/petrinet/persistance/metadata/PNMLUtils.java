@@ -4,22 +4,87 @@ import org.w3c.dom.*;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMResult;
 import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stax.StAXSource;
 import javax.xml.transform.stream.StreamResult;
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
 
 public class PNMLUtils {
   public static final String PNML_NS = "http://www.pnml.org/version-2009/grammar/ptnet";
 
+  private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+  private static XMLInputFactory createInputFactory() {
+    XMLInputFactory factory = XMLInputFactory.newFactory();
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    return factory;
+  }
+
+  /**
+   * Opens a streaming reader on a PNML document where elements without a
+   * namespace are reported in the given one (see
+   * {@link NamespaceNormalizingReader}). The stream is not closed by the
+   * reader.
+   *
+   * @param in           the document
+   * @param namespaceUri the namespace given to elements without one
+   * @return the reader
+   * @throws XMLStreamException if the document cannot be opened
+   */
+  public static XMLStreamReader createNormalizingReader(InputStream in, String namespaceUri)
+      throws XMLStreamException {
+    return new NamespaceNormalizingReader(INPUT_FACTORY.createXMLStreamReader(in), namespaceUri);
+  }
+
+  /**
+   * Parses a PNML file into a DOM whose elements all have a namespace, adding
+   * the given one where it is missing. The file is only read.
+   *
+   * @param inputFile    the file to parse
+   * @param namespaceUri the namespace given to elements without one
+   * @return the namespace-aware document
+   * @throws Exception if the file cannot be read or parsed
+   */
+  public static Document parseNormalized(File inputFile, String namespaceUri) throws Exception {
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(inputFile.toPath()))) {
+      XMLStreamReader reader = createNormalizingReader(in, namespaceUri);
+      try {
+        DOMResult result = new DOMResult();
+        TransformerFactory.newInstance().newTransformer().transform(new StAXSource(reader), result);
+        return (Document) result.getNode();
+      } finally {
+        reader.close();
+      }
+    }
+  }
+
   public static boolean hasNamespace(Document doc, String namespaceUri) {
     Element root = doc.getDocumentElement();
     String existingNs = root.getNamespaceURI();
     return namespaceUri.equals(existingNs) || namespaceUri.equals(root.getAttribute("xmlns"));
   }
 
+  /**
+   * Parses a PNML file and, if its root has no namespace, rewrites the file
+   * with every element moved to the given namespace.
+   *
+   * @deprecated writes to the file it reads; use
+   *             {@link #parseNormalized(File, String)}, which only reads it
+   */
+  @Deprecated
   public static Document addNamespaceProperly(File inputFile, String namespaceUri) throws Exception {
     DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
     factory.setNamespaceAware(true);
@@ -0,0 +1,206 @@
+package it.petrinet.petrinet.persistance.pnml;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Overview of the pages of a PNML net, read without building any node.
+ * <p>
+ * One streaming pass over the file records, for every page of the first net,
+ * its name, its parent page and how many elements it holds. The index is
+ * cheap even on huge files and is meant to pick the pages to load with
+ * {@link StaxPNMLParser#parsePages(String, java.util.Collection)}.
+ * </p>
+ */
+public final class PNMLPageIndex {
+
+  /**
+   * A page of the net.
+   *
+   * @param id          page id
+   * @param name        page name, or null if it has none
+   * @param parentId    id of the enclosing page, or null for a top-level page
+   * @param depth       nesting level, 0 for top-level pages
+   * @param places      places directly in the page
+   * @param transitions transitions directly in the page
+   * @param arcs        arcs directly in the page
+   * @param references  reference places and transitions directly in the page
+   */
+  public record PageInfo(String id, String name, String parentId, int depth, int places, int transitions,
+      int arcs, int references) {
+  }
+
+  private final String netName;
+  private final List<PageInfo> pages;
+
+  private PNMLPageIndex(String netName, List<PageInfo> pages) {
+    this.netName = netName;
+    this.pages = Collections.unmodifiableList(pages);
+  }
+
+  /**
+   * Indexes the pages of a plain or gzip compressed PNML file.
+   *
+   * @param path the file
+   * @return the index
+   * @throws IOException if the file cannot be read
+   */
+  public static PNMLPageIndex read(String path) throws IOException {
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(Path.of(path)))) {
+      XMLStreamReader reader = StaxPNMLParser.open(in);
+      try {
+        return scan(reader);
+      } finally {
+        reader.close();
+      }
+    } catch (XMLStreamException e) {
+      throw new RuntimeException("Error indexing PNML file: " + e.getMessage(), e);
+    }
+  }
+
+  /** Counters of a page still open during the scan. */
+  private static final class OpenPage {
+    final int slot;
+    final String id;
+    final String parentId;
+    final int depth;
+    final int elementDepth;
+    String name;
+    int places;
+    int transitions;
+    int arcs;
+    int references;
+
+    OpenPage(int slot, String id, String parentId, int depth, int elementDepth) {
+      this.slot = slot;
+      this.id = id;
+      this.parentId = parentId;
+      this.depth = depth;
+      this.elementDepth = elementDepth;
+    }
+  }
+
+  private static PNMLPageIndex scan(XMLStreamReader r) throws XMLStreamException {
+    String netName = null;
+    // pages are listed in document order: a slot is reserved when a page
+    // starts and filled when it ends
+    List<PageInfo> pages = new ArrayList<>();
+    Deque<OpenPage> open = new ArrayDeque<>();
+    int depth = 0;
+    int netDepth = -1;
+
+    while (r.hasNext()) {
+      int event = r.next();
+      if (event == XMLStreamConstants.END_ELEMENT) {
+        if (depth == netDepth) {
+          break;
+        }
+        if (!open.isEmpty() && open.peek().elementDepth == depth) {
+          OpenPage page = open.pop();
+          pages.set(page.slot, new PageInfo(page.id, page.name, page.parentId, page.depth, page.places,
+              page.transitions, page.arcs, page.references));
+        }
+        depth--;
+        continue;
+      }
+      if (event != XMLStreamConstants.START_ELEMENT) {
+        continue;
+      }
+      depth++;
+      String local = r.getLocalName();
+      OpenPage current = open.peek();
+      if (!StaxPNMLParser.isPnml(r)) {
+        StaxPNMLParser.skip(r);
+        depth--;
+        continue;
+      }
+      if (netDepth < 0) {
+        if (local.equals("net")) {
+          netDepth = depth;
+        }
+        continue;
+      }
+      switch (local) {
+        case "page" -> {
+          pages.add(null);
+          open.push(new OpenPage(pages.size() - 1, r.getAttributeValue(null, "id"),
+              current == null ? null : current.id, open.size(), depth));
+          continue;
+        }
+        case "name" -> {
+          String name = StaxPNMLParser.readLabel(r);
+          if (current == null && depth == netDepth + 1) {
+            netName = name;
+          } else if (current != null && depth == current.elementDepth + 1) {
+            current.name = name;
+          }
+        }
+        case "place" -> count(r, current, 0);
+        case "transition" -> count(r, current, 1);
+        case "arc" -> count(r, current, 2);
+        case "referencePlace", "referenceTransition" -> count(r, current, 3);
+        default -> StaxPNMLParser.skip(r);
+      }
+      depth--;
+    }
+    return new PNMLPageIndex(netName, pages);
+  }
+
+  private static void count(XMLStreamReader r, OpenPage page, int kind) throws XMLStreamException {
+    if (page != null) {
+      switch (kind) {
+        case 0 -> page.places++;
+        case 1 -> page.transitions++;
+        case 2 -> page.arcs++;
+        default -> page.references++;
+      }
+    }
+    StaxPNMLParser.skip(r);
+  }
+
+  /**
+   * @return name of the net, or null if it has none
+   */
+  public String getNetName() {
+    return netName;
+  }
+
+  /**
+   * @return every page of the net, in document order
+   */
+  public List<PageInfo> getPages() {
+    return pages;
+  }
+
+  /**
+   * @return total number of places over all the pages
+   */
+  public int getPlaceCount() {
+    return pages.stream().mapToInt(PageInfo::places).sum();
+  }
+
+  /**
+   * @return total number of transitions over all the pages
+   */
+  public int getTransitionCount() {
+    return pages.stream().mapToInt(PageInfo::transitions).sum();
+  }
+
+  /**
+   * @return total number of arcs over all the pages
+   */
+  public int getArcCount() {
+    return pages.stream().mapToInt(PageInfo::arcs).sum();
+  }
+}
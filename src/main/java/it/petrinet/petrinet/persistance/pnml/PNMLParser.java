@@ -1,6 +1,7 @@
 package it.petrinet.petrinet.persistance.pnml;
 
 import it.petrinet.petrinet.builder.PetriNetBuilder;
+import it.petrinet.petrinet.model.ARC_TYPE;
 import it.petrinet.petrinet.model.PLACE_TYPE;
 import it.petrinet.petrinet.model.PetriNetModel;
 import it.petrinet.petrinet.model.TRANSITION_TYPE;
@@ -22,7 +23,7 @@ public class PNMLParser implements NetParser {
     PetriNetModel netModel = new PetriNetModel();
 
     try {
-      Document doc = PNMLUtils.addNamespaceProperly(new File(path), PNML_NS);
+      Document doc = PNMLUtils.parseNormalized(new File(path), PNML_NS);
       // DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
       // factory.setNamespaceAware(true);
       // DocumentBuilder builder = factory.newDocumentBuilder();
@@ -113,7 +114,11 @@ public class PNMLParser implements NetParser {
         Element arcEl = (Element) arcs.item(i);
         String sourceId = arcEl.getAttribute("source");
         String targetId = arcEl.getAttribute("target");
-        netBuilder.addArc(sourceId, targetId);
+        String weight = extractText(arcEl, PNML_NS, "inscription");
+        netBuilder.addArc(sourceId, targetId, weight != null ? Integer.parseInt(weight) : 1,
+            !arcEl.getAttribute("type").isEmpty()
+                ? ARC_TYPE.valueOf(arcEl.getAttribute("type").toUpperCase())
+                : ARC_TYPE.NORMAL);
       }
 
       netModel = netBuilder.build();
@@ -1,5 +1,6 @@
 package it.petrinet.petrinet.persistance.pnml;
 
+import it.petrinet.petrinet.model.ARC_TYPE;
 import it.petrinet.petrinet.model.Node;
 import it.petrinet.petrinet.model.PetriNetModel;
 import it.petrinet.petrinet.model.Place;
@@ -77,6 +78,18 @@ public class PNMLSerializer implements NetSerializer {
           arcEl.setAttribute("id", fromNode.getName() + "_" + toNode.getName());
           arcEl.setAttribute("source", fromNode.getName());
           arcEl.setAttribute("target", toNode.getName());
+          ARC_TYPE type = net.getArcType(fromNode, toNode);
+          if (type != ARC_TYPE.NORMAL) {
+            arcEl.setAttribute("type", type.toString());
+          }
+          int weight = net.getWeight(fromNode, toNode);
+          if (weight != 1) {
+            Element inscription = doc.createElementNS(PNMLUtils.PNML_NS, "inscription");
+            Element text = doc.createElementNS(PNMLUtils.PNML_NS, "text");
+            text.setTextContent(String.valueOf(weight));
+            inscription.appendChild(text);
+            arcEl.appendChild(inscription);
+          }
           pageEl.appendChild(arcEl);
         }
       }
@@ -0,0 +1,401 @@
+package it.petrinet.petrinet.persistance.pnml;
+
+import it.petrinet.petrinet.builder.PetriNetBuilder;
+import it.petrinet.petrinet.model.ARC_TYPE;
+import it.petrinet.petrinet.model.PLACE_TYPE;
+import it.petrinet.petrinet.model.PetriNetModel;
+import it.petrinet.petrinet.model.TRANSITION_TYPE;
+import it.petrinet.petrinet.persistance.NetParser;
+import it.petrinet.petrinet.persistance.metadata.PNMLUtils;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streaming PNML parser.
+ * <p>
+ * Reads the file in a single forward pass with an {@link XMLStreamReader}:
+ * every place and transition is handed to a {@link PetriNetBuilder} as soon
+ * as its element ends, so no DOM is built and the memory used beyond the model
+ * does not depend on the size of the file. Elements without a namespace are
+ * read as PNML through a
+ * {@link it.petrinet.petrinet.persistance.metadata.NamespaceNormalizingReader},
+ * so such files are never rewritten on disk. Elements of other namespaces
+ * (tool-specific data) are skipped.
+ * </p>
+ * <p>
+ * All the pages of the first net, nested pages included, are flattened into
+ * one model; reference places and transitions are replaced by the nodes they
+ * refer to. {@link #parsePages(String, Collection)} reads only some pages,
+ * which together with {@link PNMLPageIndex} lets huge files be opened one
+ * part at a time.
+ * </p>
+ */
+public class StaxPNMLParser implements NetParser {
+
+  @Override
+  public PetriNetModel parse(String path) throws IOException {
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(Path.of(path)))) {
+      return parse(in);
+    }
+  }
+
+  /**
+   * Parses only some pages of a PNML file, with the pages nested in them.
+   * The other pages are skipped without building their nodes; arcs with an
+   * end outside the selected pages are dropped. The selection must still
+   * contain the start and end places of the net.
+   *
+   * @param path    the file
+   * @param pageIds ids of the pages to read, as listed by {@link PNMLPageIndex}
+   * @return the flattened model of the selected pages
+   * @throws IOException if the file cannot be read
+   */
+  public PetriNetModel parsePages(String path, Collection<String> pageIds) throws IOException {
+    Set<String> selected = Set.copyOf(pageIds);
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(Path.of(path)))) {
+      return parse(in, selected::contains, false);
+    }
+  }
+
+  /**
+   * Parses a PNML document from a stream, which is not closed. Gzip
+   * compressed documents are recognized from their first bytes.
+   *
+   * @param in the document
+   * @return the parsed model
+   * @throws IOException if the stream cannot be read
+   */
+  public PetriNetModel parse(InputStream in) throws IOException {
+    return parse(in, page -> true, true);
+  }
+
+  private PetriNetModel parse(InputStream in, Predicate<String> pages, boolean complete) throws IOException {
+    XMLStreamReader reader = null;
+    try {
+      reader = open(in);
+      return readDocument(reader, pages, complete);
+    } catch (XMLStreamException e) {
+      if (e.getNestedException() instanceof IOException io) {
+        throw io;
+      }
+      throw new RuntimeException("Error parsing PNML file: " + e.getMessage(), e);
+    } catch (Exception e) {
+      throw new RuntimeException("Error parsing PNML file: " + e.getMessage(), e);
+    } finally {
+      if (reader != null) {
+        try {
+          reader.close();
+        } catch (XMLStreamException ignored) {
+          // the underlying stream is owned by the caller
+        }
+      }
+    }
+  }
+
+  /**
+   * Opens a namespace-normalizing reader on a plain or gzip compressed
+   * document.
+   */
+  static XMLStreamReader open(InputStream in) throws IOException, XMLStreamException {
+    InputStream buffered = in.markSupported() ? in : new BufferedInputStream(in);
+    buffered.mark(2);
+    int b0 = buffered.read();
+    int b1 = buffered.read();
+    buffered.reset();
+    if (b0 == (GZIPInputStream.GZIP_MAGIC & 0xff) && b1 == (GZIPInputStream.GZIP_MAGIC >>> 8)) {
+      buffered = new GZIPInputStream(buffered);
+    }
+    return PNMLUtils.createNormalizingReader(buffered, PNMLUtils.PNML_NS);
+  }
+
+  /**
+   * Reads the first net of the document, flattening its pages: nodes of every
+   * selected page (and of the pages nested in it) go into one builder, and
+   * arcs are added at the end, once reference nodes can be resolved to the
+   * nodes they stand for.
+   */
+  private PetriNetModel readDocument(XMLStreamReader r, Predicate<String> pages, boolean complete)
+      throws Exception {
+    PetriNetBuilder netBuilder = new PetriNetBuilder(null);
+    Set<String> nodeIds = new HashSet<>();
+    Map<String, String> references = new HashMap<>();
+    List<PendingArc> arcs = new ArrayList<>();
+    boolean hasName = false;
+    int pageCount = 0;
+    int selectedCount = 0;
+    int depth = 0;
+    int netDepth = -1;
+    // depth of the outermost selected page being read, -1 outside of it
+    int selectedDepth = -1;
+
+    while (r.hasNext()) {
+      int event = r.next();
+      if (event == XMLStreamConstants.END_ELEMENT) {
+        if (depth == netDepth) {
+          // only the first net of the document is read
+          break;
+        }
+        if (depth == selectedDepth) {
+          selectedDepth = -1;
+        }
+        depth--;
+        continue;
+      }
+      if (event != XMLStreamConstants.START_ELEMENT) {
+        continue;
+      }
+      depth++;
+      String local = r.getLocalName();
+      if (!isPnml(r)) {
+        skip(r);
+        depth--;
+      } else if (netDepth < 0) {
+        if (local.equals("net")) {
+          netDepth = depth;
+        }
+      } else if (local.equals("page")) {
+        // pages are entered even when not selected, for their subpages
+        pageCount++;
+        if (selectedDepth < 0 && pages.test(r.getAttributeValue(null, "id"))) {
+          selectedDepth = depth;
+          selectedCount++;
+        }
+      } else if (depth == netDepth + 1 && local.equals("name")) {
+        netBuilder.setPetriName(readLabel(r));
+        hasName = true;
+        depth--;
+      } else if (selectedDepth >= 0 && isNode(local)) {
+        String id = r.getAttributeValue(null, "id");
+        switch (local) {
+          case "place" -> {
+            nodeIds.add(id);
+            netBuilder = readPlace(r, netBuilder);
+          }
+          case "transition" -> {
+            nodeIds.add(id);
+            netBuilder = readTransition(r, netBuilder);
+          }
+          case "arc" -> arcs.add(readArc(r));
+          default -> {
+            references.put(id, r.getAttributeValue(null, "ref"));
+            skip(r);
+          }
+        }
+        depth--;
+      } else {
+        skip(r);
+        depth--;
+      }
+    }
+
+    if (netDepth < 0) {
+      throw new RuntimeException("No <net> found");
+    }
+    if (!hasName) {
+      throw new RuntimeException("No <name> found in <net> element");
+    }
+    if (pageCount == 0) {
+      throw new RuntimeException("No <page> found in <net> element");
+    }
+    if (selectedCount == 0) {
+      throw new RuntimeException("None of the requested pages found in <net> element");
+    }
+
+    for (PendingArc arc : arcs) {
+      String source = resolve(references, arc.source());
+      String target = resolve(references, arc.target());
+      if (complete || nodeIds.contains(source) && nodeIds.contains(target)) {
+        netBuilder.addArc(source, target, arc.weight(), arc.type());
+      }
+    }
+    return netBuilder.build();
+  }
+
+  /** An arc read from the file, added to the builder once all pages are read. */
+  private record PendingArc(String source, String target, int weight, ARC_TYPE type) {
+  }
+
+  /**
+   * Reads an arc up to its end tag; the weight is the {@code <inscription>},
+   * 1 if absent, and the kind the {@code type} attribute, normal if absent.
+   */
+  private static PendingArc readArc(XMLStreamReader r) throws XMLStreamException {
+    String source = r.getAttributeValue(null, "source");
+    String target = r.getAttributeValue(null, "target");
+    String type = r.getAttributeValue(null, "type");
+    int weight = 1;
+    while (nextChild(r)) {
+      if (isPnml(r) && r.getLocalName().equals("inscription")) {
+        String text = readLabel(r);
+        if (text != null) {
+          weight = Integer.parseInt(text);
+        }
+      } else {
+        skip(r);
+      }
+    }
+    return new PendingArc(source, target, weight,
+        type != null && !type.isEmpty() ? ARC_TYPE.valueOf(type.toUpperCase()) : ARC_TYPE.NORMAL);
+  }
+
+  private static boolean isNode(String local) {
+    return switch (local) {
+      case "place", "transition", "arc", "referencePlace", "referenceTransition" -> true;
+      default -> false;
+    };
+  }
+
+  /**
+   * Follows a chain of reference nodes up to the place or transition it
+   * stands for; ids that are not references are returned unchanged.
+   */
+  private static String resolve(Map<String, String> references, String id) {
+    String current = id;
+    for (int hops = 0; references.containsKey(current); hops++) {
+      if (hops > references.size()) {
+        throw new RuntimeException("Cyclic reference node: " + id);
+      }
+      current = references.get(current);
+    }
+    return current;
+  }
+
+  private PetriNetBuilder readPlace(XMLStreamReader r, PetriNetBuilder netBuilder) throws XMLStreamException {
+    String type = r.getAttributeValue(null, "type");
+    PetriNetBuilder.PlaceBuilder placeBuilder = netBuilder
+        .newPlace(r.getAttributeValue(null, "id"))
+        .withType(type != null && !type.isEmpty()
+            ? PLACE_TYPE.valueOf(type.toUpperCase())
+            : PLACE_TYPE.NORMAL);
+
+    while (nextChild(r)) {
+      String local = r.getLocalName();
+      if (isPnml(r) && local.equals("initialMarking")) {
+        String text = readLabel(r);
+        if (text != null) {
+          placeBuilder.initialMarking(Integer.parseInt(text));
+        }
+      } else if (isPnml(r) && local.equals("graphics")) {
+        int[] offset = readOffset(r);
+        if (offset != null) {
+          placeBuilder.withPosition(offset[0], offset[1]);
+        }
+      } else {
+        skip(r);
+      }
+    }
+    return placeBuilder.donePlace();
+  }
+
+  private PetriNetBuilder readTransition(XMLStreamReader r, PetriNetBuilder netBuilder) throws XMLStreamException {
+    String type = r.getAttributeValue(null, "type");
+    PetriNetBuilder.TransitionBuilder transitionBuilder = netBuilder
+        .newTransition(r.getAttributeValue(null, "id"))
+        .withType(type != null && !type.isEmpty()
+            ? TRANSITION_TYPE.valueOf(type.toUpperCase())
+            : TRANSITION_TYPE.USER);
+
+    while (nextChild(r)) {
+      if (isPnml(r) && r.getLocalName().equals("graphics")) {
+        int[] offset = readOffset(r);
+        if (offset != null) {
+          transitionBuilder.withPosition(offset[0], offset[1]);
+        }
+      } else {
+        skip(r);
+      }
+    }
+    return transitionBuilder.doneTransition();
+  }
+
+  /**
+   * Reads a label element ({@code <name>}, {@code <initialMarking>}) up to its
+   * end tag.
+   *
+   * @return the trimmed content of its {@code <text>} child, or null if absent
+   */
+  static String readLabel(XMLStreamReader r) throws XMLStreamException {
+    String text = null;
+    while (nextChild(r)) {
+      if (text == null && isPnml(r) && r.getLocalName().equals("text")) {
+        text = r.getElementText().trim();
+      } else {
+        skip(r);
+      }
+    }
+    return text;
+  }
+
+  /**
+   * Reads a {@code <graphics>} element up to its end tag.
+   *
+   * @return the {@code x, y} of its {@code <offset>} child, or null if absent
+   */
+  private static int[] readOffset(XMLStreamReader r) throws XMLStreamException {
+    int[] offset = null;
+    while (nextChild(r)) {
+      if (offset == null && isPnml(r) && r.getLocalName().equals("offset")) {
+        offset = new int[] {
+            (int) Float.parseFloat(r.getAttributeValue(null, "x")),
+            (int) Float.parseFloat(r.getAttributeValue(null, "y"))
+        };
+      }
+      skip(r);
+    }
+    return offset;
+  }
+
+  /**
+   * Moves to the next child of the current element, ignoring text and
+   * comments.
+   *
+   * @return true on the start tag of a child, false on the end tag of the
+   *         current element
+   */
+  private static boolean nextChild(XMLStreamReader r) throws XMLStreamException {
+    while (true) {
+      int event = r.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        return true;
+      }
+      if (event == XMLStreamConstants.END_ELEMENT) {
+        return false;
+      }
+    }
+  }
+
+  /**
+   * Consumes the current element, with all its content, up to its end tag.
+   */
+  static void skip(XMLStreamReader r) throws XMLStreamException {
+    int depth = 1;
+    while (depth > 0) {
+      int event = r.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        depth++;
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        depth--;
+      }
+    }
+  }
+
+  static boolean isPnml(XMLStreamReader r) {
+    return PNMLUtils.PNML_NS.equals(r.getNamespaceURI());
+  }
+}
@@ -0,0 +1,251 @@
+package it.petrinet.petrinet.persistance.pnml;
+
+import it.petrinet.petrinet.model.ARC_TYPE;
+import it.petrinet.petrinet.model.Node;
+import it.petrinet.petrinet.model.PetriNetModel;
+import it.petrinet.petrinet.model.Place;
+import it.petrinet.petrinet.model.Transition;
+import it.petrinet.petrinet.persistance.NetSerializer;
+import it.petrinet.petrinet.persistance.metadata.PNMLUtils;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streaming serializer for PetriNetModel objects to PNML files.
+ * <p>
+ * Writes places, transitions and arcs directly to a buffered stream with an
+ * {@link XMLStreamWriter}, so no DOM is built and the memory used does not
+ * depend on the size of the net. The output has the same structure as the one
+ * of {@link PNMLSerializer} and can be read by both PNML parsers; gzip
+ * compressed files are recognized by {@link StaxPNMLParser}.
+ * </p>
+ * Usage:
+ *
+ * <pre>
+ * new StaxPNMLSerializer(Path.of(NavigationHelper.netDirectory)).serialize(model);
+ * new StaxPNMLSerializer().write(model, Path.of("export/net.pnml.gz"));
+ * </pre>
+ */
+public class StaxPNMLSerializer implements NetSerializer {
+
+  private static final XMLOutputFactory FACTORY = XMLOutputFactory.newFactory();
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final Path outputDirectory;
+  private final boolean gzip;
+
+  /**
+   * @param outputDirectory directory where {@link #serialize(PetriNetModel)}
+   *                        writes {@code <net name>.pnml}
+   * @param gzip            whether the files are gzip compressed, in which case
+   *                        {@code .gz} is appended to their name
+   */
+  public StaxPNMLSerializer(Path outputDirectory, boolean gzip) {
+    this.outputDirectory = outputDirectory;
+    this.gzip = gzip;
+  }
+
+  public StaxPNMLSerializer(Path outputDirectory) {
+    this(outputDirectory, false);
+  }
+
+  /**
+   * Creates a serializer without an output directory, usable only through the
+   * {@code write} methods.
+   */
+  public StaxPNMLSerializer() {
+    this(null, false);
+  }
+
+  /**
+   * Serializes the given PetriNetModel to a file named after the net in the
+   * output directory.
+   *
+   * @param net the PetriNetModel to serialize
+   * @throws IOException if an I/O error occurs during serialization
+   */
+  @Override
+  public void serialize(PetriNetModel net) throws IOException {
+    if (outputDirectory == null) {
+      throw new IllegalStateException("No output directory configured");
+    }
+    Files.createDirectories(outputDirectory);
+    write(net, outputDirectory.resolve(net.getName() + (gzip ? ".pnml.gz" : ".pnml")));
+  }
+
+  /**
+   * Writes the net to a file, replacing it if it exists. The file is gzip
+   * compressed if its name ends with {@code .gz}.
+   *
+   * @param net  the net
+   * @param file the destination
+   * @throws IOException if an I/O error occurs
+   */
+  public void write(PetriNetModel net, Path file) throws IOException {
+    boolean compressed = file.getFileName().toString().endsWith(".gz");
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE)) {
+      write(net, out, compressed);
+    }
+  }
+
+  /**
+   * Writes the net to a stream, which is flushed but not closed.
+   *
+   * @param net        the net
+   * @param out        the destination
+   * @param compressed whether to gzip the document
+   * @throws IOException if an I/O error occurs
+   */
+  public void write(PetriNetModel net, OutputStream out, boolean compressed) throws IOException {
+    if (compressed) {
+      GZIPOutputStream zip = new GZIPOutputStream(out, BUFFER_SIZE);
+      writeDocument(net, zip);
+      zip.finish();
+    } else {
+      writeDocument(net, out);
+    }
+    out.flush();
+  }
+
+  private void writeDocument(PetriNetModel net, OutputStream out) throws IOException {
+    try {
+      XMLStreamWriter w = FACTORY.createXMLStreamWriter(out, "UTF-8");
+      w.writeStartDocument("UTF-8", "1.0");
+      newLine(w, 0);
+      w.setDefaultNamespace(PNMLUtils.PNML_NS);
+      w.writeStartElement(PNMLUtils.PNML_NS, "pnml");
+      w.writeDefaultNamespace(PNMLUtils.PNML_NS);
+      newLine(w, 1);
+      w.writeStartElement(PNMLUtils.PNML_NS, "net");
+      w.writeAttribute("id", String.valueOf(net.getName()));
+      w.writeAttribute("type", PNMLUtils.PNML_NS);
+      if (net.getName() != null) {
+        newLine(w, 2);
+        w.writeStartElement(PNMLUtils.PNML_NS, "name");
+        w.writeStartElement(PNMLUtils.PNML_NS, "text");
+        w.writeCharacters(net.getName());
+        w.writeEndElement();
+        w.writeEndElement();
+      }
+      newLine(w, 2);
+      w.writeStartElement(PNMLUtils.PNML_NS, "page");
+      w.writeAttribute("id", "page1");
+
+      for (Node n : net.getNodes()) {
+        if (n instanceof Place p) {
+          writePlace(w, p);
+        } else if (n instanceof Transition t) {
+          writeTransition(w, t);
+        }
+      }
+
+      for (Map.Entry<Node, List<Node>> entry : net.getConnections().entrySet()) {
+        Node fromNode = entry.getKey();
+        for (Node toNode : entry.getValue()) {
+          int weight = net.getWeight(fromNode, toNode);
+          ARC_TYPE type = net.getArcType(fromNode, toNode);
+          newLine(w, 3);
+          if (weight == 1) {
+            w.writeEmptyElement(PNMLUtils.PNML_NS, "arc");
+          } else {
+            w.writeStartElement(PNMLUtils.PNML_NS, "arc");
+          }
+          w.writeAttribute("id", fromNode.getName() + "_" + toNode.getName());
+          w.writeAttribute("source", fromNode.getName());
+          w.writeAttribute("target", toNode.getName());
+          if (type != ARC_TYPE.NORMAL) {
+            w.writeAttribute("type", type.toString());
+          }
+          if (weight != 1) {
+            w.writeStartElement(PNMLUtils.PNML_NS, "inscription");
+            w.writeStartElement(PNMLUtils.PNML_NS, "text");
+            w.writeCharacters(String.valueOf(weight));
+            w.writeEndElement();
+            w.writeEndElement();
+            w.writeEndElement();
+          }
+        }
+      }
+
+      newLine(w, 2);
+      w.writeEndElement(); // page
+      newLine(w, 1);
+      w.writeEndElement(); // net
+      newLine(w, 0);
+      w.writeEndElement(); // pnml
+      newLine(w, 0);
+      w.writeEndDocument();
+      w.close();
+    } catch (XMLStreamException e) {
+      throw new IOException("Error writing PNML: " + e.getMessage(), e);
+    }
+  }
+
+  private void writePlace(XMLStreamWriter w, Place p) throws XMLStreamException {
+    newLine(w, 3);
+    w.writeStartElement(PNMLUtils.PNML_NS, "place");
+    w.writeAttribute("id", p.getName());
+    w.writeAttribute("type", p.getType().toString());
+    newLine(w, 4);
+    w.writeStartElement(PNMLUtils.PNML_NS, "name");
+    w.writeCharacters(p.getName());
+    w.writeEndElement();
+    if (p.getPlaceTokens() > 0) {
+      newLine(w, 4);
+      w.writeStartElement(PNMLUtils.PNML_NS, "initialMarking");
+      w.writeStartElement(PNMLUtils.PNML_NS, "text");
+      w.writeCharacters(String.valueOf(p.getPlaceTokens()));
+      w.writeEndElement();
+      w.writeEndElement();
+    }
+    writeGraphics(w, p);
+    newLine(w, 3);
+    w.writeEndElement();
+  }
+
+  private void writeTransition(XMLStreamWriter w, Transition t) throws XMLStreamException {
+    newLine(w, 3);
+    w.writeStartElement(PNMLUtils.PNML_NS, "transition");
+    w.writeAttribute("id", t.getName());
+    w.writeAttribute("type", t.getType().toString());
+    newLine(w, 4);
+    w.writeStartElement(PNMLUtils.PNML_NS, "name");
+    w.writeCharacters(t.getName());
+    w.writeEndElement();
+    writeGraphics(w, t);
+    newLine(w, 3);
+    w.writeEndElement();
+  }
+
+  private void writeGraphics(XMLStreamWriter w, Node n) throws XMLStreamException {
+    if (n.getPosition() != null) {
+      newLine(w, 4);
+      w.writeStartElement(PNMLUtils.PNML_NS, "graphics");
+      w.writeEmptyElement(PNMLUtils.PNML_NS, "offset");
+      w.writeAttribute("x", String.valueOf(n.getPosition().getX()));
+      w.writeAttribute("y", String.valueOf(n.getPosition().getY()));
+      w.writeEndElement();
+    }
+  }
+
+  /**
+   * Starts a new line indented by the given level; cheaper than an indenting
+   * transformer and keeps the files readable and diffable.
+   */
+  private static void newLine(XMLStreamWriter w, int level) throws XMLStreamException {
+    w.writeCharacters("\n");
+    for (int i = 0; i < level; i++) {
+      w.writeCharacters("  ");
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package it.petrinet.petrinet.simulation;
+
+import it.petrinet.petrinet.engine.EnabledSet;
+import it.petrinet.petrinet.model.TRANSITION_TYPE;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Chooses which enabled transition fires next during a simulated run.
+ * <p>
+ * Implementations must be stateless (or at least thread safe): the same policy
+ * is shared by every worker of a {@link MonteCarloSimulator}, and all the
+ * randomness has to come from the generator passed in, which belongs to the
+ * current run.
+ * </p>
+ */
+@FunctionalInterface
+public interface FiringPolicy {
+
+  /**
+   * @param enabled the enabled transitions, never empty
+   * @param marking the current marking, must not be modified
+   * @param random  the generator of the current run
+   * @return the transition to fire, one of {@code enabled}
+   */
+  int choose(EnabledSet enabled, int[] marking, SplittableRandom random);
+
+  /**
+   * @return a policy picking every enabled transition with the same
+   *         probability
+   */
+  static FiringPolicy uniform() {
+    return (enabled, marking, random) -> enabled.get(random.nextInt(enabled.size()));
+  }
+
+  /**
+   * Returns a policy where each enabled transition is picked with probability
+   * proportional to the weight of its type, for example to model an admin that
+   * acts less often than users. Types missing from the map have weight 1; if
+   * all enabled transitions have weight 0 one of them is picked uniformly.
+   *
+   * @param weights non-negative weight per transition type
+   * @return the policy
+   */
+  static FiringPolicy weightedByType(Map<TRANSITION_TYPE, Double> weights) {
+    TRANSITION_TYPE[] types = TRANSITION_TYPE.values();
+    double[] typeWeights = new double[types.length];
+    for (TRANSITION_TYPE type : types) {
+      double weight = weights.getOrDefault(type, 1.0);
+      if (!(weight >= 0)) {
+        throw new IllegalArgumentException("Invalid weight for " + type + ": " + weight);
+      }
+      typeWeights[type.ordinal()] = weight;
+    }
+
+    return (enabled, marking, random) -> {
+      // pick the type first (weight x enabled count), then a transition of that
+      // type by rejection: the enabled set keeps counts per type, not lists
+      double total = 0;
+      for (TRANSITION_TYPE type : types) {
+        total += typeWeights[type.ordinal()] * enabled.count(type);
+      }
+      if (total == 0) {
+        return enabled.get(random.nextInt(enabled.size()));
+      }
+      double target = random.nextDouble(total);
+      TRANSITION_TYPE chosen = null;
+      for (TRANSITION_TYPE type : types) {
+        target -= typeWeights[type.ordinal()] * enabled.count(type);
+        if (enabled.count(type) > 0 && typeWeights[type.ordinal()] > 0) {
+          chosen = type;
+          if (target < 0) {
+            break;
+          }
+        }
+      }
+      while (true) {
+        int t = enabled.get(random.nextInt(enabled.size()));
+        if (enabled.getNet().transitionType(t) == chosen) {
+          return t;
+        }
+      }
+    };
+  }
+}
@@ -0,0 +1,132 @@
+package it.petrinet.petrinet.simulation;
+
+import java.util.Arrays;
+
+/**
+ * Aggregated outcome of a batch of simulated runs.
+ * <p>
+ * Every run ends in one of three ways: it <i>finished</i> (a token reached the
+ * end place), it <i>deadlocked</i> (no transition enabled before finishing) or
+ * it was <i>truncated</i> at the step limit. The step-count histogram covers
+ * the finished runs only.
+ * </p>
+ */
+public class SimulationResult {
+
+  private final long[] histogram;
+  private final long finishedRuns;
+  private final long deadlockedRuns;
+  private final long truncatedRuns;
+  private final long totalSteps;
+  private final long elapsedNanos;
+
+  SimulationResult(long[] histogram, long finishedRuns, long deadlockedRuns, long truncatedRuns, long totalSteps,
+      long elapsedNanos) {
+    this.histogram = histogram;
+    this.finishedRuns = finishedRuns;
+    this.deadlockedRuns = deadlockedRuns;
+    this.truncatedRuns = truncatedRuns;
+    this.totalSteps = totalSteps;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * @return copy of the histogram: element {@code s} is the number of finished
+   *         runs that took exactly {@code s} steps
+   */
+  public long[] getHistogram() {
+    return histogram.clone();
+  }
+
+  /**
+   * @param steps number of steps
+   * @return number of finished runs that took exactly that many steps
+   */
+  public long getRunsWithSteps(int steps) {
+    return steps < histogram.length ? histogram[steps] : 0;
+  }
+
+  public long getFinishedRuns() {
+    return finishedRuns;
+  }
+
+  public long getDeadlockedRuns() {
+    return deadlockedRuns;
+  }
+
+  public long getTruncatedRuns() {
+    return truncatedRuns;
+  }
+
+  /**
+   * @return total number of firings over all runs, whatever their outcome
+   */
+  public long getTotalSteps() {
+    return totalSteps;
+  }
+
+  /**
+   * @return average number of steps of the finished runs, or NaN if none
+   *         finished
+   */
+  public double getMeanSteps() {
+    if (finishedRuns == 0) {
+      return Double.NaN;
+    }
+    double sum = 0;
+    for (int s = 0; s < histogram.length; s++) {
+      sum += (double) s * histogram[s];
+    }
+    return sum / finishedRuns;
+  }
+
+  /**
+   * @param quantile value in {@code [0, 1]}, e.g. 0.95
+   * @return smallest step count such that at least that fraction of the
+   *         finished runs took no more steps, or -1 if none finished
+   */
+  public int getStepsPercentile(double quantile) {
+    if (quantile < 0 || quantile > 1) {
+      throw new IllegalArgumentException("quantile must be in [0, 1]");
+    }
+    if (finishedRuns == 0) {
+      return -1;
+    }
+    long needed = Math.max(1, (long) Math.ceil(quantile * finishedRuns));
+    long seen = 0;
+    for (int s = 0; s < histogram.length; s++) {
+      seen += histogram[s];
+      if (seen >= needed) {
+        return s;
+      }
+    }
+    return histogram.length - 1;
+  }
+
+  /**
+   * @return firings per second over the wall-clock time of the batch
+   */
+  public double getStepsPerSecond() {
+    return elapsedNanos == 0 ? 0 : totalSteps * 1e9 / elapsedNanos;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    // wall-clock time excluded: two batches with the same seed are equal
+    return o instanceof SimulationResult other && Arrays.equals(histogram, other.histogram)
+        && finishedRuns == other.finishedRuns && deadlockedRuns == other.deadlockedRuns
+        && truncatedRuns == other.truncatedRuns && totalSteps == other.totalSteps;
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(histogram) * 31 + Long.hashCode(totalSteps);
+  }
+
+  @Override
+  public String toString() {
+    return "SimulationResult{finished=%d, deadlocked=%d, truncated=%d, meanSteps=%.2f, p95=%d, steps/s=%.0f}"
+        .formatted(finishedRuns, deadlockedRuns, truncatedRuns, getMeanSteps(), getStepsPercentile(0.95),
+            getStepsPerSecond());
+  }
+}
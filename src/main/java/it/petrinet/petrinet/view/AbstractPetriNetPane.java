@@ -118,6 +118,7 @@ public abstract class AbstractPetriNetPane extends Pane {
     g = new DigraphEdgeList<>();
     SmartPlacementStrategy initialPlacement = new SmartRandomPlacementStrategy();
     graphView = new SmartGraphPanel<>(g, properties, initialPlacement, styleURI);
+    FxAdapters.bind(graphView);
     contentZoomScrollPane = new ContentZoomScrollPane(graphView);
 
     graphView.setPrefHeight(1080);
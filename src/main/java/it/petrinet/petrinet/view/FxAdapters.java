@@ -0,0 +1,45 @@
+package it.petrinet.petrinet.view;
+
+import com.brunomnsilva.smartgraph.graphview.SmartGraphPanel;
+import it.petrinet.petrinet.model.Node;
+import it.petrinet.petrinet.model.Position;
+import javafx.geometry.Point2D;
+
+/**
+ * Bridges the JavaFX-free model and the graph panels.
+ * <p>
+ * The model stores {@link Position}s and carries no SmartGraph annotations;
+ * the panes convert coordinates here and register the vertex label and shape
+ * through {@link #bind(SmartGraphPanel)} instead.
+ * </p>
+ */
+public final class FxAdapters {
+
+  private FxAdapters() {
+  }
+
+  /**
+   * @return the point at the position, null if the position is null
+   */
+  public static Point2D toPoint2D(Position position) {
+    return position == null ? null : new Point2D(position.getX(), position.getY());
+  }
+
+  /**
+   * @return the position of the point, null if the point is null
+   */
+  public static Position toPosition(Point2D point) {
+    return point == null ? null : new Position(point.getX(), point.getY());
+  }
+
+  /**
+   * Labels the vertices of the panel with the node names and draws them with
+   * {@link Node#modelShape()}. Must be called before any vertex is shown.
+   *
+   * @param graphView the panel
+   */
+  public static void bind(SmartGraphPanel<Node, String> graphView) {
+    graphView.setVertexLabelProvider(Node::getName);
+    graphView.setVertexShapeTypeProvider(Node::modelShape);
+  }
+}
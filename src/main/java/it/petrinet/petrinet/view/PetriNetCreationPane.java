@@ -11,10 +11,10 @@ import com.brunomnsilva.smartgraph.graphview.SmartRandomPlacementStrategy;
 import it.petrinet.petrinet.IllegalConnectionException;
 import it.petrinet.petrinet.builder.PetriNetBuilder;
 import it.petrinet.petrinet.model.*;
-import it.petrinet.petrinet.persistance.pnml.PNMLSerializer;
+import it.petrinet.petrinet.persistance.NetStore;
+import it.petrinet.utils.NavigationHelper;
 import javafx.animation.PauseTransition;
 import javafx.application.Application;
-import javafx.geometry.Point2D;
 import javafx.scene.control.*;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.layout.HBox;
@@ -23,6 +23,7 @@ import javafx.scene.layout.VBox;
 import javafx.util.Duration;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Optional;
 import java.util.function.Consumer;
 
@@ -63,6 +64,7 @@ public class PetriNetCreationPane extends Pane {
   private PetriNetBuilder petriNetBuilder;
 
   private Consumer<String> onPetriNetSaved = null;
+  private String storedPath = null;
 
   private boolean firstStart = true; // To ensure the scene is initialized only IllegalConnectionException
   private boolean initialized;
@@ -77,6 +79,14 @@ public class PetriNetCreationPane extends Pane {
     this.onPetriNetSaved = onPetriNetSaved;
   }
 
+  /**
+   * @return path of the last saved net relative to the net directory, to be
+   *         stored as its {@code XML_PATH}; null if the net was never saved
+   */
+  public String getStoredPath() {
+    return storedPath;
+  }
+
   /**
    * Sets the current mode of the Petri Net creation pane.
    * This method allows switching between different modes such as:
@@ -144,7 +154,10 @@ public class PetriNetCreationPane extends Pane {
     try {
       prepareNodes(); // Ensure all nodes have their positions set
       model = petriNetBuilder.build();
-      serializePetriNet(model);
+      if (!serializePetriNet(model)) {
+        showMessage(AlertType.ERROR, "Error", "Save Error", "The Petri Net could not be written to disk.");
+        return;
+      }
       if (onPetriNetSaved != null)
         onPetriNetSaved.accept(model.getName());
     } catch (IllegalConnectionException e1) {
@@ -231,6 +244,7 @@ public class PetriNetCreationPane extends Pane {
     g = new DigraphEdgeList<>();
     SmartPlacementStrategy initialPlacement = new SmartRandomPlacementStrategy();
     graphView = new SmartGraphPanel<>(g, initialPlacement);
+    FxAdapters.bind(graphView);
 
     VBox vBox = new VBox();
 
@@ -359,7 +373,7 @@ public class PetriNetCreationPane extends Pane {
 
         Vertex<Node> newVertex = g
             .insertVertex(createNode(nodeLabel, currentNodeType.toString(),
-                point));
+                FxAdapters.toPosition(point)));
         graphView.updateAndWait();
 
         Vertex<Node> v = graphView.getModel().vertices().stream()
@@ -676,7 +690,7 @@ public class PetriNetCreationPane extends Pane {
   }
 
   // Replace the CustomVertex usage with factory methods
-  private Node createNode(String label, String type, Point2D position) {
+  private Node createNode(String label, String type, Position position) {
     if (type.contains("transition")) {
       TRANSITION_TYPE transType = TRANSITION_TYPE.USER;
       Transition transition = new Transition(label, position, transType);
@@ -694,7 +708,7 @@ public class PetriNetCreationPane extends Pane {
   }
 
   private Node createNode(String label, String type) {
-    return createNode(label, type, new Point2D(0, 0));
+    return createNode(label, type, Position.ORIGIN);
   }
 
   // check compatibility between two nodes
@@ -714,14 +728,19 @@ public class PetriNetCreationPane extends Pane {
         .noneMatch(name -> name.equals(label));
   }
 
-  private void serializePetriNet(PetriNetModel model) {
-    System.out.println("Serializing Petri Net Model to PNML format...");
-    PNMLSerializer serializer = new PNMLSerializer();
+  /**
+   * Stores the net in the net directory, writing nothing if an identical net
+   * is already stored.
+   *
+   * @return true if the net was stored
+   */
+  private boolean serializePetriNet(PetriNetModel model) {
     try {
-      serializer.serialize(model);
-      System.out.println("Serialization complete.");
+      storedPath = new NetStore(Path.of(NavigationHelper.netDirectory)).store(model);
+      return true;
     } catch (IOException e) {
       e.printStackTrace();
+      return false;
     }
   }
 
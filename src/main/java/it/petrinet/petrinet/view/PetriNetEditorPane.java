@@ -7,8 +7,9 @@ import com.brunomnsilva.smartgraph.graphview.SmartGraphVertex;
 import it.petrinet.petrinet.IllegalConnectionException;
 import it.petrinet.petrinet.builder.PetriNetBuilder;
 import it.petrinet.petrinet.model.*;
-import it.petrinet.petrinet.persistance.pnml.PNMLSerializer;
+import it.petrinet.petrinet.persistance.NetStore;
 import it.petrinet.utils.IconUtils;
+import it.petrinet.utils.NavigationHelper;
 import it.petrinet.utils.Validation;
 import it.petrinet.view.components.EnhancedAlert;
 import javafx.geometry.Point2D;
@@ -16,6 +17,7 @@ import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Optional;
 import java.util.function.Consumer;
 
@@ -46,6 +48,7 @@ public class PetriNetEditorPane extends AbstractPetriNetPane {
 
   private PetriNetBuilder petriNetBuilder;
   private Consumer<String> onPetriNetSaved = null;
+  private String storedPath = null;
 
   private boolean firstStart = true;
   private Vertex<Node> firstSelectedVertex = null; // For connection mode
@@ -152,7 +155,10 @@ public class PetriNetEditorPane extends AbstractPetriNetPane {
       try {
         prepareNodes(); // Ensure all nodes have their positions set
         model = petriNetBuilder.build();
-        serializePetriNet(model);
+        if (!serializePetriNet(model)) {
+          EnhancedAlert.showError("Save Error", "The Petri Net could not be written to disk.");
+          return;
+        }
         if (onPetriNetSaved != null)
           onPetriNetSaved.accept(model.getName());
       } catch (IllegalConnectionException e1) {
@@ -187,6 +193,14 @@ public class PetriNetEditorPane extends AbstractPetriNetPane {
     return onPetriNetSaved;
   }
 
+  /**
+   * @return path of the last saved net relative to the net directory, to be
+   *         stored as its {@code XML_PATH}; null if the net was never saved
+   */
+  public String getStoredPath() {
+    return storedPath;
+  }
+
   public boolean isFirstStart() {
     return firstStart;
   }
@@ -256,7 +270,7 @@ public class PetriNetEditorPane extends AbstractPetriNetPane {
       }
 
       // If we exit the while loop, unique is true and nodeLabel is valid
-      this.addNodeToGraph(createNode(nodeLabel, currentNodeType.toString(), point));
+      this.addNodeToGraph(createNode(nodeLabel, currentNodeType.toString(), FxAdapters.toPosition(point)));
     }
   }
 
@@ -487,14 +501,19 @@ public class PetriNetEditorPane extends AbstractPetriNetPane {
     petriNetBuilder.addArc(from, to);
   }
 
-  private void serializePetriNet(PetriNetModel model) {
-    System.out.println("Serializing Petri Net Model to PNML format...");
-    PNMLSerializer serializer = new PNMLSerializer();
+  /**
+   * Stores the net in the net directory, writing nothing if an identical net
+   * is already stored.
+   *
+   * @return true if the net was stored
+   */
+  private boolean serializePetriNet(PetriNetModel model) {
     try {
-      serializer.serialize(model);
-      System.out.println("Serialization complete.");
+      storedPath = new NetStore(Path.of(NavigationHelper.netDirectory)).store(model);
+      return true;
     } catch (IOException e) {
       e.printStackTrace();
+      return false;
     }
   }
 
@@ -508,7 +527,7 @@ public class PetriNetEditorPane extends AbstractPetriNetPane {
     });
   }
 
-  private Node createNode(String label, String type, Point2D position) {
+  private Node createNode(String label, String type, Position position) {
     if (type.contains("transition")) {
       TRANSITION_TYPE transType = TRANSITION_TYPE.USER;
       Transition transition = new Transition(label, position, transType);
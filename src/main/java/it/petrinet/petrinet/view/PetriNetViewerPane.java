@@ -3,17 +3,19 @@ package it.petrinet.petrinet.view;
 import com.brunomnsilva.smartgraph.graph.Vertex;
 import com.brunomnsilva.smartgraph.graphview.SmartGraphVertex;
 import it.petrinet.model.Computation;
+import it.petrinet.petrinet.engine.CompiledNet;
+import it.petrinet.petrinet.engine.EnabledSet;
 import it.petrinet.petrinet.model.*;
-import it.petrinet.petrinet.persistance.pnml.PNMLParser;
+import it.petrinet.petrinet.persistance.PetriNetModelCache;
 import it.petrinet.service.SessionContext;
 import it.petrinet.view.ViewNavigator;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * A custom exception for errors during the view initialization.
@@ -44,8 +46,16 @@ public class PetriNetViewerPane extends AbstractPetriNetPane {
   private PetriNetModel petriNetModel;
   private boolean testMode = false; // Kept for authorization logic
 
+  // Compiled form of petriNetModel used for firing, indexed like compiledNet
+  private CompiledNet compiledNet;
+  private int[] marking;
+  private EnabledSet enabledSet;
+  private Place[] placesByIndex;
+  private Transition[] transitionsByIndex;
+  private List<Vertex<Node>> transitionVertices;
+
   // Callbacks
-  private TriConsumer<String, Map<String, Integer>, List<Transition>> onTransitionFired;
+  private TriConsumer<String, Marking, List<Transition>> onTransitionFired;
   private Runnable onPetriNetFinished;
 
   public PetriNetViewerPane(String petriNetPNML, Computation computation) {
@@ -72,15 +82,7 @@ public class PetriNetViewerPane extends AbstractPetriNetPane {
     this.computation = computation;
     this.enableInteraction(computation != null);
 
-    Map<String, Integer> initialMarking = (computation != null && !computation.getSteps().isEmpty())
-            ? computation.getSteps().getLast().getMarkingState()
-            : Map.of();
-
-    petriNetModel.getNodes().forEach(node -> {
-      if (node instanceof Place p) {
-        p.setPlaceTokens(initialMarking.getOrDefault(p.getName(), 0));
-      }
-    });
+    applyMarking(lastMarkingOf(computation));
     updateGraph();
 
     return computeAndApplyFirableTransitions();
@@ -93,16 +95,22 @@ public class PetriNetViewerPane extends AbstractPetriNetPane {
    *
    */
   public void updateComputation() {
-    Map<String, Integer> initialMarking = (computation != null && !computation.getSteps().isEmpty())
-            ? computation.getSteps().getLast().getMarkingState()
-            : Map.of();
+    applyMarking(lastMarkingOf(computation));
+  }
 
-    petriNetModel.getNodes().forEach(node -> {
-      if (node instanceof Place p) {
-        p.setPlaceTokens(initialMarking.getOrDefault(p.getName(), 0));
-      }
-    });
+  private static Marking lastMarkingOf(Computation computation) {
+    return computation != null ? computation.getLastMarking() : Marking.empty();
+  }
 
+  /**
+   * Replaces the current marking and rebuilds the enabled set from scratch.
+   */
+  private void applyMarking(Marking newMarking) {
+    marking = compiledNet.toMarking(newMarking);
+    for (int p = 0; p < placesByIndex.length; p++) {
+      placesByIndex[p].setPlaceTokens(marking[p]);
+    }
+    enabledSet.reset(marking);
   }
 
   @Override
@@ -134,21 +142,39 @@ public class PetriNetViewerPane extends AbstractPetriNetPane {
   }
 
   private void loadModelAndBuildGraph() throws IOException {
-    this.petriNetModel = new PNMLParser().parse(petriNetPNML);
-
-    Map<String, Integer> initialMarking = (computation != null && !computation.getSteps().isEmpty())
-            ? computation.getSteps().getLast().getMarkingState()
-            : Map.of();
+    this.petriNetModel = PetriNetModelCache.getInstance().get(petriNetPNML);
 
-    petriNetModel.getNodes().forEach(node -> {
-      if (node instanceof Place p) {
-        p.setPlaceTokens(initialMarking.getOrDefault(p.getName(), 0));
-      }
-      addNodeToGraph(node);
-    });
+    petriNetModel.getNodes().forEach(this::addNodeToGraph);
 
     petriNetModel.getConnections()
             .forEach((from, toNodes) -> toNodes.forEach(to -> addArcToGraph(from.getName(), to.getName())));
+
+    compileModel();
+    applyMarking(lastMarkingOf(computation));
+  }
+
+  /**
+   * Compiles the loaded model and maps every compiled index back to its model
+   * node and graph vertex, so firing never has to search the graph.
+   */
+  private void compileModel() {
+    this.compiledNet = CompiledNet.compile(petriNetModel);
+    this.enabledSet = new EnabledSet(compiledNet);
+
+    Map<String, Vertex<Node>> verticesByName = new HashMap<>();
+    getGraphVertices().forEach(v -> verticesByName.put(v.element().getName(), v));
+
+    this.placesByIndex = new Place[compiledNet.placeCount()];
+    for (int p = 0; p < placesByIndex.length; p++) {
+      placesByIndex[p] = (Place) verticesByName.get(compiledNet.placeName(p)).element();
+    }
+    this.transitionsByIndex = new Transition[compiledNet.transitionCount()];
+    this.transitionVertices = new ArrayList<>(transitionsByIndex.length);
+    for (int t = 0; t < transitionsByIndex.length; t++) {
+      Vertex<Node> vertex = verticesByName.get(compiledNet.transitionName(t));
+      transitionsByIndex[t] = (Transition) vertex.element();
+      transitionVertices.add(vertex);
+    }
   }
 
   @Override
@@ -163,8 +189,16 @@ public class PetriNetViewerPane extends AbstractPetriNetPane {
 
   private void fireTransition(Transition t, Vertex<Node> vertex) {
     // 1. Update model state (consume and produce tokens)
-    Map<String, Integer> newMarking = consumeTokensAndGetCurrentMarking(vertex);
-    produceTokens(vertex, newMarking);
+    int index = compiledNet.transitionIndex(t.getName());
+    compiledNet.fire(index, marking);
+    boolean reachedEnd = syncTouchedPlaces(index);
+    Marking newMarking = compiledNet.marking(marking);
+    enabledSet.update(index, marking);
+
+    if (reachedEnd && onPetriNetFinished != null) {
+      onPetriNetFinished.run();
+      disableInteraction();
+    }
 
     // 2. Update view
     updateGraph();
@@ -172,52 +206,38 @@ public class PetriNetViewerPane extends AbstractPetriNetPane {
     String style = (t.getType() == TRANSITION_TYPE.ADMIN) ? ADMIN_TRANSITION_STYLE : USER_TRANSITION_STYLE;
     setNodeStyle(vertex, style);
 
-    // 3. Re-calculate firable transitions and notify listeners
-    List<Transition> firableTransitions = computeAndApplyFirableTransitions();
+    // 3. Re-style the transitions whose enabling changed and notify listeners
+    List<Transition> firableTransitions = (computation != null && computation.isFinished())
+            ? computeAndApplyFirableTransitions()
+            : applyChangedFirableTransitions(index);
     if (onTransitionFired != null) {
       onTransitionFired.accept(t.getName(), newMarking, firableTransitions);
     }
   }
 
-  private Map<String, Integer> consumeTokensAndGetCurrentMarking(Vertex<Node> transitionVertex) {
-    Map<String, Integer> currentMarking = getGraphVertices().stream()
-            .filter(v -> v.element() instanceof Place)
-            .map(v -> (Place) v.element())
-            .filter(p -> p.getPlaceTokens() > 0)
-            .collect(Collectors.toMap(Place::getName, Place::getPlaceTokens));
-
-    incidentEdges(transitionVertex).stream()
-            .map(edge -> getOppositeVertex(edge, transitionVertex))
-            .forEach(placeVertex -> {
-              if (placeVertex.element() instanceof Place p) {
-                p.decrementPlaceTokens(); // Assumes weight of 1 and consuming all tokens
-                if(p.getPlaceTokens() == 0){
-                  currentMarking.remove(p.getName());
-                }else {
-                  currentMarking.put(p.getName(), p.getPlaceTokens());
-                }
-              } else {
-                throw new IllegalStateException("Transition input must be a Place.");
-              }
-            });
-    return currentMarking;
-  }
-
-  private void produceTokens(Vertex<Node> transitionVertex, Map<String, Integer> marking) {
-    outboundEdges(transitionVertex).stream()
-            .map(edge -> getOppositeVertex(edge, transitionVertex))
-            .forEach(placeVertex -> {
-              if (placeVertex.element() instanceof Place p) {
-                p.incrementPlaceTokens();
-                marking.put(p.getName(), p.getPlaceTokens());
-                if (p.getType() == PLACE_TYPE.END && onPetriNetFinished != null) {
-                  onPetriNetFinished.run();
-                  disableInteraction();
-                }
-              } else {
-                throw new IllegalStateException("Transition output must be a Place.");
-              }
-            });
+  /**
+   * Copies the tokens of the places in the pre-set and post-set of the fired
+   * transition, and of the places emptied by its reset arcs, back to the model
+   * places rendered by the graph.
+   *
+   * @return true if the transition produced a token in an end place
+   */
+  private boolean syncTouchedPlaces(int transition) {
+    for (int k = 0; k < compiledNet.inputCount(transition); k++) {
+      int p = compiledNet.inputPlace(transition, k);
+      placesByIndex[p].setPlaceTokens(marking[p]);
+    }
+    for (int k = 0; k < compiledNet.resetCount(transition); k++) {
+      int p = compiledNet.resetPlace(transition, k);
+      placesByIndex[p].setPlaceTokens(marking[p]);
+    }
+    boolean reachedEnd = false;
+    for (int k = 0; k < compiledNet.outputCount(transition); k++) {
+      int p = compiledNet.outputPlace(transition, k);
+      placesByIndex[p].setPlaceTokens(marking[p]);
+      reachedEnd |= compiledNet.placeType(p) == PLACE_TYPE.END;
+    }
+    return reachedEnd;
   }
 
   public TRANSITION_TYPE getTypeByTransitionName(String transition) {
@@ -228,43 +248,84 @@ public class PetriNetViewerPane extends AbstractPetriNetPane {
     return null;
   }
 
+  /**
+   * Styles every transition according to the current enabled set. Used when the
+   * marking is replaced as a whole; single firings go through
+   * {@link #applyChangedFirableTransitions(int)}.
+   *
+   * @return the enabled transitions
+   */
   private List<Transition> computeAndApplyFirableTransitions() {
-
-    List<Transition> firableTransitions = new ArrayList<>();
-    getGraphVertices().forEach(vertex -> {
-      if (vertex.element() instanceof Transition t) {
-        setNodeStyle(vertex, (t.getType().equals(TRANSITION_TYPE.USER) ? USER_TRANSITION_STYLE : ADMIN_TRANSITION_STYLE));
-
-        if(computation != null) {
-          if (computation.isFinished()) {
-            disableInteraction();
-            t.setIsFirable(false);
-            return;
-          }
-        }
-
-        boolean isEnabled = incidentEdges(vertex).stream()
-                .map(edge -> getOppositeVertex(edge, vertex))
-                .allMatch(node -> (((Place) node.element()).getPlaceTokens() > 0) );
-
-        if (isEnabled){
-          firableTransitions.add(t);
-        }
-
-        if (isEnabled && isUserAllowedToFire(t)) {
-          t.setIsFirable(true);
-          removeNodeStyle(vertex, ADMIN_TRANSITION_STYLE);
-          removeNodeStyle(vertex, USER_TRANSITION_STYLE);
-
-          addNodeStyle(vertex, FIRABLE_TRANSITION_STYLE);
-        }
-        else {
-          t.setIsFirable(false);
-          removeNodeStyle(vertex, FIRABLE_TRANSITION_STYLE);
-        }
+    if (computation != null && computation.isFinished()) {
+      disableInteraction();
+      for (int t = 0; t < transitionsByIndex.length; t++) {
+        setNodeStyle(transitionVertices.get(t), baseStyleOf(transitionsByIndex[t]));
+        transitionsByIndex[t].setIsFirable(false);
       }
-    });
-    return firableTransitions;
+      return new ArrayList<>();
+    }
+
+    for (int t = 0; t < transitionsByIndex.length; t++) {
+      applyFirableStyle(t);
+    }
+    return getEnabledTransitions();
+  }
+
+  /**
+   * Restyles only the transitions whose enabling changed with the last firing.
+   *
+   * @param fired index of the fired transition
+   * @return the enabled transitions
+   */
+  private List<Transition> applyChangedFirableTransitions(int fired) {
+    applyFirableStyle(fired);
+    for (int i = 0; i < enabledSet.changedCount(); i++) {
+      applyFirableStyle(enabledSet.changed(i));
+    }
+    return getEnabledTransitions();
+  }
+
+  private void applyFirableStyle(int index) {
+    Transition t = transitionsByIndex[index];
+    Vertex<Node> vertex = transitionVertices.get(index);
+
+    // the user/admin classes come after the firable one in the stylesheet and
+    // would override it, so a firable transition gets that class alone
+    if (enabledSet.contains(index) && isUserAllowedToFire(t)) {
+      t.setIsFirable(true);
+      setNodeStyle(vertex, FIRABLE_TRANSITION_STYLE);
+    } else {
+      t.setIsFirable(false);
+      setNodeStyle(vertex, baseStyleOf(t));
+    }
+  }
+
+  private static String baseStyleOf(Transition t) {
+    return t.getType().equals(TRANSITION_TYPE.USER) ? USER_TRANSITION_STYLE : ADMIN_TRANSITION_STYLE;
+  }
+
+  /**
+   * Returns the transitions enabled in the current marking, regardless of
+   * whether the logged user is allowed to fire them.
+   *
+   * @return list of enabled transitions
+   */
+  public List<Transition> getEnabledTransitions() {
+    List<Transition> result = new ArrayList<>(enabledSet.size());
+    for (int i = 0; i < enabledSet.size(); i++) {
+      result.add(transitionsByIndex[enabledSet.get(i)]);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the incrementally maintained enabled set of the current marking.
+   * Valid once the graph has been initialized.
+   *
+   * @return the enabled set
+   */
+  public EnabledSet getEnabledSet() {
+    return enabledSet;
   }
 
   private boolean isUserAllowedToFire(Transition t) {
@@ -289,7 +350,7 @@ public class PetriNetViewerPane extends AbstractPetriNetPane {
    *                          the new marking state, and a list of newly firable
    *                          transitions.
    */
-  public void setOnTransitionFired(TriConsumer<String, Map<String, Integer>, List<Transition>> onTransitionFired) {
+  public void setOnTransitionFired(TriConsumer<String, Marking, List<Transition>> onTransitionFired) {
     this.onTransitionFired = onTransitionFired;
   }
 
@@ -0,0 +1,267 @@
+package it.petrinet.service;
+
+import it.petrinet.model.PetriNet;
+import it.petrinet.model.database.PetriNetsDAO;
+import it.petrinet.petrinet.model.PetriNetModel;
+import it.petrinet.petrinet.persistance.NetStore;
+import it.petrinet.petrinet.persistance.pnml.StaxPNMLParser;
+import it.petrinet.utils.NavigationHelper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Imports every PNML file of a directory tree as a new net.
+ * <p>
+ * Files are parsed in parallel on a fixed pool; building the model applies
+ * the same rules as the creation UI (start and end place, no dangling nodes,
+ * arcs between places and transitions only). At most a few files per thread
+ * are in flight, so the memory used does not grow with the size of the tree.
+ * Valid nets are inserted in batches, each in a single transaction, and only
+ * then written to the {@link NetStore} of the net directory in canonical PNML,
+ * so nets with the same content share one file. Imported nets are inserted
+ * as not ready and then go through {@link NetVerificationService#publish}
+ * like any other net, on the same pool; the refused ones stay hidden from
+ * users and are listed in the report.
+ * </p>
+ * A file that cannot be imported is reported in the result and does not stop
+ * the import. Usage:
+ *
+ * <pre>
+ * BulkNetImporter.Report report = new BulkNetImporter("admin")
+ *     .withThreads(8)
+ *     .importDirectory(Path.of("/data/migration"));
+ * </pre>
+ */
+public class BulkNetImporter {
+
+  private static final Logger LOGGER = Logger.getLogger(BulkNetImporter.class.getName());
+  private static final String IMAGE_PATH = "image";
+
+  /**
+   * A file that was not imported.
+   *
+   * @param file   the file
+   * @param reason why it was rejected
+   */
+  public record Failure(Path file, String reason) {
+  }
+
+  /**
+   * Outcome of an import.
+   *
+   * @param scanned   number of PNML files found
+   * @param imported  number of nets inserted
+   * @param published number of inserted nets that passed verification and
+   *                  were marked as ready
+   * @param failures  the rejected files
+   * @param refused   the inserted nets that failed verification and are not
+   *                  ready
+   */
+  public record Report(int scanned, int imported, int published, List<Failure> failures, List<Failure> refused) {
+  }
+
+  /** Outcome of parsing one file: a model or an error. */
+  private record Parsed(Path file, PetriNetModel model, String error) {
+  }
+
+  /** A net inserted and written to the net directory, waiting to be published. */
+  private record Imported(Path file, PetriNet row) {
+  }
+
+  private final String creatorId;
+  private Path netDirectory = Path.of(NavigationHelper.netDirectory);
+  private int threads = Runtime.getRuntime().availableProcessors();
+  private int batchSize = 500;
+
+  /**
+   * @param creatorId username of the admin the imported nets belong to
+   */
+  public BulkNetImporter(String creatorId) {
+    this.creatorId = creatorId;
+  }
+
+  public BulkNetImporter withThreads(int threads) {
+    if (threads <= 0) {
+      throw new IllegalArgumentException("threads must be positive");
+    }
+    this.threads = threads;
+    return this;
+  }
+
+  /**
+   * Sets the number of nets inserted per transaction.
+   */
+  public BulkNetImporter withBatchSize(int batchSize) {
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("batchSize must be positive");
+    }
+    this.batchSize = batchSize;
+    return this;
+  }
+
+  /**
+   * Sets the directory the imported PNML files are written to, by default the
+   * net directory of the application.
+   */
+  public BulkNetImporter withNetDirectory(Path netDirectory) {
+    this.netDirectory = netDirectory;
+    return this;
+  }
+
+  /**
+   * Imports every {@code .pnml} (or gzip compressed {@code .pnml.gz}) file
+   * below the given directory.
+   *
+   * @param root the directory to walk
+   * @return the outcome of the import
+   * @throws IOException if the directory cannot be walked
+   */
+  public Report importDirectory(Path root) throws IOException {
+    List<Path> files;
+    try (Stream<Path> walk = Files.walk(root)) {
+      files = walk.filter(Files::isRegularFile)
+          .filter(f -> f.getFileName().toString().endsWith(".pnml")
+              || f.getFileName().toString().endsWith(".pnml.gz"))
+          .sorted()
+          .toList();
+    }
+    Files.createDirectories(netDirectory);
+
+    List<Failure> failures = new ArrayList<>();
+    List<Failure> refused = new ArrayList<>();
+    List<Parsed> batch = new ArrayList<>(batchSize);
+    Set<String> names = new HashSet<>();
+    int imported = 0;
+    int published = 0;
+
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      CompletionService<Parsed> completion = new ExecutorCompletionService<>(pool);
+      int maxInFlight = threads * 4;
+      int submitted = 0;
+      for (int completed = 0; completed < files.size(); completed++) {
+        while (submitted < files.size() && submitted - completed < maxInFlight) {
+          Path file = files.get(submitted++);
+          completion.submit(() -> parse(file));
+        }
+        Parsed parsed = completion.take().get();
+        if (parsed.error() != null) {
+          failures.add(new Failure(parsed.file(), parsed.error()));
+        } else if (!names.add(parsed.model().getName())) {
+          failures.add(new Failure(parsed.file(), "Duplicate net name in the import: " + parsed.model().getName()));
+        } else {
+          batch.add(parsed);
+          if (batch.size() == batchSize) {
+            List<Imported> inserted = flush(batch, failures);
+            imported += inserted.size();
+            published += publish(pool, inserted, refused);
+          }
+        }
+      }
+      List<Imported> inserted = flush(batch, failures);
+      imported += inserted.size();
+      published += publish(pool, inserted, refused);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Import interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Import failed", e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+
+    LOGGER.info("Imported %d of %d nets from %s, %d published".formatted(imported, files.size(), root, published));
+    return new Report(files.size(), imported, published, List.copyOf(failures), List.copyOf(refused));
+  }
+
+  private Parsed parse(Path file) {
+    try {
+      PetriNetModel model = new StaxPNMLParser().parse(file.toString());
+      if (model.getName() == null || model.getName().isBlank()) {
+        return new Parsed(file, null, "Net without a name");
+      }
+      return new Parsed(file, model, null);
+    } catch (IOException | RuntimeException e) {
+      Throwable cause = e.getCause() != null ? e.getCause() : e;
+      return new Parsed(file, null, cause.getMessage());
+    }
+  }
+
+  /**
+   * Inserts a batch in one transaction and writes the PNML of the nets that
+   * were inserted; the batch is cleared.
+   *
+   * @return the nets imported
+   */
+  private List<Imported> flush(List<Parsed> batch, List<Failure> failures) {
+    long now = Instant.now().getEpochSecond();
+    List<PetriNet> rows = new ArrayList<>(batch.size());
+    for (Parsed parsed : batch) {
+      String name = parsed.model().getName();
+      rows.add(new PetriNet(name, creatorId, now, NetStore.pathOf(parsed.model()), IMAGE_PATH, false));
+    }
+    boolean[] inserted = PetriNetsDAO.insertNets(rows);
+
+    NetStore store = new NetStore(netDirectory);
+    List<Imported> imported = new ArrayList<>(batch.size());
+    for (int i = 0; i < batch.size(); i++) {
+      Parsed parsed = batch.get(i);
+      if (!inserted[i]) {
+        failures.add(new Failure(parsed.file(),
+            "Net not inserted, name already used or database error: " + parsed.model().getName()));
+        continue;
+      }
+      try {
+        store.store(parsed.model());
+        imported.add(new Imported(parsed.file(), rows.get(i)));
+      } catch (IOException e) {
+        LOGGER.log(Level.WARNING, "Cannot write net " + parsed.model().getName(), e);
+        PetriNetsDAO.removeNet(rows.get(i));
+        failures.add(new Failure(parsed.file(), "Cannot write PNML: " + e.getMessage()));
+      }
+    }
+    batch.clear();
+    return imported;
+  }
+
+  /**
+   * Verifies the imported nets in parallel and marks the valid ones as ready.
+   *
+   * @return number of nets published
+   */
+  private int publish(ExecutorService pool, List<Imported> imported, List<Failure> refused)
+      throws InterruptedException, ExecutionException {
+    List<Callable<Boolean>> checks = new ArrayList<>(imported.size());
+    for (Imported net : imported) {
+      checks.add(() -> NetVerificationService.publish(net.row(), netDirectory));
+    }
+    List<Future<Boolean>> results = pool.invokeAll(checks);
+    int published = 0;
+    for (int i = 0; i < results.size(); i++) {
+      if (results.get(i).get()) {
+        published++;
+      } else {
+        Imported net = imported.get(i);
+        refused.add(new Failure(net.file(), "Net failed verification, not published: " + net.row().getNetName()));
+      }
+    }
+    return published;
+  }
+}
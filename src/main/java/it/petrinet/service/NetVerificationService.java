@@ -0,0 +1,118 @@
+package it.petrinet.service;
+
+import it.petrinet.model.PetriNet;
+import it.petrinet.model.database.PetriNetsDAO;
+import it.petrinet.petrinet.analysis.CoverabilityAnalyzer;
+import it.petrinet.petrinet.analysis.CoverabilityResult;
+import it.petrinet.petrinet.analysis.ReachabilityExplorer;
+import it.petrinet.petrinet.analysis.ReachabilityResult;
+import it.petrinet.petrinet.engine.CompiledNet;
+import it.petrinet.petrinet.model.FrozenNet;
+import it.petrinet.petrinet.persistance.PetriNetModelCache;
+import it.petrinet.utils.NavigationHelper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Checks a net before it is published, so that users can only subscribe to
+ * nets where every computation can actually reach the end place and where no
+ * place can accumulate tokens (and computation steps) without bound.
+ */
+public class NetVerificationService {
+
+  private static final Logger LOGGER = Logger.getLogger(NetVerificationService.class.getName());
+
+  /** Upper bound on the markings explored when verifying a net. */
+  public static final int MAX_VERIFIED_STATES = 2_000_000;
+
+  private NetVerificationService() {
+  }
+
+  /**
+   * Loads the PNML of the given net and explores its state space from the start
+   * marking.
+   *
+   * @param net the net metadata
+   * @return the exploration result
+   * @throws IOException if the PNML file cannot be read
+   */
+  public static ReachabilityResult verify(PetriNet net) throws IOException {
+    return new ReachabilityExplorer(CompiledNet.compile(load(net)))
+        .withMaxStates(MAX_VERIFIED_STATES)
+        .explore();
+  }
+
+  /**
+   * Loads the PNML of the given net and runs a coverability analysis from the
+   * start marking, to find the places with an unbounded number of tokens.
+   *
+   * @param net the net metadata
+   * @return the analysis result
+   * @throws IOException if the PNML file cannot be read
+   */
+  public static CoverabilityResult checkBoundedness(PetriNet net) throws IOException {
+    return new CoverabilityAnalyzer(CompiledNet.compile(load(net)))
+        .withMaxNodes(MAX_VERIFIED_STATES)
+        .analyze();
+  }
+
+  private static FrozenNet load(PetriNet net) throws IOException {
+    return load(net, Path.of(NavigationHelper.netDirectory));
+  }
+
+  private static FrozenNet load(PetriNet net, Path netDirectory) throws IOException {
+    return PetriNetModelCache.getInstance().getFrozen(netDirectory.resolve(net.getXML_PATH()).toString());
+  }
+
+  /**
+   * Marks the net as ready only if it is bounded and every computation can
+   * finish. Boundedness is checked first: on an unbounded net the exploration
+   * would only run into the state limit. Nets with inhibitor or reset arcs,
+   * which the coverability analysis does not support, rely on the exploration
+   * alone: an unbounded one hits the state limit and is refused as incomplete.
+   *
+   * @param net the net to publish
+   * @return true if the net was published, false if it was refused
+   */
+  public static boolean publish(PetriNet net) {
+    return publish(net, Path.of(NavigationHelper.netDirectory));
+  }
+
+  /**
+   * Same as {@link #publish(PetriNet)}, for a net whose PNML file is in the
+   * given directory instead of the net directory of the application.
+   *
+   * @param net          the net to publish
+   * @param netDirectory the directory {@code net.getXML_PATH()} is relative to
+   * @return true if the net was published, false if it was refused
+   */
+  public static boolean publish(PetriNet net, Path netDirectory) {
+    try {
+      CompiledNet compiled = CompiledNet.compile(load(net, netDirectory));
+      if (!compiled.hasInhibitorOrResetArcs()) {
+        CoverabilityResult coverability = new CoverabilityAnalyzer(compiled)
+            .withMaxNodes(MAX_VERIFIED_STATES)
+            .analyze();
+        if (!coverability.isBounded()) {
+          LOGGER.warning("Refusing to publish " + net.getNetName() + ": " + coverability);
+          return false;
+        }
+      }
+      ReachabilityResult result = new ReachabilityExplorer(compiled)
+          .withMaxStates(MAX_VERIFIED_STATES)
+          .explore();
+      if (!result.canAlwaysFinish()) {
+        LOGGER.warning("Refusing to publish " + net.getNetName() + ": " + result);
+        return false;
+      }
+    } catch (IOException | RuntimeException e) {
+      LOGGER.log(Level.WARNING, "Cannot verify net " + net.getNetName(), e);
+      return false;
+    }
+    PetriNetsDAO.setReady(net);
+    return true;
+  }
+}
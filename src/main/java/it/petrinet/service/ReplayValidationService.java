@@ -0,0 +1,213 @@
+package it.petrinet.service;
+
+import it.petrinet.model.database.ComputationStepDAO;
+import it.petrinet.model.database.ComputationStepDAO.StepRow;
+import it.petrinet.model.database.PetriNetsDAO;
+import it.petrinet.petrinet.engine.CompiledNet;
+import it.petrinet.petrinet.model.Marking;
+import it.petrinet.petrinet.persistance.PetriNetModelCache;
+import it.petrinet.utils.NavigationHelper;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Replays the stored computations on their nets and reports the steps whose
+ * stored marking does not match the semantics of the net.
+ * <p>
+ * Steps are streamed from the database in a single pass (see
+ * {@link ComputationStepDAO#forEachStep(Consumer)}), and only the replayed
+ * marking of the current computation plus one compiled net per net name are
+ * kept in memory, so the validation can run over millions of steps. After a
+ * divergent step the replay continues from the stored marking, so a single
+ * corrupted step is reported once instead of invalidating the rest of the
+ * computation.
+ * </p>
+ */
+public class ReplayValidationService {
+
+  private static final Logger LOGGER = Logger.getLogger(ReplayValidationService.class.getName());
+
+  public enum IssueType {
+    /** The net of the computation cannot be loaded. */
+    UNKNOWN_NET,
+    /** The stored marking cannot be parsed. */
+    MALFORMED_MARKING,
+    /** A transition is fired before the start step of the computation. */
+    MISSING_START,
+    /** The fired transition does not exist in the net. */
+    UNKNOWN_TRANSITION,
+    /** The fired transition was not enabled in the replayed marking. */
+    NOT_ENABLED,
+    /** The stored marking differs from the replayed one. */
+    MARKING_MISMATCH
+  }
+
+  /**
+   * A step that does not agree with the net.
+   *
+   * @param type     what is wrong
+   * @param step     the offending row
+   * @param expected the replayed marking, or null if it is not meaningful
+   */
+  public record Issue(IssueType type, StepRow step, Map<String, Integer> expected) {
+  }
+
+  /**
+   * Totals of a validation run.
+   *
+   * @param computations number of computations replayed
+   * @param steps        number of steps read
+   * @param issues       number of issues reported
+   */
+  public record Report(long computations, long steps, long issues) {
+  }
+
+  private ReplayValidationService() {
+  }
+
+  /**
+   * Replays every stored computation on the net currently saved for it.
+   *
+   * @param issues receives every issue found, in step order
+   * @return the totals of the run
+   */
+  public static Report validateAll(Consumer<Issue> issues) {
+    Replay replay = new Replay(ReplayValidationService::loadNet, issues);
+    ComputationStepDAO.forEachStep(replay::accept);
+    return replay.report();
+  }
+
+  private static CompiledNet loadNet(String netId) {
+    String path = PetriNetsDAO.getXMLPATHByNetName(netId);
+    if (path == null) {
+      return null;
+    }
+    try {
+      return CompiledNet.compile(PetriNetModelCache.getInstance().getFrozen(NavigationHelper.netDirectory + path));
+    } catch (IOException | RuntimeException e) {
+      LOGGER.log(Level.WARNING, "Cannot load net " + netId, e);
+      return null;
+    }
+  }
+
+  /**
+   * Replay state machine, fed one row at a time in computation order. Package
+   * visible with a pluggable net loader, so it can be driven without a
+   * database.
+   */
+  static final class Replay {
+
+    private final Function<String, CompiledNet> loader;
+    private final Consumer<Issue> issues;
+    private final Map<String, CompiledNet> nets = new HashMap<>();
+
+    private long computations;
+    private long steps;
+    private long issueCount;
+
+    private int computationId;
+    private boolean first = true;
+    private CompiledNet net;
+    private boolean skipComputation;
+    private int[] marking;
+
+    Replay(Function<String, CompiledNet> loader, Consumer<Issue> issues) {
+      this.loader = loader;
+      this.issues = issues;
+    }
+
+    void accept(StepRow row) {
+      steps++;
+      if (first || row.computationId() != computationId) {
+        first = false;
+        computationId = row.computationId();
+        computations++;
+        marking = null;
+        skipComputation = false;
+        // a missing net is cached as well, so it is looked up only once
+        if (!nets.containsKey(row.netId())) {
+          nets.put(row.netId(), loader.apply(row.netId()));
+        }
+        net = nets.get(row.netId());
+        if (net == null) {
+          report(IssueType.UNKNOWN_NET, row, null);
+          skipComputation = true;
+        }
+      }
+      if (skipComputation) {
+        return;
+      }
+
+      Marking stored;
+      try {
+        stored = row.toStep().getMarking();
+      } catch (IllegalArgumentException e) {
+        report(IssueType.MALFORMED_MARKING, row, null);
+        stored = null;
+      }
+
+      String transition = row.transitionName();
+      if (transition == null || transition.isEmpty()) {
+        // start (or restart) step: the computation begins from the start marking
+        marking = net.startMarking();
+      } else {
+        if (marking == null) {
+          report(IssueType.MISSING_START, row, null);
+          marking = net.startMarking();
+        }
+        int t = net.transitionIndex(transition);
+        if (t < 0) {
+          report(IssueType.UNKNOWN_TRANSITION, row, null);
+          resync(stored);
+          return;
+        }
+        if (!net.isEnabled(t, marking)) {
+          report(IssueType.NOT_ENABLED, row, net.toMap(marking));
+          resync(stored);
+          return;
+        }
+        net.fire(t, marking);
+      }
+      if (stored != null && !matches(stored, marking)) {
+        report(IssueType.MARKING_MISMATCH, row, net.toMap(marking));
+        resync(stored);
+      }
+    }
+
+    Report report() {
+      return new Report(computations, steps, issueCount);
+    }
+
+    private void resync(Marking stored) {
+      if (stored != null) {
+        marking = net.toMarking(stored);
+      } else if (marking == null) {
+        marking = net.startMarking();
+      }
+    }
+
+    /**
+     * Compares a stored marking with a replayed one; stored places with zero
+     * tokens are accepted, unknown places are not.
+     */
+    private boolean matches(Marking stored, int[] replayed) {
+      for (int i = 0; i < stored.size(); i++) {
+        if (net.placeIndex(stored.placeName(i)) < 0) {
+          return false;
+        }
+      }
+      return stored.equals(net.marking(replayed));
+    }
+
+    private void report(IssueType type, StepRow row, Map<String, Integer> expected) {
+      issueCount++;
+      issues.accept(new Issue(type, row, expected));
+    }
+  }
+}
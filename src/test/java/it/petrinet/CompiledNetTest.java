@@ -0,0 +1,229 @@
+package it.petrinet;
+
+import it.petrinet.petrinet.IllegalConnectionException;
+import it.petrinet.petrinet.builder.PetriNetBuilder;
+import it.petrinet.petrinet.engine.CompiledNet;
+import it.petrinet.petrinet.engine.EnabledSet;
+import it.petrinet.petrinet.engine.NetExecution;
+import it.petrinet.petrinet.model.ARC_TYPE;
+import it.petrinet.petrinet.model.Marking;
+import it.petrinet.petrinet.model.PLACE_TYPE;
+import it.petrinet.petrinet.model.PetriNetModel;
+import it.petrinet.petrinet.model.TRANSITION_TYPE;
+import it.petrinet.petrinet.simulation.FiringPolicy;
+import it.petrinet.petrinet.simulation.MonteCarloSimulator;
+import it.petrinet.petrinet.simulation.SimulationResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledNetTest {
+
+  private CompiledNet net;
+
+  @BeforeEach
+  void setUp() throws IllegalConnectionException {
+    // start -> t1 -> p1, p2 -> t2 -> end (t2 richiede entrambi i token)
+    PetriNetModel model = new PetriNetBuilder("ForkJoin")
+        .newPlace("start").withType(PLACE_TYPE.START).donePlace()
+        .newPlace("p1").donePlace()
+        .newPlace("p2").donePlace()
+        .newPlace("end").withType(PLACE_TYPE.END).donePlace()
+        .newTransition("t1").doneTransition()
+        .newTransition("t2").doneTransition()
+        .addArc("start", "t1")
+        .addArc("t1", "p1")
+        .addArc("t1", "p2")
+        .addArc("p1", "t2")
+        .addArc("p2", "t2")
+        .addArc("t2", "end")
+        .build();
+    net = CompiledNet.compile(model);
+  }
+
+  @Test
+  void testIndexesAreStable() {
+    assertEquals(4, net.placeCount());
+    assertEquals(2, net.transitionCount());
+    assertEquals("end", net.placeName(net.endPlace()));
+    assertEquals("start", net.placeName(net.startPlace()));
+    assertEquals(-1, net.placeIndex("missing"), "Un posto inesistente dovrebbe avere indice -1.");
+  }
+
+  @Test
+  void testFiringSequence() {
+    int t1 = net.transitionIndex("t1");
+    int t2 = net.transitionIndex("t2");
+    NetExecution execution = new NetExecution(net);
+
+    assertTrue(execution.enabled(t1));
+    assertFalse(execution.enabled(t2), "t2 non dovrebbe essere abilitata nella marcatura iniziale.");
+    assertFalse(execution.fire(t2));
+
+    assertTrue(execution.fire(t1));
+    assertEquals(0, execution.tokens(net.placeIndex("start")));
+    assertEquals(1, execution.tokens(net.placeIndex("p1")));
+    assertEquals(1, execution.tokens(net.placeIndex("p2")));
+
+    assertTrue(execution.fire(t2));
+    assertTrue(execution.isFinished(), "Dopo t2 il token dovrebbe essere nel posto finale.");
+    assertEquals(Map.of("end", 1), net.toMap(execution.getMarking()));
+  }
+
+  @Test
+  void testWeightedArcs() throws IllegalConnectionException {
+    // t1 consuma due token da start e ne produce tre in end
+    PetriNetModel model = new PetriNetBuilder("Weighted")
+        .newPlace("start").withType(PLACE_TYPE.START).initialMarking(1).donePlace()
+        .newPlace("end").withType(PLACE_TYPE.END).donePlace()
+        .newTransition("t1").doneTransition()
+        .addArc("start", "t1", 2)
+        .addArc("t1", "end", 3)
+        .build();
+    CompiledNet weighted = CompiledNet.compile(model);
+    int t1 = weighted.transitionIndex("t1");
+
+    NetExecution execution = new NetExecution(weighted, weighted.toMarking(Map.of("start", 1)));
+    assertFalse(execution.enabled(t1), "Con un solo token l'arco di peso 2 non abilita t1.");
+
+    execution = new NetExecution(weighted, weighted.toMarking(Map.of("start", 3)));
+    assertTrue(execution.fire(t1));
+    assertEquals(Map.of("start", 1, "end", 3), weighted.toMap(execution.getMarking()));
+
+    assertThrows(IllegalArgumentException.class,
+        () -> new PetriNetBuilder("Invalid").newPlace("p").donePlace().newTransition("t").doneTransition()
+            .addArc("p", "t", 0));
+  }
+
+  @Test
+  void testInhibitorAndResetArcs() throws IllegalConnectionException {
+    // t1 scatta solo con la coda vuota; t2 svuota la coda
+    PetriNetModel model = new PetriNetBuilder("Queue")
+        .newPlace("start").withType(PLACE_TYPE.START).donePlace()
+        .newPlace("queue").donePlace()
+        .newPlace("done").donePlace()
+        .newPlace("end").withType(PLACE_TYPE.END).donePlace()
+        .newTransition("t1").doneTransition()
+        .newTransition("t2").doneTransition()
+        .addArc("start", "t1")
+        .addArc("queue", "t1", 1, ARC_TYPE.INHIBITOR)
+        .addArc("t1", "end")
+        .addArc("queue", "t2", 1, ARC_TYPE.RESET)
+        .addArc("t2", "done")
+        .build();
+    CompiledNet queue = CompiledNet.compile(model);
+    int t1 = queue.transitionIndex("t1");
+    int t2 = queue.transitionIndex("t2");
+
+    NetExecution execution = new NetExecution(queue, queue.toMarking(Map.of("start", 1, "queue", 3)));
+    assertFalse(execution.enabled(t1), "Con la coda piena t1 non dovrebbe essere abilitata.");
+    assertTrue(execution.fire(t2));
+    assertEquals(Map.of("start", 1, "done", 1), queue.toMap(execution.getMarking()));
+    assertTrue(execution.fire(t1));
+    assertTrue(execution.isFinished());
+
+    // svuotare la coda puo' abilitare t1
+    boolean dependent = false;
+    for (int k = 0; k < queue.dependentCount(t2); k++) {
+      dependent |= queue.dependent(t2, k) == t1;
+    }
+    assertTrue(dependent);
+    assertTrue(queue.hasInhibitorOrResetArcs());
+    assertFalse(net.hasInhibitorOrResetArcs());
+
+    assertThrows(IllegalConnectionException.class, () -> new PetriNetBuilder("Invalid")
+        .newPlace("start").withType(PLACE_TYPE.START).donePlace()
+        .newPlace("end").withType(PLACE_TYPE.END).donePlace()
+        .newTransition("t").doneTransition()
+        .addArc("start", "t")
+        .addArc("start", "t", 1, ARC_TYPE.INHIBITOR)
+        .addArc("t", "end")
+        .build(), "Un arco normale e uno inibitore sulla stessa coppia non sono ammessi.");
+  }
+
+  @Test
+  void testMarkingConversionRoundTrip() {
+    int[] marking = net.toMarking(Map.of("p1", 2, "unknown", 5));
+    assertEquals(2, marking[net.placeIndex("p1")]);
+    assertEquals(Map.of("p1", 2), net.toMap(marking));
+  }
+
+  @Test
+  void testMarkingValue() {
+    int[] tokens = net.startMarking();
+    Marking start = net.marking(tokens);
+    net.fire(net.transitionIndex("t1"), tokens);
+    Marking next = net.marking(tokens);
+
+    // le marcature della stessa rete condividono i nomi dei posti
+    assertTrue(start.hasSamePlaces(next));
+    assertEquals(Map.of("start", -1, "p1", 1, "p2", 1), start.diff(next));
+    // la forma testuale dei passi di computazione e' equivalente
+    Marking stored = Marking.parse(next.toString());
+    assertFalse(stored.hasSamePlaces(next));
+    assertEquals(next, stored);
+    assertEquals(next.hashCode(), stored.hashCode());
+    assertArrayEquals(tokens, net.toMarking(stored));
+    assertEquals(next, start.with(net.placeIndex("start"), 0).with(net.placeIndex("p1"), 1)
+        .with(net.placeIndex("p2"), 1));
+    assertThrows(IllegalArgumentException.class, () -> Marking.parse("p1=2"));
+  }
+
+  @Test
+  void testEnabledSetIncrementalUpdate() {
+    int t1 = net.transitionIndex("t1");
+    int t2 = net.transitionIndex("t2");
+    int[] marking = net.startMarking();
+    EnabledSet enabled = new EnabledSet(net, marking);
+
+    assertEquals(1, enabled.size());
+    assertTrue(enabled.contains(t1));
+    assertEquals(1, enabled.count(TRANSITION_TYPE.USER));
+
+    net.fire(t1, marking);
+    enabled.update(t1, marking);
+    assertFalse(enabled.contains(t1));
+    assertTrue(enabled.contains(t2), "Dopo t1 la transizione t2 dovrebbe essere abilitata.");
+    assertEquals(2, enabled.changedCount(), "Solo t1 e t2 dovrebbero cambiare stato.");
+
+    net.fire(t2, marking);
+    enabled.update(t2, marking);
+    assertTrue(enabled.isEmpty(), "Nella marcatura finale nessuna transizione dovrebbe essere abilitata.");
+  }
+
+  @Test
+  void testMonteCarloSimulation() throws IllegalConnectionException {
+    SimulationResult result = new MonteCarloSimulator(net).withRuns(1000).run();
+    assertEquals(1000, result.getFinishedRuns());
+    assertEquals(1000, result.getRunsWithSteps(2), "Ogni esecuzione dovrebbe terminare in due passi.");
+
+    // start -> ok -> end oppure start -> stuck -> trap: circa meta' delle esecuzioni si blocca
+    PetriNetModel trap = ReachabilityExplorerTest.choiceWithTrap();
+    SimulationResult one = new MonteCarloSimulator(trap).withRuns(10_000).withThreads(1).withSeed(7).run();
+    SimulationResult many = new MonteCarloSimulator(trap).withRuns(10_000).withThreads(4).withSeed(7).run();
+    assertEquals(one, many, "Il risultato non dovrebbe dipendere dal numero di thread.");
+    assertEquals(10_000, one.getFinishedRuns() + one.getDeadlockedRuns());
+    assertTrue(one.getDeadlockedRuns() > 4000 && one.getDeadlockedRuns() < 6000);
+
+    // se la transizione verso la trappola e' ADMIN con peso 0 non viene mai scelta
+    PetriNetModel adminTrap = new PetriNetBuilder("AdminTrap")
+        .newPlace("start").withType(PLACE_TYPE.START).donePlace()
+        .newPlace("trap").donePlace()
+        .newPlace("end").withType(PLACE_TYPE.END).donePlace()
+        .newTransition("ok").doneTransition()
+        .newTransition("stuck").withType(TRANSITION_TYPE.ADMIN).doneTransition()
+        .addArc("start", "ok")
+        .addArc("ok", "end")
+        .addArc("start", "stuck")
+        .addArc("stuck", "trap")
+        .build();
+    SimulationResult weighted = new MonteCarloSimulator(adminTrap)
+        .withRuns(1000)
+        .withPolicy(FiringPolicy.weightedByType(Map.of(TRANSITION_TYPE.ADMIN, 0.0)))
+        .run();
+    assertEquals(1000, weighted.getFinishedRuns());
+  }
+}
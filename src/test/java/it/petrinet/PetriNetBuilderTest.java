@@ -2,6 +2,7 @@ package it.petrinet;
 
 import it.petrinet.petrinet.IllegalConnectionException;
 import it.petrinet.petrinet.builder.PetriNetBuilder;
+import it.petrinet.petrinet.model.Node;
 import it.petrinet.petrinet.model.PetriNetModel;
 import it.petrinet.petrinet.model.PLACE_TYPE;
 import org.junit.jupiter.api.BeforeEach;
@@ -72,6 +73,30 @@ class PetriNetBuilderTest {
     }, "Il nodo rimosso dovrebbe essere nullo nel modello finale.");
   }
 
+  @Test
+  void testRenameNodeKeepsIndex() throws IllegalConnectionException {
+    // l'indice per nome segue la rinomina e gli archi vengono aggiornati
+    builder.newPlace("p1").withType(PLACE_TYPE.START).donePlace()
+        .newTransition("t1").doneTransition()
+        .newPlace("p2").withType(PLACE_TYPE.END).donePlace()
+        .addArc("p1", "t1")
+        .addArc("t1", "p2");
+    Node t1 = builder.getNodeByName("t1");
+
+    builder.renameNode("t1", "go");
+
+    assertNull(builder.getNodeByName("t1"));
+    assertSame(t1, builder.getNodeByName("go"));
+    PetriNetModel model = builder.build();
+    assertSame(model.getNodeByName("go"), model.getSuccessors(model.getNodeByName("p1")).getFirst());
+    // gli id sono densi e seguono l'ordine di inserimento
+    assertEquals(3, model.getNodeCount());
+    for (int id = 0; id < model.getNodeCount(); id++) {
+      assertEquals(id, model.getId(model.getNode(id)));
+    }
+    assertEquals("p1", model.getNode(0).getName());
+  }
+
   @Test
   void testBuildWithoutStartNodeThrowsException() {
     // Test per una costruzione invalida (manca il nodo di inizio)
@@ -139,6 +139,37 @@ class PetriNetModelTest {
     });
   }
 
+  @Test
+  void testPredecessorsAndStartFinish() throws IllegalConnectionException {
+    Place p1 = new Place("p1");
+    p1.setType(PLACE_TYPE.START);
+    Transition t1 = new Transition("t1");
+    Place p2 = new Place("p2");
+    p2.setType(PLACE_TYPE.END);
+    PetriNetModel pt = new PetriNetModel("ValidNet", List.of(p1, p2), List.of(t1),
+        List.of(new Arc("p1", "t1"), new Arc("t1", "p2")), p1, p2);
+
+    // pre-set e post-set, per nodo e per id
+    assertEquals(List.of(p1), pt.getPredecessors(t1));
+    assertEquals(List.of(t1), pt.getPredecessors(p2));
+    assertTrue(pt.getPredecessors(p1).isEmpty());
+    int t1Id = pt.getId(t1);
+    assertEquals(1, pt.getPresetSize(t1Id));
+    assertEquals(pt.getId(p1), pt.getPresetId(t1Id, 0));
+    assertEquals(1, pt.getPostsetSize(t1Id));
+    assertEquals(pt.getId(p2), pt.getPostsetId(t1Id, 0));
+    assertEquals(0, pt.getPresetSize(pt.getId(p1)));
+    PetriNetModel copy = pt.copy();
+    assertSame(copy.getNodeByName("p1"), copy.getPredecessors(copy.getNodeByName("t1")).getFirst());
+    assertEquals(copy.getId(copy.getNodeByName("p1")), copy.getPresetId(copy.getId(copy.getNodeByName("t1")), 0));
+
+    assertSame(p1, pt.getStartNode());
+    assertSame(p2, pt.getFinishNode());
+    // cambiando il tipo il nodo in cache non vale piu'
+    p2.setType(PLACE_TYPE.NORMAL);
+    assertNull(pt.getFinishNode());
+  }
+
   @Test
   void testGetNodeByNameException() {
 
@@ -0,0 +1,294 @@
+package it.petrinet;
+
+import it.petrinet.petrinet.engine.CompiledNet;
+import it.petrinet.petrinet.model.ARC_TYPE;
+import it.petrinet.petrinet.model.FrozenNet;
+import it.petrinet.petrinet.model.Node;
+import it.petrinet.petrinet.model.PLACE_TYPE;
+import it.petrinet.petrinet.model.PetriNetModel;
+import it.petrinet.petrinet.model.Place;
+import it.petrinet.petrinet.model.Position;
+import it.petrinet.petrinet.model.TRANSITION_TYPE;
+import it.petrinet.petrinet.model.Transition;
+import it.petrinet.petrinet.persistance.NetParser;
+import it.petrinet.petrinet.persistance.NetStore;
+import it.petrinet.petrinet.persistance.PetriNetModelCache;
+import it.petrinet.petrinet.persistance.binary.BinaryNetParser;
+import it.petrinet.petrinet.persistance.binary.BinaryNetSerializer;
+import it.petrinet.petrinet.persistance.pnml.PNMLPageIndex;
+import it.petrinet.petrinet.persistance.pnml.PNMLParser;
+import it.petrinet.petrinet.persistance.pnml.StaxPNMLParser;
+import it.petrinet.petrinet.persistance.pnml.StaxPNMLSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PnmlPersistenceTest {
+
+  static final String NS = "http://www.pnml.org/version-2009/grammar/ptnet";
+
+  // archi prima dei nodi, archi pesati, inibitori e di reset, un elemento tool-specific e un nome senza <text>
+  static final String SAMPLE = """
+      <?xml version="1.0" encoding="UTF-8"?>
+      <pnml xmlns="%s">
+        <net id="Sample" type="%s">
+          <name><text> Sample </text></name>
+          <page id="page1">
+            <arc id="a1" source="start" target="t1"/>
+            <arc id="a2" source="t1" target="end"><inscription><text>3</text></inscription></arc>
+            <arc id="a3" source="idle" target="t1" type="inhibitor"><inscription><text>2</text></inscription></arc>
+            <arc id="a4" source="log" target="t1" type="reset"/>
+            <place id="start" type="start">
+              <name>start</name>
+              <initialMarking><text>1</text></initialMarking>
+              <graphics><offset x="10.5" y="20.0"/></graphics>
+            </place>
+            <toolspecific xmlns="urn:tool" tool="x"><place id="ghost"/></toolspecific>
+            <transition id="t1" type="admin">
+              <graphics><offset x="30" y="40"/></graphics>
+            </transition>
+            <place id="end" type="END"/>
+            <place id="idle"/>
+            <place id="log"/>
+          </page>
+        </net>
+      </pnml>
+      """;
+
+  // pagina annidata e nodi di riferimento tra pagine diverse
+  static final String MULTI_PAGE = """
+      <pnml xmlns="http://www.pnml.org/version-2009/grammar/ptnet">
+        <net id="Multi">
+          <name><text>Multi</text></name>
+          <page id="top">
+            <name><text>Main</text></name>
+            <place id="start" type="START"/>
+            <transition id="t1"/>
+            <referencePlace id="rmid" ref="mid"/>
+            <arc id="a1" source="start" target="t1"/>
+            <arc id="a2" source="t1" target="rmid"/>
+            <page id="sub">
+              <place id="mid"/>
+              <transition id="t2"/>
+              <place id="end" type="END"/>
+              <arc id="a3" source="mid" target="t2"/>
+              <arc id="a4" source="t2" target="end"/>
+            </page>
+          </page>
+          <page id="second">
+            <referenceTransition id="rt1" ref="t1"/>
+            <place id="side"/>
+            <arc id="a5" source="rt1" target="side"/>
+          </page>
+        </net>
+      </pnml>
+      """;
+
+  @Test
+  void testMultiPageNetsAreFlattened(@TempDir Path dir) throws IOException {
+    Path file = dir.resolve("Multi.pnml");
+    Files.writeString(file, MULTI_PAGE);
+
+    PetriNetModel full = new StaxPNMLParser().parse(file.toString());
+    assertEquals(6, full.getNodes().size());
+    assertTrue(describe(full).contains("t1 -> mid"), "Il riferimento va risolto nel nodo originale.");
+    assertTrue(describe(full).contains("t1 -> side"));
+
+    // solo la pagina principale con le sue sottopagine
+    PetriNetModel top = new StaxPNMLParser().parsePages(file.toString(), List.of("top"));
+    assertEquals(5, top.getNodes().size());
+    assertFalse(describe(top).contains("t1 -> side"));
+
+    PNMLPageIndex index = PNMLPageIndex.read(file.toString());
+    assertEquals("Multi", index.getNetName());
+    assertEquals(List.of("top", "sub", "second"), index.getPages().stream().map(PNMLPageIndex.PageInfo::id).toList());
+    assertEquals(new PNMLPageIndex.PageInfo("sub", null, "top", 1, 2, 1, 2, 0), index.getPages().get(1));
+    assertEquals("Main", index.getPages().get(0).name());
+    assertEquals(6, index.getPlaceCount() + index.getTransitionCount());
+    assertEquals(5, index.getArcCount());
+  }
+
+  @Test
+  void testStreamingParserMatchesDomParser(@TempDir Path dir) throws IOException {
+    Path file = dir.resolve("Sample.pnml");
+    Files.writeString(file, SAMPLE.formatted(NS, NS));
+
+    PetriNetModel streamed = new StaxPNMLParser().parse(file.toString());
+    PetriNetModel dom = new PNMLParser().parse(file.toString());
+
+    assertEquals("Sample", streamed.getName());
+    assertEquals(describe(dom), describe(streamed));
+    Place start = (Place) streamed.getNodeByName("start");
+    assertEquals(1, start.getPlaceTokens());
+    assertEquals(10, start.getPosition().getX(), 0);
+    assertEquals(TRANSITION_TYPE.ADMIN, ((Transition) streamed.getNodeByName("t1")).getType());
+    assertEquals(PLACE_TYPE.END, ((Place) streamed.getFinishNode()).getType());
+    assertEquals(5, streamed.getNodes().size(), "Gli elementi di altri namespace vanno ignorati.");
+  }
+
+  @Test
+  void testParsersReadNetsWithoutNamespace(@TempDir Path dir) throws IOException {
+    Path file = dir.resolve("Legacy.pnml");
+    String legacy = SAMPLE.formatted(NS, NS).replace(" xmlns=\"" + NS + "\"", "");
+    Files.writeString(file, legacy);
+    file.toFile().setReadOnly();
+
+    PetriNetModel model = new StaxPNMLParser().parse(file.toString());
+    PetriNetModel dom = new PNMLParser().parse(file.toString());
+
+    assertEquals(5, model.getNodes().size());
+    assertEquals(describe(model), describe(dom));
+    assertEquals(legacy, Files.readString(file), "Il file non deve essere riscritto.");
+  }
+
+  @Test
+  void testStreamingParserRejectsMissingPage(@TempDir Path dir) throws IOException {
+    Path file = dir.resolve("Empty.pnml");
+    Files.writeString(file, "<pnml xmlns=\"%s\"><net id=\"e\"><name><text>e</text></name></net></pnml>".formatted(NS));
+
+    RuntimeException e = assertThrows(RuntimeException.class, () -> new StaxPNMLParser().parse(file.toString()));
+    assertTrue(e.getMessage().contains("<page>"));
+  }
+
+  @Test
+  void testStreamingSerializerRoundTrip(@TempDir Path dir) throws IOException {
+    Path source = dir.resolve("Sample.pnml");
+    Files.writeString(source, SAMPLE.formatted(NS, NS));
+    PetriNetModel model = new StaxPNMLParser().parse(source.toString());
+
+    // file compresso e non: il parser riconosce il gzip dai primi byte
+    new StaxPNMLSerializer(dir.resolve("out"), true).serialize(model);
+    Path plain = dir.resolve("plain.pnml");
+    new StaxPNMLSerializer().write(model, plain);
+
+    Path zipped = dir.resolve("out").resolve("Sample.pnml.gz");
+    assertTrue(Files.size(zipped) > 0);
+    assertEquals(describe(model), describe(new StaxPNMLParser().parse(zipped.toString())));
+    assertEquals(describe(model), describe(new StaxPNMLParser().parse(plain.toString())));
+    assertEquals(describe(model), describe(new PNMLParser().parse(plain.toString())));
+  }
+
+  @Test
+  void testBinaryFormatRoundTrip(@TempDir Path dir) throws IOException {
+    Path source = dir.resolve("Sample.pnml");
+    Files.writeString(source, SAMPLE.formatted(NS, NS));
+    PetriNetModel model = new StaxPNMLParser().parse(source.toString());
+
+    new BinaryNetSerializer(dir).serialize(model);
+    String binary = dir.resolve("Sample" + BinaryNetSerializer.EXTENSION).toString();
+
+    assertInstanceOf(BinaryNetParser.class, NetParser.forPath(binary));
+    assertEquals(describe(model), describe(NetParser.forPath(binary).parse(binary)));
+    // la rete compilata letta dal file coincide con quella compilata dal modello
+    CompiledNet loaded = BinaryNetParser.load(binary);
+    assertEquals(CompiledNet.compile(model).fingerprint(), loaded.fingerprint());
+    assertArrayEquals(CompiledNet.compile(model).initialMarking(), loaded.initialMarking());
+
+    assertThrows(IOException.class, () -> BinaryNetParser.load(source.toString()),
+        "Un file PNML non e' un file binario valido.");
+  }
+
+  @Test
+  void testModelCache(@TempDir Path dir) throws IOException {
+    Path file = dir.resolve("Sample.pnml");
+    Files.writeString(file, SAMPLE.formatted(NS, NS));
+    PetriNetModelCache cache = new PetriNetModelCache(1);
+
+    PetriNetModel first = cache.get(file.toString());
+    ((Place) first.getNodeByName("start")).setPlaceTokens(5);
+    PetriNetModel second = cache.get(file.toString());
+
+    assertEquals(1, cache.getMisses());
+    assertEquals(1, cache.getHits());
+    assertNotSame(first, second);
+    assertEquals(1, ((Place) second.getNodeByName("start")).getPlaceTokens(),
+        "Le copie restituite non devono condividere i nodi.");
+
+    // un file modificato viene riletto
+    Files.writeString(file, SAMPLE.formatted(NS, NS).replace("<text>1</text>", "<text>2</text>"));
+    Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1000));
+    assertEquals(2, ((Place) cache.get(file.toString()).getNodeByName("start")).getPlaceTokens());
+    assertEquals(2, cache.getMisses());
+
+    Path other = dir.resolve("Other.pnml");
+    Files.copy(file, other);
+    cache.get(other.toString());
+    assertEquals(1, cache.size());
+    assertEquals(1, cache.getEvictions());
+  }
+
+  @Test
+  void testFrozenNetIsIndependentFromModel(@TempDir Path dir) throws IOException {
+    Path source = dir.resolve("Sample.pnml");
+    Files.writeString(source, SAMPLE.formatted(NS, NS));
+    PetriNetModel model = new StaxPNMLParser().parse(source.toString());
+    List<String> before = describe(model);
+    FrozenNet frozen = model.freeze();
+
+    // le modifiche al modello non toccano l'istantanea
+    ((Place) model.getNodeByName("start")).setPlaceTokens(7);
+    model.getNodeByName("t1").setPosition(new Position(99, 99));
+    assertEquals(1, frozen.initialMarking()[frozen.placeIndex("start")]);
+    assertEquals(30, frozen.transitionX(frozen.transitionIndex("t1")));
+
+    // il modello ricostruito coincide con quello di partenza, archi speciali compresi
+    PetriNetModel rebuilt = frozen.toModel();
+    assertEquals(before, describe(rebuilt));
+    assertNotSame(rebuilt.getNodeByName("start"), frozen.toModel().getNodeByName("start"));
+    assertEquals(CompiledNet.compile(rebuilt).fingerprint(), CompiledNet.compile(frozen).fingerprint());
+  }
+
+  @Test
+  void testNetStoreSharesIdenticalNets(@TempDir Path dir) throws IOException {
+    Path source = dir.resolve("Sample.pnml");
+    Files.writeString(source, SAMPLE.formatted(NS, NS));
+    PetriNetModel model = new StaxPNMLParser().parse(source.toString());
+    Path renamed = dir.resolve("Renamed.pnml");
+    Files.writeString(renamed, SAMPLE.formatted(NS, NS).replace("<text> Sample </text>", "<text>Renamed</text>"));
+    PetriNetModel copy = new StaxPNMLParser().parse(renamed.toString());
+
+    // il nome non fa parte del contenuto: le due reti condividono lo stesso file
+    NetStore store = new NetStore(dir.resolve("store"));
+    String path = store.store(model);
+    assertEquals(path, store.store(copy));
+    try (var files = Files.list(dir.resolve("store"))) {
+      assertEquals(1, files.count());
+    }
+
+    PetriNetModel stored = new StaxPNMLParser().parse(dir.resolve("store").resolve(path).toString());
+    assertEquals(describe(model), describe(stored));
+    assertEquals(NetStore.hash(model), NetStore.hash(stored), "Il file salvato deve avere lo stesso hash.");
+
+    ((Place) copy.getNodeByName("start")).setPlaceTokens(2);
+    assertNotEquals(NetStore.hash(model), NetStore.hash(copy));
+    copy = model.copy();
+    copy.getNodeByName("t1").setPosition(new Position(31, 40));
+    assertNotEquals(NetStore.hash(model), NetStore.hash(copy), "Anche lo spostamento di un nodo e' una modifica.");
+  }
+
+  /** Descrizione ordinata di nodi e archi, indipendente dall'ordine nel file. */
+  static List<String> describe(PetriNetModel model) {
+    List<String> lines = new ArrayList<>();
+    for (Node n : model.getNodes()) {
+      String kind = n instanceof Place p ? "place " + p.getType() + " " + p.getPlaceTokens()
+          : "transition " + ((Transition) n).getType();
+      lines.add(n.getName() + " " + kind + " " + n.getPosition());
+      for (Node to : model.getSuccessors(n)) {
+        int weight = model.getWeight(n, to);
+        ARC_TYPE type = model.getArcType(n, to);
+        lines.add(n.getName() + " -> " + to.getName() + (weight != 1 ? " x" + weight : "")
+            + (type != ARC_TYPE.NORMAL ? " " + type : ""));
+      }
+    }
+    lines.sort(null);
+    return lines;
+  }
+}
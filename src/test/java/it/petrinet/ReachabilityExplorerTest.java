@@ -0,0 +1,342 @@
+package it.petrinet;
+
+import it.petrinet.petrinet.IllegalConnectionException;
+import it.petrinet.petrinet.analysis.CoverabilityAnalyzer;
+import it.petrinet.petrinet.analysis.CoverabilityResult;
+import it.petrinet.petrinet.analysis.Invariant;
+import it.petrinet.petrinet.analysis.InvariantAnalyzer;
+import it.petrinet.petrinet.analysis.InvariantResult;
+import it.petrinet.petrinet.analysis.MarkingSet;
+import it.petrinet.petrinet.analysis.ParallelReachabilityExplorer;
+import it.petrinet.petrinet.analysis.ReachabilityExplorer;
+import it.petrinet.petrinet.analysis.ReachabilityResult;
+import it.petrinet.petrinet.analysis.symbolic.SymbolicReachability;
+import it.petrinet.petrinet.analysis.symbolic.SymbolicResult;
+import it.petrinet.petrinet.builder.PetriNetBuilder;
+import it.petrinet.petrinet.engine.CompiledNet;
+import it.petrinet.petrinet.model.ARC_TYPE;
+import it.petrinet.petrinet.model.PLACE_TYPE;
+import it.petrinet.petrinet.model.PetriNetModel;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReachabilityExplorerTest {
+
+  // start -> t1 -> (a, b); a -> ta -> a2; b -> tb -> b2; (a2, b2) -> join -> end
+  static PetriNetModel forkJoin() throws IllegalConnectionException {
+    return new PetriNetBuilder("ForkJoin")
+        .newPlace("start").withType(PLACE_TYPE.START).donePlace()
+        .newPlace("a").donePlace()
+        .newPlace("b").donePlace()
+        .newPlace("a2").donePlace()
+        .newPlace("b2").donePlace()
+        .newPlace("end").withType(PLACE_TYPE.END).donePlace()
+        .newTransition("t1").doneTransition()
+        .newTransition("ta").doneTransition()
+        .newTransition("tb").doneTransition()
+        .newTransition("join").doneTransition()
+        .addArc("start", "t1")
+        .addArc("t1", "a")
+        .addArc("t1", "b")
+        .addArc("a", "ta")
+        .addArc("ta", "a2")
+        .addArc("b", "tb")
+        .addArc("tb", "b2")
+        .addArc("a2", "join")
+        .addArc("b2", "join")
+        .addArc("join", "end")
+        .build();
+  }
+
+  // start -> ok -> end, start -> stuck -> trap (trap non ha uscite)
+  static PetriNetModel choiceWithTrap() throws IllegalConnectionException {
+    return new PetriNetBuilder("Trap")
+        .newPlace("start").withType(PLACE_TYPE.START).donePlace()
+        .newPlace("trap").donePlace()
+        .newPlace("end").withType(PLACE_TYPE.END).donePlace()
+        .newTransition("ok").doneTransition()
+        .newTransition("stuck").doneTransition()
+        .addArc("start", "ok")
+        .addArc("ok", "end")
+        .addArc("start", "stuck")
+        .addArc("stuck", "trap")
+        .build();
+  }
+
+  // n rami concorrenti: start -> fork -> a_i -> t_i -> b_i -> join -> end
+  static PetriNetModel branches(int n) throws IllegalConnectionException {
+    PetriNetBuilder builder = new PetriNetBuilder("Branches")
+        .newPlace("start").withType(PLACE_TYPE.START).donePlace()
+        .newPlace("end").withType(PLACE_TYPE.END).donePlace()
+        .newTransition("fork").doneTransition()
+        .newTransition("join").doneTransition()
+        .addArc("start", "fork")
+        .addArc("join", "end");
+    for (int i = 0; i < n; i++) {
+      builder.newPlace("a" + i).donePlace()
+          .newPlace("b" + i).donePlace()
+          .newTransition("t" + i).doneTransition()
+          .addArc("fork", "a" + i)
+          .addArc("a" + i, "t" + i)
+          .addArc("t" + i, "b" + i)
+          .addArc("b" + i, "join");
+    }
+    return builder.build();
+  }
+
+  @Test
+  void testForkJoinAlwaysFinishes() throws IllegalConnectionException {
+    ReachabilityResult result = new ReachabilityExplorer(forkJoin()).explore();
+
+    // start, (a,b), (a2,b), (a,b2), (a2,b2), end
+    assertEquals(6, result.getStateCount());
+    assertTrue(result.isComplete());
+    assertTrue(result.isEndReachable());
+    assertEquals(1, result.getDeadlockCount(), "L'unico deadlock dovrebbe essere la marcatura finale.");
+    assertTrue(result.canAlwaysFinish());
+  }
+
+  @Test
+  void testStateLimitBoundary() throws IllegalConnectionException {
+    PetriNetModel model = forkJoin();
+    int stateCount = new ReachabilityExplorer(model).explore().getStateCount();
+
+    // un limite pari al numero di marcature raggiungibili non tronca l'esplorazione
+    ReachabilityResult exact = new ReachabilityExplorer(model).withMaxStates(stateCount).explore();
+    assertTrue(exact.isComplete());
+    assertEquals(stateCount, exact.getStateCount());
+    assertTrue(exact.canAlwaysFinish());
+
+    ReachabilityResult truncated = new ReachabilityExplorer(model).withMaxStates(stateCount - 1).explore();
+    assertFalse(truncated.isComplete());
+    assertFalse(truncated.canAlwaysFinish());
+  }
+
+  @Test
+  void testTrapIsReported() throws IllegalConnectionException {
+    ReachabilityResult result = new ReachabilityExplorer(choiceWithTrap()).explore();
+
+    assertTrue(result.isEndReachable());
+    assertEquals(2, result.getDeadlockCount());
+    assertEquals(1, result.getCannotFinishCount());
+    assertTrue(result.getDeadlockSamples().contains(Map.of("trap", 1)));
+    assertFalse(result.canAlwaysFinish(), "Una rete con una trappola non dovrebbe essere pubblicabile.");
+  }
+
+  @Test
+  void testBfsAndDfsAgree() throws IllegalConnectionException {
+    PetriNetModel model = forkJoin();
+    ReachabilityResult bfs = new ReachabilityExplorer(model).explore();
+    ReachabilityResult dfs = new ReachabilityExplorer(model)
+        .withOrder(ReachabilityExplorer.SearchOrder.DFS).explore();
+
+    assertEquals(bfs.getStateCount(), dfs.getStateCount());
+    assertEquals(bfs.getEdgeCount(), dfs.getEdgeCount());
+    assertEquals(bfs.getDeadlockSamples(), dfs.getDeadlockSamples());
+  }
+
+  @Test
+  void testMarkingSetWidensPacking() {
+    MarkingSet set = new MarkingSet(5);
+    assertEquals(0, set.add(new int[] { 1, 0, 2, 0, 3 }));
+    assertEquals(1, set.add(new int[] { 0, 0, 0, 0, 1 }));
+    assertEquals(-1, set.add(new int[] { 1, 0, 2, 0, 3 }), "Una marcatura gia' presente dovrebbe restituire -1 - id.");
+
+    // 70000 non entra in 8 o 16 bit: l'arena viene allargata a 32 bit
+    assertEquals(2, set.add(new int[] { 70000, 0, 0, 0, 0 }));
+    assertArrayEquals(new int[] { 1, 0, 2, 0, 3 }, set.get(0, new int[5]));
+    assertEquals(1, set.indexOf(new int[] { 0, 0, 0, 0, 1 }));
+    assertEquals(-1, set.indexOf(new int[] { 9, 9, 9, 9, 9 }));
+  }
+
+  @Test
+  void testParallelMatchesSequential() throws IllegalConnectionException {
+    PetriNetModel model = forkJoin();
+    ReachabilityResult sequential = new ReachabilityExplorer(model).explore();
+    ReachabilityResult parallel = new ParallelReachabilityExplorer(model).withThreads(4).explore();
+
+    assertEquals(sequential.getStateCount(), parallel.getStateCount());
+    assertEquals(sequential.getEdgeCount(), parallel.getEdgeCount());
+    assertEquals(sequential.getDeadlockSamples(), parallel.getDeadlockSamples());
+    assertTrue(parallel.canAlwaysFinish());
+
+    ReachabilityResult trap = new ParallelReachabilityExplorer(choiceWithTrap()).explore();
+    assertEquals(1, trap.getCannotFinishCount());
+    assertFalse(trap.canAlwaysFinish());
+  }
+
+  @Test
+  void testParallelResultDoesNotDependOnThreads() throws IllegalConnectionException {
+    PetriNetModel model = forkJoin();
+    ReachabilityResult one = new ParallelReachabilityExplorer(model).withThreads(1).withMaxStates(3).explore();
+    ReachabilityResult many = new ParallelReachabilityExplorer(model).withThreads(8).withMaxStates(3).explore();
+
+    // il limite viene controllato a fine livello: stesso troncamento con qualsiasi numero di thread
+    assertFalse(one.isComplete());
+    assertEquals(one.toString(), many.toString());
+    assertEquals(one.getDeadlockSamples(), many.getDeadlockSamples());
+  }
+
+  @Test
+  void testParallelStateLimitMatchesSequential() throws IllegalConnectionException {
+    PetriNetModel model = forkJoin();
+    int stateCount = new ReachabilityExplorer(model).explore().getStateCount();
+
+    // l'ultimo livello non produce nuovi stati: con il limite esatto l'esplorazione e' completa
+    ReachabilityResult exact = new ParallelReachabilityExplorer(model).withMaxStates(stateCount).explore();
+    assertTrue(exact.isComplete());
+    assertEquals(stateCount, exact.getStateCount());
+    assertTrue(exact.canAlwaysFinish());
+
+    assertFalse(new ParallelReachabilityExplorer(model).withMaxStates(stateCount - 1).explore().isComplete());
+  }
+
+  @Test
+  void testCoverabilityFindsUnboundedPlace() throws IllegalConnectionException {
+    // start -> t1 -> p; p -> pump -> (p, q): q cresce senza limite; p -> fin -> end
+    PetriNetModel pump = new PetriNetBuilder("Pump")
+        .newPlace("start").withType(PLACE_TYPE.START).donePlace()
+        .newPlace("p").donePlace()
+        .newPlace("q").donePlace()
+        .newPlace("end").withType(PLACE_TYPE.END).donePlace()
+        .newTransition("t1").doneTransition()
+        .newTransition("pump").doneTransition()
+        .newTransition("fin").doneTransition()
+        .addArc("start", "t1")
+        .addArc("t1", "p")
+        .addArc("p", "pump")
+        .addArc("pump", "p")
+        .addArc("pump", "q")
+        .addArc("p", "fin")
+        .addArc("fin", "end")
+        .build();
+
+    CoverabilityResult result = new CoverabilityAnalyzer(pump).analyze();
+    assertTrue(result.isComplete());
+    assertFalse(result.isBounded());
+    assertEquals(List.of("q"), result.getUnboundedPlaces());
+    assertEquals(CoverabilityAnalyzer.OMEGA, result.getPlaceBounds().get("q"));
+    assertEquals(1, result.getPlaceBounds().get("p"));
+
+    CoverabilityResult bounded = new CoverabilityAnalyzer(forkJoin()).analyze();
+    assertTrue(bounded.isBounded(), "La rete fork-join e' limitata.");
+    assertEquals(6, bounded.getNodeCount());
+  }
+
+  @Test
+  void testCoverabilityNodeLimitBoundary() throws IllegalConnectionException {
+    PetriNetModel model = forkJoin();
+    int nodeCount = new CoverabilityAnalyzer(model).analyze().getNodeCount();
+
+    // un limite pari al numero di nodi non tronca l'analisi
+    CoverabilityResult exact = new CoverabilityAnalyzer(model).withMaxNodes(nodeCount).analyze();
+    assertTrue(exact.isComplete());
+    assertTrue(exact.isBounded());
+    assertEquals(nodeCount, exact.getNodeCount());
+
+    CoverabilityResult truncated = new CoverabilityAnalyzer(model).withMaxNodes(nodeCount - 1).analyze();
+    assertFalse(truncated.isComplete());
+    assertFalse(truncated.isBounded());
+  }
+
+  @Test
+  void testPlaceInvariantsOfForkJoin() throws IllegalConnectionException {
+    CompiledNet net = CompiledNet.compile(forkJoin());
+    InvariantResult result = new InvariantAnalyzer(net).analyze();
+
+    assertTrue(result.isComplete());
+    assertEquals(2, result.getPlaceInvariants().size());
+    assertTrue(result.getPlaceInvariants().stream()
+        .anyMatch(i -> i.getWeights().equals(Map.of("start", 1, "a", 1, "a2", 1, "end", 1))));
+    assertTrue(result.getTransitionInvariants().isEmpty(), "Nessuna sequenza riproduce la marcatura iniziale.");
+    assertTrue(result.isStructurallyBounded());
+    for (Invariant invariant : result.getPlaceInvariants()) {
+      assertEquals(1, invariant.weightedSum(Map.of("start", 1)));
+      assertEquals(1, invariant.weightedSum(Map.of("a2", 1, "b", 1)));
+    }
+
+    // stessa struttura, stessa impronta: il risultato viene dalla cache
+    assertSame(InvariantAnalyzer.cached(net), InvariantAnalyzer.cached(CompiledNet.compile(forkJoin())));
+  }
+
+  @Test
+  void testStubbornSetsPreserveVerdicts() throws IllegalConnectionException {
+    PetriNetModel model = branches(4);
+
+    ReachabilityResult full = new ReachabilityExplorer(model).explore();
+    ReachabilityResult reduced = new ReachabilityExplorer(model)
+        .withReduction(true)
+        .withFullComparison(true)
+        .explore();
+
+    assertEquals(18, full.getStateCount());
+    assertTrue(reduced.isReduced());
+    assertEquals(full.getStateCount(), reduced.getFullStateCount());
+    assertTrue(reduced.getStateCount() < full.getStateCount(), "La riduzione dovrebbe evitare gli interleaving.");
+    assertEquals(full.isEndReachable(), reduced.isEndReachable());
+    assertEquals(full.getDeadlockSamples(), reduced.getDeadlockSamples());
+
+    ReachabilityResult trap = new ReachabilityExplorer(choiceWithTrap()).withReduction(true).explore();
+    assertEquals(2, trap.getDeadlockCount(), "Entrambi i deadlock devono restare visibili.");
+    assertEquals(-1, trap.getFullStateCount());
+  }
+
+  @Test
+  void testSymbolicMatchesExplicit() throws IllegalConnectionException {
+    SymbolicResult small = new SymbolicReachability(branches(4)).analyze();
+    assertTrue(small.isComplete());
+    assertEquals(BigInteger.valueOf(18), small.getStateCount());
+    assertEquals(BigInteger.ONE, small.getDeadlockCount());
+    assertTrue(small.canAlwaysFinish());
+
+    SymbolicResult trap = new SymbolicReachability(choiceWithTrap()).analyze();
+    assertEquals(BigInteger.valueOf(2), trap.getDeadlockCount());
+    assertEquals(BigInteger.ONE, trap.getCannotFinishCount());
+    assertFalse(trap.canAlwaysFinish());
+
+    // 2^40 interleavings: impossibile da enumerare, banale da rappresentare
+    SymbolicResult wide = new SymbolicReachability(branches(40)).analyze();
+    assertEquals(BigInteger.ONE.shiftLeft(40).add(BigInteger.TWO), wide.getStateCount());
+    assertTrue(wide.canAlwaysFinish());
+  }
+
+  @Test
+  void testInhibitorArcInAnalyses() throws IllegalConnectionException {
+    // start -> fork -> (a, busy); busy -> release -> done; a -> finish -> end,
+    // ma finish e' inibita finche' busy contiene un token
+    PetriNetModel model = new PetriNetBuilder("Guard")
+        .newPlace("start").withType(PLACE_TYPE.START).donePlace()
+        .newPlace("a").donePlace()
+        .newPlace("busy").donePlace()
+        .newPlace("done").donePlace()
+        .newPlace("end").withType(PLACE_TYPE.END).donePlace()
+        .newTransition("fork").doneTransition()
+        .newTransition("release").doneTransition()
+        .newTransition("finish").doneTransition()
+        .addArc("start", "fork")
+        .addArc("fork", "a")
+        .addArc("fork", "busy")
+        .addArc("busy", "release")
+        .addArc("release", "done")
+        .addArc("a", "finish")
+        .addArc("busy", "finish", 1, ARC_TYPE.INHIBITOR)
+        .addArc("finish", "end")
+        .build();
+
+    ReachabilityResult result = new ReachabilityExplorer(model).withReduction(true).explore();
+    assertEquals(4, result.getStateCount(), "Senza l'arco inibitore gli stati sarebbero 5.");
+    assertFalse(result.isReduced(), "La riduzione non si applica agli archi inibitori.");
+    assertTrue(result.canAlwaysFinish());
+
+    SymbolicResult symbolic = new SymbolicReachability(model).analyze();
+    assertEquals(BigInteger.valueOf(4), symbolic.getStateCount());
+    assertTrue(symbolic.canAlwaysFinish());
+
+    assertThrows(IllegalArgumentException.class, () -> new CoverabilityAnalyzer(model));
+  }
+}
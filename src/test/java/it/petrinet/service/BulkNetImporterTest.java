@@ -0,0 +1,121 @@
+package it.petrinet.service;
+
+import it.petrinet.model.PetriNet;
+import it.petrinet.model.User;
+import it.petrinet.model.database.DatabaseManager;
+import it.petrinet.model.database.PetriNetsDAO;
+import it.petrinet.model.database.UserDAO;
+import it.petrinet.petrinet.IllegalConnectionException;
+import it.petrinet.petrinet.builder.PetriNetBuilder;
+import it.petrinet.petrinet.model.PLACE_TYPE;
+import it.petrinet.petrinet.model.PetriNetModel;
+import it.petrinet.petrinet.persistance.NetStore;
+import it.petrinet.petrinet.persistance.pnml.StaxPNMLSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkNetImporterTest {
+
+  @TempDir
+  Path dir;
+
+  @BeforeEach
+  void useTemporaryDatabase() {
+    // database sqlite usa e getta, per non toccare quello dell'applicazione
+    System.setProperty(DatabaseManager.DATABASE_URL_PROPERTY, "jdbc:sqlite:" + dir.resolve("test.db"));
+    new UserDAO().createTable();
+    new PetriNetsDAO().createTable();
+    UserDAO.insertUser(new User("admin", "password", true));
+    UserDAO.insertUser(new User("other", "password", true));
+  }
+
+  @AfterEach
+  void restoreDatabase() {
+    System.clearProperty(DatabaseManager.DATABASE_URL_PROPERTY);
+  }
+
+  // start -> t -> end
+  static PetriNetModel sequence(String name) throws IllegalConnectionException {
+    return new PetriNetBuilder(name)
+        .newPlace("start").withType(PLACE_TYPE.START).donePlace()
+        .newPlace("end").withType(PLACE_TYPE.END).donePlace()
+        .newTransition("t").doneTransition()
+        .addArc("start", "t")
+        .addArc("t", "end")
+        .build();
+  }
+
+  // start -> ok -> end, start -> stuck -> trap: non tutte le computazioni terminano
+  static PetriNetModel withTrap(String name) throws IllegalConnectionException {
+    return new PetriNetBuilder(name)
+        .newPlace("start").withType(PLACE_TYPE.START).donePlace()
+        .newPlace("trap").donePlace()
+        .newPlace("end").withType(PLACE_TYPE.END).donePlace()
+        .newTransition("ok").doneTransition()
+        .newTransition("stuck").doneTransition()
+        .addArc("start", "ok")
+        .addArc("ok", "end")
+        .addArc("start", "stuck")
+        .addArc("stuck", "trap")
+        .build();
+  }
+
+  @Test
+  void testInsertNetsSkipsTakenNames() {
+    PetriNetsDAO.insertNet(new PetriNet("Taken", "other", 1L, "taken.pnml", "image", false));
+
+    boolean[] inserted = PetriNetsDAO.insertNets(List.of(
+        new PetriNet("Fresh", "admin", 2L, "fresh.pnml", "image", false),
+        new PetriNet("Taken", "admin", 2L, "other.pnml", "image", false)));
+
+    assertArrayEquals(new boolean[] { true, false }, inserted);
+    assertEquals("other", PetriNetsDAO.getNetByName("Taken").getCreatorId(),
+        "Una rete esistente non dovrebbe essere sovrascritta.");
+  }
+
+  @Test
+  void testImportPublishesOnlyVerifiedNets() throws Exception {
+    PetriNetsDAO.insertNet(new PetriNet("Taken", "other", 1L, "taken.pnml", "image", false));
+    Path input = dir.resolve("input");
+    Files.createDirectories(input.resolve("nested"));
+    StaxPNMLSerializer serializer = new StaxPNMLSerializer();
+    serializer.write(sequence("Valid"), input.resolve("valid.pnml"));
+    serializer.write(sequence("Valid"), input.resolve("nested/copy.pnml"));
+    serializer.write(withTrap("Trap"), input.resolve("nested/trap.pnml.gz"));
+    serializer.write(sequence("Taken"), input.resolve("taken.pnml"));
+    Files.writeString(input.resolve("broken.pnml"), "<pnml><net id=\"broken\">");
+    Files.writeString(input.resolve("notes.txt"), "non è una rete");
+    Path netDirectory = dir.resolve("nets");
+
+    BulkNetImporter.Report report = new BulkNetImporter("admin")
+        .withThreads(2)
+        .withBatchSize(2)
+        .withNetDirectory(netDirectory)
+        .importDirectory(input);
+
+    assertEquals(5, report.scanned());
+    assertEquals(2, report.imported(), "Solo Valid e Trap dovrebbero essere inseriti.");
+    assertEquals(1, report.published());
+    assertEquals(3, report.failures().size(), "File rotto, nome duplicato e nome già presente: " + report.failures());
+    assertTrue(report.failures().stream().anyMatch(f -> f.reason().contains("Duplicate net name")));
+    assertTrue(report.failures().stream().anyMatch(f -> f.file().endsWith("broken.pnml")));
+    assertTrue(report.failures().stream().anyMatch(f -> f.file().endsWith("taken.pnml")));
+    assertEquals(1, report.refused().size());
+    assertTrue(report.refused().get(0).file().endsWith("trap.pnml.gz"));
+
+    PetriNet valid = PetriNetsDAO.getNetByName("Valid");
+    assertTrue(valid.isReady(), "Una rete verificata dovrebbe essere visibile agli utenti.");
+    assertTrue(Files.exists(netDirectory.resolve(valid.getXML_PATH())));
+    assertEquals(NetStore.pathOf(sequence("Valid")), valid.getXML_PATH());
+    assertFalse(PetriNetsDAO.getNetByName("Trap").isReady(), "Una rete rifiutata non dovrebbe essere pubblicata.");
+    assertEquals("other", PetriNetsDAO.getNetByName("Taken").getCreatorId());
+  }
+}
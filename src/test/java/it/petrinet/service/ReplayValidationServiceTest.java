@@ -0,0 +1,99 @@
+package it.petrinet.service;
+
+import it.petrinet.model.database.ComputationStepDAO.StepRow;
+import it.petrinet.petrinet.IllegalConnectionException;
+import it.petrinet.petrinet.builder.PetriNetBuilder;
+import it.petrinet.petrinet.engine.CompiledNet;
+import it.petrinet.petrinet.model.PLACE_TYPE;
+import it.petrinet.service.ReplayValidationService.Issue;
+import it.petrinet.service.ReplayValidationService.IssueType;
+import it.petrinet.service.ReplayValidationService.Report;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayValidationServiceTest {
+
+  // start -> t1 -> a -> t2 -> b -> t3 -> end
+  static CompiledNet sequence() throws IllegalConnectionException {
+    return CompiledNet.compile(new PetriNetBuilder("Seq")
+        .newPlace("start").withType(PLACE_TYPE.START).donePlace()
+        .newPlace("a").donePlace()
+        .newPlace("b").donePlace()
+        .newPlace("end").withType(PLACE_TYPE.END).donePlace()
+        .newTransition("t1").doneTransition()
+        .newTransition("t2").doneTransition()
+        .newTransition("t3").doneTransition()
+        .addArc("start", "t1")
+        .addArc("t1", "a")
+        .addArc("a", "t2")
+        .addArc("t2", "b")
+        .addArc("b", "t3")
+        .addArc("t3", "end")
+        .build());
+  }
+
+  private long nextId = 1;
+
+  private StepRow row(int computationId, String netId, String transition, String marking) {
+    return new StepRow(nextId++, computationId, netId, transition, marking, nextId);
+  }
+
+  @Test
+  void testReplayReportsEveryIssueType() throws IllegalConnectionException {
+    CompiledNet net = sequence();
+    List<String> loaded = new ArrayList<>();
+    List<Issue> issues = new ArrayList<>();
+    ReplayValidationService.Replay replay = new ReplayValidationService.Replay(netId -> {
+      loaded.add(netId);
+      return netId.equals("Seq") ? net : null;
+    }, issues::add);
+
+    List<StepRow> rows = List.of(
+        // computazione 1: marcatura errata dopo t1, poi si riparte da quella salvata
+        row(1, "Seq", "", "start:1"),
+        row(1, "Seq", "t1", "b:1"),
+        row(1, "Seq", "t3", "end:1"),
+        // computazione 2: manca il passo iniziale, poi transizioni non abilitate o inesistenti
+        row(2, "Seq", "t1", "a:1"),
+        row(2, "Seq", "t3", "end:1"),
+        row(2, "Seq", "ghost", "end:1"),
+        // computazione 3: marcatura illeggibile
+        row(3, "Seq", "", "start;1"),
+        // computazione 4: rete sconosciuta, i passi successivi vengono saltati
+        row(4, "Missing", "", "start:1"),
+        row(4, "Missing", "t1", "a:1"));
+    rows.forEach(replay::accept);
+
+    assertEquals(List.of(
+        IssueType.MARKING_MISMATCH,
+        IssueType.MISSING_START,
+        IssueType.NOT_ENABLED,
+        IssueType.UNKNOWN_TRANSITION,
+        IssueType.MALFORMED_MARKING,
+        IssueType.UNKNOWN_NET), issues.stream().map(Issue::type).toList());
+
+    Issue mismatch = issues.get(0);
+    assertSame(rows.get(1), mismatch.step());
+    assertEquals(Map.of("a", 1), mismatch.expected(), "La marcatura attesa dopo t1 è a:1.");
+    // dopo la risincronizzazione su b:1, t3 porta correttamente a end:1: nessun errore sul terzo passo
+    assertSame(rows.get(3), issues.get(1).step());
+
+    Issue notEnabled = issues.get(2);
+    assertSame(rows.get(4), notEnabled.step());
+    assertEquals(Map.of("a", 1), notEnabled.expected());
+    assertSame(rows.get(5), issues.get(3).step());
+    assertSame(rows.get(6), issues.get(4).step());
+    assertSame(rows.get(7), issues.get(5).step());
+
+    Report report = replay.report();
+    assertEquals(4, report.computations());
+    assertEquals(9, report.steps());
+    assertEquals(6, report.issues());
+    assertEquals(List.of("Seq", "Missing"), loaded, "Ogni rete dovrebbe essere caricata una sola volta.");
+  }
+}